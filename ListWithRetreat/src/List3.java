@@ -6,10 +6,25 @@ import components.list.ListSecondary;
 
 /**
  * {@code List} represented as a doubly linked list, done "bare-handed", with
- * implementations of primary methods and {@code retreat} secondary method.
+ * implementations of primary methods and {@code retreat}, {@code swapRights},
+ * {@code append}, and {@code flip} secondary methods, plus {@code splice} and
+ * {@code split}.
  *
  * <p>
- * Execution-time performance of all methods implemented in this class is O(1).
+ * Execution-time performance of all methods implemented in this class is O(1),
+ * except {@code flip}, which is O(n) for a list of n entries. Thanks to the
+ * "smart" nodes, {@code swapRights}, {@code append}, {@code splice}, and
+ * {@code split} move whole chains of nodes between two {@code List3}s by
+ * relinking their ends, instead of moving the entries one by one.
+ * </p>
+ *
+ * <p>
+ * A list constructed with a pool capacity keeps up to that many nodes dropped
+ * by {@code removeRightFront} in a free list, and {@code addRightFront} reuses
+ * them, so a list whose length goes up and down (e.g., used as a queue)
+ * allocates no nodes once it has reached its largest length. The no-argument
+ * constructor makes a list without a pool. {@code allocationCount} reports how
+ * many nodes a list has allocated.
  * </p>
  *
  * @param <T>
@@ -28,7 +43,12 @@ import components.list.ListSecondary;
  * [for every node n in the doubly linked list of nodes, except the one
  *  pointed to by $this.preStart, n.previous.next = n]  and
  * [for every node n in the doubly linked list of nodes, except the one
- *  pointed to by $this.postFinish, n.next.previous = n]
+ *  pointed to by $this.postFinish, n.next.previous = n]  and
+ * 0 <= $this.poolSize <= $this.poolCapacity  and
+ * [$this.pool points to the first node of a singly linked list, through
+ *  next, containing $this.poolSize nodes, none of them in the doubly linked
+ *  list, all with null data]  and
+ * $this.allocations >= 0
  * </pre>
  * @correspondence <pre>
  * this =
@@ -92,6 +112,26 @@ public class List3<T> extends ListSecondary<T> {
      */
     private int rightLength;
 
+    /**
+     * First node of the free list of nodes to reuse, or null if it is empty.
+     */
+    private Node pool;
+
+    /**
+     * Number of nodes in the free list.
+     */
+    private int poolSize;
+
+    /**
+     * Largest number of nodes in the free list.
+     */
+    private int poolCapacity;
+
+    /**
+     * Number of nodes allocated by this list since it was constructed.
+     */
+    private long allocations;
+
     /**
      * Checks that the part of the convention repeated below holds for the
      * current representation.
@@ -112,7 +152,11 @@ public class List3<T> extends ListSecondary<T> {
      * [for every node n in the doubly linked list of nodes, except the one
      *  pointed to by $this.preStart, n.previous.next = n]  and
      * [for every node n in the doubly linked list of nodes, except the one
-     *  pointed to by $this.postFinish, n.next.previous = n]
+     *  pointed to by $this.postFinish, n.next.previous = n]  and
+     * 0 <= $this.poolSize <= $this.poolCapacity  and
+     * [$this.pool points to the first node of a singly linked list, through
+     *  next, containing $this.poolSize nodes, all with null data]  and
+     * $this.allocations >= 0
      * </pre>
      */
     private boolean conventionHolds() {
@@ -168,9 +212,63 @@ public class List3<T> extends ListSecondary<T> {
                 + "Violation of: [$this.postFinish points to the last"
                 + " node in that doubly linked list]";
 
+        assert 0 <= this.poolSize && this.poolSize <= this.poolCapacity : ""
+                + "Violation of: 0 <= $this.poolSize <= $this.poolCapacity";
+        int pooled = 0;
+        Node free = this.pool;
+        while ((pooled <= this.poolSize) && (free != null)) {
+            assert free.data == null : ""
+                    + "Violation of: [all nodes in the free list have null"
+                    + " data]";
+            pooled++;
+            free = free.next;
+        }
+        assert pooled == this.poolSize : ""
+                + "Violation of: [$this.pool points to the first node of a"
+                + " singly linked list containing $this.poolSize nodes]";
+        assert this.allocations >= 0 : "Violation of: $this.allocations >= 0";
+
         return true;
     }
 
+    /**
+     * Returns a node with null data, taken from the free list if it is not
+     * empty, or else newly allocated.
+     *
+     * @return the node
+     * @updates $this.pool, $this.poolSize, $this.allocations
+     */
+    private Node newNode() {
+        Node n = this.pool;
+        if (n != null) {
+            this.pool = n.next;
+            this.poolSize--;
+            n.next = null;
+        } else {
+            n = new Node();
+            this.allocations++;
+        }
+        return n;
+    }
+
+    /**
+     * Puts {@code n} in the free list for reuse, unless the free list is full.
+     *
+     * @param n
+     *            the node, no longer in the doubly linked list
+     * @updates $this.pool, $this.poolSize
+     */
+    private void recycle(Node n) {
+        //drop the reference to the data, so it can be garbage collected
+        n.data = null;
+        n.previous = null;
+        if (this.poolSize < this.poolCapacity) {
+            n.next = this.pool;
+            this.pool = n;
+            this.poolSize++;
+        }
+    }
+
     /**
      * Creator of initial representation.
      */
@@ -180,8 +278,8 @@ public class List3<T> extends ListSecondary<T> {
         this.rightLength = 0;
 
         //create & initialize preStart & postFinish nodes
-        this.preStart = new Node();
-        this.postFinish = new Node();
+        this.preStart = this.newNode();
+        this.postFinish = this.newNode();
 
         //link preStart & postFinish
         this.preStart.next = this.postFinish;
@@ -201,11 +299,33 @@ public class List3<T> extends ListSecondary<T> {
         assert this.conventionHolds();
     }
 
+    /**
+     * Constructor from pool capacity.
+     *
+     * @param poolCapacity
+     *            largest number of removed nodes kept for reuse
+     * @requires poolCapacity >= 0
+     * @ensures this = (<>, <>)
+     */
+    public List3(int poolCapacity) {
+        //throw error for invalid capacity if poolCapacity < 0
+        if (poolCapacity < 0) {
+            throw new IllegalArgumentException(
+                    "Pool capacity must be at least 0");
+        }
+
+        this.poolCapacity = poolCapacity;
+        this.createNewRep();
+
+        assert this.conventionHolds();
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     public final List3<T> newInstance() {
         try {
-            return this.getClass().getConstructor().newInstance();
+            return this.getClass().getConstructor(int.class)
+                    .newInstance(this.poolCapacity);
         } catch (ReflectiveOperationException e) {
             throw new AssertionError(
                     "Cannot construct object of type " + this.getClass());
@@ -242,7 +362,7 @@ public class List3<T> extends ListSecondary<T> {
     public final void addRightFront(T x) {
         assert x != null : "Violation of: x is not null";
 
-        Node n = new Node();
+        Node n = this.newNode();
         n.data = x;
         n.previous = this.lastLeft;
         n.next = this.lastLeft.next;
@@ -260,10 +380,11 @@ public class List3<T> extends ListSecondary<T> {
         this.lastLeft.next = returned.next;
         returned.next.previous = this.lastLeft;
         this.rightLength--;
+        T x = returned.data;
+        this.recycle(returned);
 
         assert this.conventionHolds();
-        // Fix this line to return the result after checking the convention.
-        return returned.data;
+        return x;
     }
 
     @Override
@@ -394,4 +515,186 @@ public class List3<T> extends ListSecondary<T> {
         assert this.conventionHolds();
     }
 
+    @Override
+    public final void swapRights(List<T> list) {
+        assert list != null : "Violation of: list is not null";
+        assert list != this : "Violation of: list is not this";
+
+        if (!(list instanceof List3<?>)) {
+            super.swapRights(list);
+            return;
+        }
+        /*
+         * This cast cannot fail since list is of dynamic type List3<?>, and the
+         * ? must be T or the call would not have compiled.
+         */
+        List3<T> localList = (List3<T>) list;
+
+        //swap the chains of nodes after lastLeft, postFinish included
+        Node thisRightFirst = this.lastLeft.next;
+        Node listRightFirst = localList.lastLeft.next;
+        this.lastLeft.next = listRightFirst;
+        listRightFirst.previous = this.lastLeft;
+        localList.lastLeft.next = thisRightFirst;
+        thisRightFirst.previous = localList.lastLeft;
+
+        Node postFinish = this.postFinish;
+        this.postFinish = localList.postFinish;
+        localList.postFinish = postFinish;
+
+        int rightLength = this.rightLength;
+        this.rightLength = localList.rightLength;
+        localList.rightLength = rightLength;
+
+        assert this.conventionHolds();
+        assert localList.conventionHolds();
+    }
+
+    @Override
+    public final void append(List<T> extension) {
+        assert extension != null : "Violation of: extension is not null";
+        assert extension != this : "Violation of: extension is not this";
+
+        if (!(extension instanceof List3<?>)) {
+            super.append(extension);
+            return;
+        }
+        /*
+         * This cast cannot fail since extension is of dynamic type List3<?>,
+         * and the ? must be T or the call would not have compiled.
+         */
+        List3<T> localExtension = (List3<T>) extension;
+
+        //link the nodes of extension after the last node, taking its postFinish
+        Node last = this.postFinish.previous;
+        last.next = localExtension.preStart.next;
+        last.next.previous = last;
+        this.postFinish = localExtension.postFinish;
+        this.rightLength += localExtension.leftLength
+                + localExtension.rightLength;
+        localExtension.createNewRep();
+
+        assert this.conventionHolds();
+        assert localExtension.conventionHolds();
+    }
+
+    @Override
+    public final void flip() {
+        //reverse the links of every node, sentinels included
+        Node n = this.preStart;
+        while (n != this.postFinish) {
+            Node next = n.next;
+            n.next = n.previous;
+            n.previous = next;
+            n = next;
+        }
+        n.next = n.previous;
+        n.previous = null;
+
+        //the old right, reversed, is the new left
+        Node oldPreStart = this.preStart;
+        this.lastLeft = this.lastLeft.previous;
+        this.preStart = this.postFinish;
+        this.postFinish = oldPreStart;
+        int leftLength = this.leftLength;
+        this.leftLength = this.rightLength;
+        this.rightLength = leftLength;
+
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    /**
+     * Inserts the entries of {@code insertion} at the front of this.right, by
+     * relinking its nodes.
+     *
+     * <p>
+     * Execution-time performance is O(1).
+     * </p>
+     *
+     * @param insertion
+     *            the list whose entries are inserted
+     * @updates this
+     * @clears insertion
+     * @requires insertion is of dynamic type List3<?>
+     * @ensures <pre>
+     * this =
+     *  (#this.left, #insertion.left * #insertion.right * #this.right)
+     * </pre>
+     */
+    public final void splice(List<T> insertion) {
+        assert insertion != null : "Violation of: insertion is not null";
+        assert insertion != this : "Violation of: insertion is not this";
+        assert insertion instanceof List3<?> : ""
+                + "Violation of: insertion is of dynamic type List3<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: insertion must be of dynamic type List3<?>,
+         * and the ? must be T or the call would not have compiled.
+         */
+        List3<T> localInsertion = (List3<T>) insertion;
+
+        int length = localInsertion.leftLength + localInsertion.rightLength;
+        if (length > 0) {
+            Node first = localInsertion.preStart.next;
+            Node last = localInsertion.postFinish.previous;
+            last.next = this.lastLeft.next;
+            last.next.previous = last;
+            this.lastLeft.next = first;
+            first.previous = this.lastLeft;
+            this.rightLength += length;
+            localInsertion.createNewRep();
+        }
+
+        assert this.conventionHolds();
+        assert localInsertion.conventionHolds();
+    }
+
+    /**
+     * Reports the number of nodes allocated by {@code this} since it was
+     * constructed (including the two "smart" nodes of each new representation
+     * made by the constructor, {@code clear}, and {@code transferFrom}).
+     *
+     * @return the number of nodes allocated
+     */
+    public final long allocationCount() {
+        assert this.conventionHolds();
+
+        return this.allocations;
+    }
+
+    /**
+     * Moves the entries of this.right to {@code tail}, by relinking their
+     * nodes.
+     *
+     * <p>
+     * Execution-time performance is O(1).
+     * </p>
+     *
+     * @param tail
+     *            the list that gets the entries of this.right
+     * @updates this
+     * @replaces tail
+     * @requires tail is of dynamic type List3<?>
+     * @ensures this = (#this.left, <>)  and  tail = (<>, #this.right)
+     */
+    public final void split(List<T> tail) {
+        assert tail != null : "Violation of: tail is not null";
+        assert tail != this : "Violation of: tail is not this";
+        assert tail instanceof List3<?> : ""
+                + "Violation of: tail is of dynamic type List3<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: tail must be of dynamic type List3<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List3<T> localTail = (List3<T>) tail;
+
+        localTail.createNewRep();
+        this.swapRights(localTail);
+    }
+
 }
@@ -0,0 +1,659 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List} represented as an unrolled doubly linked list, i.e., a doubly
+ * linked list of nodes each holding up to B entries in an array, with
+ * implementations of primary methods and {@code retreat} secondary method.
+ *
+ * <p>
+ * The node capacity B is chosen at construction (64 by default). Compared with
+ * {@code List3}, which has one node of three references per entry, a list of n
+ * entries takes about n / B nodes and n array slots, and iterating over it
+ * mostly scans arrays instead of following a reference per entry.
+ * </p>
+ *
+ * <p>
+ * Execution-time performance of {@code addRightFront} and
+ * {@code removeRightFront} is O(B), since they shift the entries after the
+ * position within one node (and may split a full node or merge two nodes that
+ * fit in one), which is O(1) for a fixed B. All other methods implemented in
+ * this class are O(1).
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ * @convention <pre>
+ * $this.nodeCapacity >= 2  and
+ * $this.leftLength >= 0  and
+ * $this.rightLength >= 0  and
+ * [$this.preStart is not null]  and
+ * [$this.postFinish is not null]  and
+ * [$this.rightFrontNode is not null]  and
+ * [$this.preStart points to the first node of a doubly linked list whose
+ *  last node is pointed to by $this.postFinish]  and
+ * [for every node n in the doubly linked list of nodes, except the ones
+ *  pointed to by $this.preStart and $this.postFinish,
+ *  |n.entries| = $this.nodeCapacity  and  1 <= n.count <= |n.entries|]  and
+ * [the sum of n.count over those nodes n is
+ *  $this.leftLength + $this.rightLength]  and
+ * [either $this.rightFrontNode = $this.postFinish  and
+ *  $this.rightFrontIndex = 0  and  $this.rightLength = 0,
+ *  or $this.rightFrontNode points to one of those nodes n with
+ *  0 <= $this.rightFrontIndex < n.count  and  the number of entries in
+ *  the nodes before n plus $this.rightFrontIndex is $this.leftLength]  and
+ * [for every node n in the doubly linked list of nodes, except the one
+ *  pointed to by $this.preStart, n.previous.next = n]  and
+ * [for every node n in the doubly linked list of nodes, except the one
+ *  pointed to by $this.postFinish, n.next.previous = n]
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  ([the first $this.leftLength entries n.entries[0, n.count), for the
+ *    nodes n starting at $this.preStart.next and running through
+ *    $this.postFinish.previous, in order],
+ *   [the remaining entries])
+ * </pre>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public class List4<T> extends ListSecondary<T> {
+
+    /**
+     * Node capacity used by the no-argument constructor.
+     */
+    private static final int DEFAULT_NODE_CAPACITY = 64;
+
+    /**
+     * Node class for unrolled doubly linked list nodes.
+     */
+    private final class Node {
+
+        /**
+         * Entries in node, in positions [0, count), or, if this is a "smart"
+         * Node, an empty array.
+         */
+        private final T[] entries;
+
+        /**
+         * Number of entries in node.
+         */
+        private int count;
+
+        /**
+         * Next node in doubly linked list, or, if this is a trailing "smart"
+         * Node, irrelevant.
+         */
+        private Node next;
+
+        /**
+         * Previous node in doubly linked list, or, if this is a leading "smart"
+         * Node, irrelevant.
+         */
+        private Node previous;
+
+        /**
+         * Constructor from capacity.
+         *
+         * @param capacity
+         *            the number of entries the node can hold
+         */
+        @SuppressWarnings("unchecked")
+        private Node(int capacity) {
+            /*
+             * With "new T[...]" in place of "new Object[...]" it does not
+             * compile; as shown, it results in a warning about an unchecked
+             * cast, though it cannot fail.
+             */
+            this.entries = (T[]) new Object[capacity];
+            this.count = 0;
+        }
+
+    }
+
+    /**
+     * Largest number of entries in a node.
+     */
+    private int nodeCapacity;
+
+    /**
+     * "Smart node" before first node of doubly linked list.
+     */
+    private Node preStart;
+
+    /**
+     * "Smart node" after last node of doubly linked list.
+     */
+    private Node postFinish;
+
+    /**
+     * Node holding the front of this.right, or postFinish if this.right is
+     * empty.
+     */
+    private Node rightFrontNode;
+
+    /**
+     * Index of the front of this.right in rightFrontNode.entries, or 0 if
+     * this.right is empty.
+     */
+    private int rightFrontIndex;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Length of this.right.
+     */
+    private int rightLength;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.nodeCapacity >= 2  and
+     * $this.leftLength >= 0  and
+     * $this.rightLength >= 0  and
+     * [$this.preStart is not null]  and
+     * [$this.postFinish is not null]  and
+     * [$this.rightFrontNode is not null]  and
+     * [$this.preStart points to the first node of a doubly linked list whose
+     *  last node is pointed to by $this.postFinish]  and
+     * [for every node n in the doubly linked list of nodes, except the ones
+     *  pointed to by $this.preStart and $this.postFinish,
+     *  |n.entries| = $this.nodeCapacity  and  1 <= n.count <= |n.entries|]  and
+     * [the sum of n.count over those nodes n is
+     *  $this.leftLength + $this.rightLength]  and
+     * [either $this.rightFrontNode = $this.postFinish  and
+     *  $this.rightFrontIndex = 0  and  $this.rightLength = 0,
+     *  or $this.rightFrontNode points to one of those nodes n with
+     *  0 <= $this.rightFrontIndex < n.count  and  the number of entries in
+     *  the nodes before n plus $this.rightFrontIndex is $this.leftLength]  and
+     * [for every node n in the doubly linked list of nodes, except the one
+     *  pointed to by $this.preStart, n.previous.next = n]  and
+     * [for every node n in the doubly linked list of nodes, except the one
+     *  pointed to by $this.postFinish, n.next.previous = n]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.nodeCapacity >= 2 : "Violation of: $this.nodeCapacity >= 2";
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert this.preStart != null : "Violation of: $this.preStart is not null";
+        assert this.postFinish != null : ""
+                + "Violation of: $this.postFinish is not null";
+        assert this.rightFrontNode != null : ""
+                + "Violation of: $this.rightFrontNode is not null";
+
+        int length = this.leftLength + this.rightLength;
+        int count = 0;
+        boolean rightFrontFound = false;
+        Node n = this.preStart;
+        /*
+         * Every node between the "smart" ones holds at least one entry, so
+         * there are at most length of them
+         */
+        while ((count <= length) && (n != this.postFinish)) {
+            /*
+             * Check for every node n in the doubly linked list of nodes, except
+             * the one pointed to by $this.postFinish, n.next.previous = n
+             */
+            assert (n.next != null) && (n.next.previous == n) : ""
+                    + "Violation of: [for every node n in the doubly linked"
+                    + " list of nodes, except the one pointed to by"
+                    + " $this.postFinish, n.next.previous = n]";
+            n = n.next;
+            /*
+             * Check for every node n in the doubly linked list of nodes, except
+             * the one pointed to by $this.preStart, n.previous.next = n
+             */
+            assert n.previous.next == n : ""
+                    + "Violation of: [for every node n in the doubly linked"
+                    + " list of nodes, except the one pointed to by"
+                    + " $this.preStart, n.previous.next = n]";
+            if (n != this.postFinish) {
+                assert (n.entries.length == this.nodeCapacity)
+                        && (1 <= n.count) && (n.count <= n.entries.length) : ""
+                                + "Violation of: [|n.entries| ="
+                                + " $this.nodeCapacity  and"
+                                + "  1 <= n.count <= |n.entries|]";
+                if (n == this.rightFrontNode) {
+                    int position = count + this.rightFrontIndex;
+                    assert (0 <= this.rightFrontIndex)
+                            && (this.rightFrontIndex < n.count)
+                            && (position == this.leftLength) : ""
+                                    + "Violation of: [$this.rightFrontIndex"
+                                    + " is the position of the front of"
+                                    + " this.right in $this.rightFrontNode]";
+                    rightFrontFound = true;
+                }
+                count += n.count;
+            }
+        }
+        assert n == this.postFinish : ""
+                + "Violation of: [$this.preStart points to the first node of"
+                + " a doubly linked list whose last node is pointed to by"
+                + " $this.postFinish]";
+        assert count == length : ""
+                + "Violation of: [the sum of n.count over those nodes n is"
+                + " $this.leftLength + $this.rightLength]";
+        if (this.rightFrontNode == this.postFinish) {
+            assert (this.rightFrontIndex == 0) && (this.rightLength == 0) : ""
+                    + "Violation of: [$this.rightFrontIndex = 0  and"
+                    + "  $this.rightLength = 0]";
+            rightFrontFound = true;
+        }
+        assert rightFrontFound : ""
+                + "Violation of: [$this.rightFrontNode points to a node in"
+                + " the doubly linked list]";
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param capacity
+     *            largest number of entries in a node
+     */
+    private void createNewRep(int capacity) {
+        this.nodeCapacity = capacity;
+
+        //initialize lengths to zero
+        this.leftLength = 0;
+        this.rightLength = 0;
+
+        //create & initialize preStart & postFinish nodes
+        this.preStart = new Node(0);
+        this.postFinish = new Node(0);
+
+        //link preStart & postFinish
+        this.preStart.next = this.postFinish;
+        this.postFinish.previous = this.preStart;
+
+        //this.right is empty, so its front is postFinish
+        this.rightFrontNode = this.postFinish;
+        this.rightFrontIndex = 0;
+    }
+
+    /**
+     * Creates an empty node and links it into the doubly linked list right
+     * before {@code n}.
+     *
+     * @param n
+     *            the node to link the new node before
+     * @return the new node
+     * @requires n is in the doubly linked list and n /= $this.preStart
+     */
+    private Node linkNewNodeBefore(Node n) {
+        Node m = new Node(this.nodeCapacity);
+        m.previous = n.previous;
+        m.next = n;
+        n.previous.next = m;
+        n.previous = m;
+        return m;
+    }
+
+    /**
+     * Unlinks {@code n} from the doubly linked list.
+     *
+     * @param n
+     *            the node to unlink
+     * @requires <pre>
+     * n is in the doubly linked list  and
+     * n /= $this.preStart  and  n /= $this.postFinish
+     * </pre>
+     */
+    private void unlink(Node n) {
+        n.previous.next = n.next;
+        n.next.previous = n.previous;
+    }
+
+    /**
+     * Moves the upper half of the entries of the full node {@code n} into a
+     * new node linked in right after it.
+     *
+     * @param n
+     *            the node to split
+     * @requires <pre>
+     * n is in the doubly linked list  and
+     * n /= $this.preStart  and  n /= $this.postFinish  and
+     * n.count = $this.nodeCapacity
+     * </pre>
+     */
+    private void split(Node n) {
+        Node m = this.linkNewNodeBefore(n.next);
+        int half = n.count / 2;
+        m.count = n.count - half;
+        System.arraycopy(n.entries, half, m.entries, 0, m.count);
+        for (int i = half; i < n.count; i++) {
+            n.entries[i] = null;
+        }
+        n.count = half;
+    }
+
+    /**
+     * Moves the entries of the node after {@code n} into {@code n}, and
+     * unlinks that node, if both are nodes with entries and all of those fit
+     * in {@code n}.
+     *
+     * @param n
+     *            the node to merge the next one into
+     * @requires n is in the doubly linked list and n /= $this.postFinish
+     */
+    private void mergeWithNext(Node n) {
+        Node m = n.next;
+        if (n != this.preStart && m != this.postFinish
+                && n.count + m.count <= this.nodeCapacity) {
+            System.arraycopy(m.entries, 0, n.entries, n.count, m.count);
+            if (this.rightFrontNode == m) {
+                this.rightFrontNode = n;
+                this.rightFrontIndex += n.count;
+            }
+            n.count += m.count;
+            this.unlink(m);
+        }
+    }
+
+    /**
+     * No-argument constructor.
+     */
+    public List4() {
+
+        this.createNewRep(DEFAULT_NODE_CAPACITY);
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from node capacity.
+     *
+     * @param nodeCapacity
+     *            largest number of entries in a node
+     * @requires nodeCapacity >= 2
+     * @ensures this = (<>, <>)
+     */
+    public List4(int nodeCapacity) {
+        //throw error for invalid capacity if nodeCapacity < 2
+        if (nodeCapacity < 2) {
+            throw new IllegalArgumentException(
+                    "Node capacity must be at least 2");
+        }
+
+        this.createNewRep(nodeCapacity);
+
+        assert this.conventionHolds();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final List4<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(int.class)
+                    .newInstance(this.nodeCapacity);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.nodeCapacity);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof List4<?> : ""
+                + "Violation of: source is of dynamic type List4<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List4<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List4<T> localSource = (List4<T>) source;
+        this.nodeCapacity = localSource.nodeCapacity;
+        this.preStart = localSource.preStart;
+        this.postFinish = localSource.postFinish;
+        this.rightFrontNode = localSource.rightFrontNode;
+        this.rightFrontIndex = localSource.rightFrontIndex;
+        this.leftLength = localSource.leftLength;
+        this.rightLength = localSource.rightLength;
+        localSource.createNewRep(localSource.nodeCapacity);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        Node n = this.rightFrontNode;
+        int i = this.rightFrontIndex;
+        Node p = n.previous;
+        if (i == 0 && p != this.preStart && p.count < this.nodeCapacity) {
+            //x goes at the end of the previous node, so nothing is shifted
+            this.rightFrontNode = p;
+            this.rightFrontIndex = p.count;
+            p.entries[p.count] = x;
+            p.count++;
+        } else if (n == this.postFinish) {
+            //the previous node is full (or there is none), so start a new one
+            Node m = this.linkNewNodeBefore(n);
+            m.entries[0] = x;
+            m.count = 1;
+            this.rightFrontNode = m;
+            this.rightFrontIndex = 0;
+        } else {
+            //make room in n, then shift its entries from position i up
+            if (n.count == this.nodeCapacity) {
+                this.split(n);
+                if (i > n.count) {
+                    i -= n.count;
+                    n = n.next;
+                }
+            }
+            System.arraycopy(n.entries, i, n.entries, i + 1, n.count - i);
+            n.entries[i] = x;
+            n.count++;
+            this.rightFrontNode = n;
+            this.rightFrontIndex = i;
+        }
+        this.rightLength++;
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        Node n = this.rightFrontNode;
+        int i = this.rightFrontIndex;
+        T returned = n.entries[i];
+        n.count--;
+        System.arraycopy(n.entries, i + 1, n.entries, i, n.count - i);
+        n.entries[n.count] = null;
+        this.rightLength--;
+
+        if (n.count == 0) {
+            //drop the empty node; its neighbors may now fit in one
+            Node p = n.previous;
+            this.unlink(n);
+            this.rightFrontNode = n.next;
+            this.rightFrontIndex = 0;
+            this.mergeWithNext(p);
+        } else {
+            if (i == n.count) {
+                this.rightFrontNode = n.next;
+                this.rightFrontIndex = 0;
+            }
+            //keep nodes at least about half full
+            if (n.count <= this.nodeCapacity / 2) {
+                this.mergeWithNext(n);
+                this.mergeWithNext(n.previous);
+            }
+        }
+
+        assert this.conventionHolds();
+        return returned;
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        //move position one entry up, to the next node past the last entry
+        this.rightFrontIndex++;
+        if (this.rightFrontIndex == this.rightFrontNode.count) {
+            this.rightFrontNode = this.rightFrontNode.next;
+            this.rightFrontIndex = 0;
+        }
+
+        //update lengths
+        this.leftLength++;
+        this.rightLength--;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void moveToStart() {
+
+        //do nothing if already at start
+        if (this.leftLength == 0) {
+            return;
+        }
+
+        //move position to beginning
+        this.rightFrontNode = this.preStart.next;
+        this.rightFrontIndex = 0;
+        this.rightLength += this.leftLength;
+        this.leftLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int leftLength() {
+        assert this.conventionHolds();
+
+        return this.leftLength;
+    }
+
+    @Override
+    public final int rightLength() {
+        assert this.conventionHolds();
+
+        return this.rightLength;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        assert this.conventionHolds();
+        return new List4Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List4}.
+     */
+    private final class List4Iterator implements Iterator<T> {
+
+        /**
+         * Current node in the linked list.
+         */
+        private Node current;
+
+        /**
+         * Index of the next entry in current.entries.
+         */
+        private int index;
+
+        /**
+         * No-argument constructor.
+         */
+        private List4Iterator() {
+            this.current = List4.this.preStart.next;
+            this.index = 0;
+            assert List4.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current != List4.this.postFinish;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = this.current.entries[this.index];
+            this.index++;
+            if (this.index == this.current.count) {
+                this.current = this.current.next;
+                this.index = 0;
+            }
+            assert List4.this.conventionHolds();
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void moveToFinish() {
+        //move position past the last entry
+        this.rightFrontNode = this.postFinish;
+        this.rightFrontIndex = 0;
+
+        //update lengths
+        this.leftLength = this.leftLength + this.rightLength;
+        this.rightLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+
+        //move position one entry back, to the previous node before the first
+        if (this.rightFrontIndex > 0) {
+            this.rightFrontIndex--;
+        } else {
+            this.rightFrontNode = this.rightFrontNode.previous;
+            this.rightFrontIndex = this.rightFrontNode.count - 1;
+        }
+
+        //update lengths
+        this.leftLength--;
+        this.rightLength++;
+
+        assert this.conventionHolds();
+    }
+
+}
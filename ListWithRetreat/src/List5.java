@@ -0,0 +1,404 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List} represented as a gap buffer, i.e., a single array holding
+ * this.left at its start and this.right at its end, with the unused "gap" in
+ * between at the position, with implementations of primary methods and
+ * {@code retreat} secondary method.
+ *
+ * <p>
+ * Execution-time performance of {@code addRightFront},
+ * {@code removeRightFront}, {@code advance}, and {@code retreat} is O(1):
+ * they only move one entry across the gap, and allocate nothing except when
+ * {@code addRightFront} finds the array full and doubles it (amortized O(1)).
+ * {@code moveToStart} and {@code moveToFinish} move the whole of this.left or
+ * this.right across the gap, so they are O(|this.left|) and O(|this.right|),
+ * respectively. Iterating over the list scans the array. This suits clients
+ * that mostly move the position by a few entries and insert or remove there,
+ * as in a text editor.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ * @convention <pre>
+ * $this.initialCapacity >= 1  and
+ * |$this.entries| >= 1  and
+ * $this.leftLength >= 0  and
+ * $this.rightLength >= 0  and
+ * $this.leftLength + $this.rightLength <= |$this.entries|  and
+ * [all entries of $this.entries[0, $this.leftLength) are not null]  and
+ * [all entries of $this.entries[$this.leftLength,
+ *  |$this.entries| - $this.rightLength) are null]  and
+ * [all entries of $this.entries[|$this.entries| - $this.rightLength,
+ *  |$this.entries|) are not null]
+ * </pre>
+ * @correspondence <pre>
+ * this =
+ *  ($this.entries[0, $this.leftLength),
+ *   $this.entries[|$this.entries| - $this.rightLength, |$this.entries|))
+ * </pre>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public class List5<T> extends ListSecondary<T> {
+
+    /**
+     * Initial capacity used by the no-argument constructor.
+     */
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    /**
+     * Length of the array of a new or cleared list.
+     */
+    private int initialCapacity;
+
+    /**
+     * Entries of this.left, then the gap, then entries of this.right.
+     */
+    private T[] entries;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Length of this.right.
+     */
+    private int rightLength;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.initialCapacity >= 1  and
+     * |$this.entries| >= 1  and
+     * $this.leftLength >= 0  and
+     * $this.rightLength >= 0  and
+     * $this.leftLength + $this.rightLength <= |$this.entries|  and
+     * [all entries of $this.entries[0, $this.leftLength) are not null]  and
+     * [all entries of $this.entries[$this.leftLength,
+     *  |$this.entries| - $this.rightLength) are null]  and
+     * [all entries of $this.entries[|$this.entries| - $this.rightLength,
+     *  |$this.entries|) are not null]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.initialCapacity >= 1 : ""
+                + "Violation of: $this.initialCapacity >= 1";
+        assert this.entries != null && this.entries.length >= 1 : ""
+                + "Violation of: |$this.entries| >= 1";
+        assert this.leftLength >= 0 : "Violation of: $this.leftLength >= 0";
+        assert this.rightLength >= 0 : "Violation of: $this.rightLength >= 0";
+        assert this.leftLength + this.rightLength <= this.entries.length : ""
+                + "Violation of: $this.leftLength + $this.rightLength"
+                + " <= |$this.entries|";
+
+        int gapEnd = this.entries.length - this.rightLength;
+        for (int i = 0; i < this.entries.length; i++) {
+            boolean inGap = this.leftLength <= i && i < gapEnd;
+            assert (this.entries[i] == null) == inGap : ""
+                    + "Violation of: [entries of $this.entries are null"
+                    + " exactly in the gap]";
+        }
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param capacity
+     *            length of the array
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(int capacity) {
+        this.initialCapacity = capacity;
+        /*
+         * With "new T[...]" in place of "new Object[...]" it does not compile;
+         * as shown, it results in a warning about an unchecked cast, though it
+         * cannot fail.
+         */
+        this.entries = (T[]) new Object[capacity];
+        this.leftLength = 0;
+        this.rightLength = 0;
+    }
+
+    /**
+     * Doubles the length of the array, keeping this.left at its start and
+     * this.right at its end.
+     *
+     * @updates $this.entries
+     * @ensures |$this.entries| = 2 * |#$this.entries|
+     */
+    private void grow() {
+        int oldLength = this.entries.length;
+        T[] grown = Arrays.copyOf(this.entries, 2 * oldLength);
+        System.arraycopy(this.entries, oldLength - this.rightLength, grown,
+                grown.length - this.rightLength, this.rightLength);
+        Arrays.fill(grown, this.leftLength, grown.length - this.rightLength,
+                null);
+        this.entries = grown;
+    }
+
+    /**
+     * No-argument constructor.
+     */
+    public List5() {
+
+        this.createNewRep(DEFAULT_INITIAL_CAPACITY);
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from initial capacity.
+     *
+     * @param initialCapacity
+     *            number of entries the list holds before its array grows
+     * @requires initialCapacity >= 1
+     * @ensures this = (<>, <>)
+     */
+    public List5(int initialCapacity) {
+        //throw error for invalid capacity if initialCapacity < 1
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException(
+                    "Initial capacity must be at least 1");
+        }
+
+        this.createNewRep(initialCapacity);
+
+        assert this.conventionHolds();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final List5<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(int.class)
+                    .newInstance(this.initialCapacity);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.initialCapacity);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof List5<?> : ""
+                + "Violation of: source is of dynamic type List5<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List5<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List5<T> localSource = (List5<T>) source;
+        this.initialCapacity = localSource.initialCapacity;
+        this.entries = localSource.entries;
+        this.leftLength = localSource.leftLength;
+        this.rightLength = localSource.rightLength;
+        localSource.createNewRep(localSource.initialCapacity);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        if (this.leftLength + this.rightLength == this.entries.length) {
+            this.grow();
+        }
+        this.rightLength++;
+        this.entries[this.entries.length - this.rightLength] = x;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        int front = this.entries.length - this.rightLength;
+        T returned = this.entries[front];
+        this.entries[front] = null;
+        this.rightLength--;
+
+        assert this.conventionHolds();
+        return returned;
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        //move the front of this.right across the gap, if there is one
+        int front = this.entries.length - this.rightLength;
+        if (front != this.leftLength) {
+            this.entries[this.leftLength] = this.entries[front];
+            this.entries[front] = null;
+        }
+
+        //update lengths
+        this.leftLength++;
+        this.rightLength--;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void moveToStart() {
+
+        //do nothing if already at start
+        if (this.leftLength == 0) {
+            return;
+        }
+
+        //move all of this.left across the gap
+        int gapLength = this.entries.length - this.leftLength
+                - this.rightLength;
+        System.arraycopy(this.entries, 0, this.entries, gapLength,
+                this.leftLength);
+        Arrays.fill(this.entries, 0, Math.min(gapLength, this.leftLength),
+                null);
+        this.rightLength += this.leftLength;
+        this.leftLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int leftLength() {
+        assert this.conventionHolds();
+
+        return this.leftLength;
+    }
+
+    @Override
+    public final int rightLength() {
+        assert this.conventionHolds();
+
+        return this.rightLength;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        assert this.conventionHolds();
+        return new List5Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List5}.
+     */
+    private final class List5Iterator implements Iterator<T> {
+
+        /**
+         * Index of the next entry in the array.
+         */
+        private int index;
+
+        /**
+         * No-argument constructor.
+         */
+        private List5Iterator() {
+            this.index = 0;
+            this.skipGap();
+            assert List5.this.conventionHolds();
+        }
+
+        /**
+         * Moves index past the gap if it is at the start of the gap.
+         */
+        private void skipGap() {
+            if (this.index == List5.this.leftLength) {
+                this.index = List5.this.entries.length
+                        - List5.this.rightLength;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.index < List5.this.entries.length;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T x = List5.this.entries[this.index];
+            this.index++;
+            this.skipGap();
+            assert List5.this.conventionHolds();
+            return x;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final void moveToFinish() {
+        //move all of this.right across the gap
+        int gapLength = this.entries.length - this.leftLength
+                - this.rightLength;
+        System.arraycopy(this.entries, this.leftLength + gapLength,
+                this.entries, this.leftLength, this.rightLength);
+        Arrays.fill(this.entries,
+                Math.max(this.leftLength + this.rightLength,
+                        this.leftLength + gapLength),
+                this.entries.length, null);
+
+        //update lengths
+        this.leftLength = this.leftLength + this.rightLength;
+        this.rightLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+
+        //move the back of this.left across the gap, if there is one
+        this.leftLength--;
+        this.rightLength++;
+        int front = this.entries.length - this.rightLength;
+        if (front != this.leftLength) {
+            this.entries[front] = this.entries[this.leftLength];
+            this.entries[this.leftLength] = null;
+        }
+
+        assert this.conventionHolds();
+    }
+
+}
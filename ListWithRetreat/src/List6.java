@@ -0,0 +1,547 @@
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import components.list.List;
+import components.list.ListSecondary;
+
+/**
+ * {@code List} represented as an implicit treap, i.e., a binary tree whose
+ * in-order traversal is the list and in which every node records the size of
+ * its subtree (so the entry at any index is found by descending from the root)
+ * and has a random priority no larger than its parent's (so the tree is
+ * balanced with high probability), with implementations of primary methods,
+ * several secondary methods, and {@code seek}.
+ *
+ * <p>
+ * The position is just the length of this.left, so {@code advance},
+ * {@code retreat}, {@code moveToStart}, {@code moveToFinish}, and
+ * {@code seek} are O(1), and jumping to position k no longer takes k calls to
+ * {@code advance} as with {@code List3}. {@code addRightFront},
+ * {@code removeRightFront}, {@code rightFront}, and {@code replaceRightFront}
+ * find their entry by index, so they are O(log n) expected, for a list of n
+ * entries. Iterating over the whole list is O(n).
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code List} entries
+ * @convention <pre>
+ * 0 <= $this.leftLength <= SIZE($this.root)  and
+ * [for every node n in the tree rooted at $this.root,
+ *  n.data is not null  and
+ *  n.size = 1 + SIZE(n.left) + SIZE(n.right)  and
+ *  (n.left = null  or  n.left.priority <= n.priority)  and
+ *  (n.right = null  or  n.right.priority <= n.priority)]
+ * </pre>
+ * where SIZE(n) = (0 if n = null, otherwise n.size)
+ * @correspondence <pre>
+ * this =
+ *  ([the first $this.leftLength entries of the in-order traversal of the
+ *    data in the tree rooted at $this.root],
+ *   [the remaining entries of that traversal])
+ * </pre>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public class List6<T> extends ListSecondary<T> {
+
+    /**
+     * Node class for treap nodes.
+     */
+    private final class Node {
+
+        /**
+         * Data in node.
+         */
+        private T data;
+
+        /**
+         * Random priority of node, no larger than its parent's.
+         */
+        private final int priority;
+
+        /**
+         * Number of nodes in the subtree rooted at this node.
+         */
+        private int size;
+
+        /**
+         * Root of left subtree, or null if it is empty.
+         */
+        private Node left;
+
+        /**
+         * Root of right subtree, or null if it is empty.
+         */
+        private Node right;
+
+        /**
+         * Constructor from data.
+         *
+         * @param data
+         *            the data in the node
+         */
+        private Node(T data) {
+            this.data = data;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.size = 1;
+        }
+
+    }
+
+    /**
+     * Root of the tree, or null if it is empty.
+     */
+    private Node root;
+
+    /**
+     * Length of this.left.
+     */
+    private int leftLength;
+
+    /**
+     * Returns the number of nodes in the subtree rooted at {@code n}.
+     *
+     * @param n
+     *            the root of the subtree, or null
+     * @return the number of nodes
+     * @ensures size = SIZE(n)
+     */
+    private int size(Node n) {
+        int size = 0;
+        if (n != null) {
+            size = n.size;
+        }
+        return size;
+    }
+
+    /**
+     * Checks the convention for the subtree rooted at {@code n} and returns
+     * its size.
+     *
+     * @param n
+     *            the root of the subtree, or null
+     * @return the number of nodes
+     * @ensures checkedSize = SIZE(n)
+     */
+    private int checkedSize(Node n) {
+        int size = 0;
+        if (n != null) {
+            assert n.data != null : "Violation of: n.data is not null";
+            assert (n.left == null) || (n.left.priority <= n.priority) : ""
+                    + "Violation of: n.left.priority <= n.priority";
+            assert (n.right == null) || (n.right.priority <= n.priority) : ""
+                    + "Violation of: n.right.priority <= n.priority";
+            size = 1 + this.checkedSize(n.left) + this.checkedSize(n.right);
+            assert n.size == size : ""
+                    + "Violation of: n.size = 1 + SIZE(n.left) + SIZE(n.right)";
+        }
+        return size;
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 <= $this.leftLength <= SIZE($this.root)  and
+     * [for every node n in the tree rooted at $this.root,
+     *  n.data is not null  and
+     *  n.size = 1 + SIZE(n.left) + SIZE(n.right)  and
+     *  (n.left = null  or  n.left.priority <= n.priority)  and
+     *  (n.right = null  or  n.right.priority <= n.priority)]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        int size = this.checkedSize(this.root);
+        assert 0 <= this.leftLength && this.leftLength <= size : ""
+                + "Violation of: 0 <= $this.leftLength <= SIZE($this.root)";
+
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+        this.root = null;
+        this.leftLength = 0;
+    }
+
+    /**
+     * Recomputes the size of {@code n} from the sizes of its subtrees.
+     *
+     * @param n
+     *            the node
+     * @updates n.size
+     * @ensures n.size = 1 + SIZE(n.left) + SIZE(n.right)
+     */
+    private void resize(Node n) {
+        n.size = 1 + this.size(n.left) + this.size(n.right);
+    }
+
+    /**
+     * Returns the node at index {@code k} of the in-order traversal of the
+     * subtree rooted at {@code n}.
+     *
+     * @param n
+     *            the root of the subtree
+     * @param k
+     *            the index
+     * @return the node at index k
+     * @requires 0 <= k < SIZE(n)
+     */
+    private Node nodeAt(Node n, int k) {
+        Node current = n;
+        int index = k;
+        int leftSize = this.size(current.left);
+        while (index != leftSize) {
+            if (index < leftSize) {
+                current = current.left;
+            } else {
+                index -= leftSize + 1;
+                current = current.right;
+            }
+            leftSize = this.size(current.left);
+        }
+        return current;
+    }
+
+    /**
+     * Inserts {@code m} into the subtree rooted at {@code n} so that it has
+     * index {@code k} in the in-order traversal, and returns the new root.
+     *
+     * @param n
+     *            the root of the subtree, or null
+     * @param k
+     *            the index
+     * @param m
+     *            the node to insert, with no subtrees
+     * @return the root of the subtree with m inserted
+     * @requires 0 <= k <= SIZE(n)
+     */
+    private Node insert(Node n, int k, Node m) {
+        Node top = m;
+        if (n != null) {
+            top = n;
+            int leftSize = this.size(n.left);
+            if (k <= leftSize) {
+                n.left = this.insert(n.left, k, m);
+                if (n.left.priority > n.priority) {
+                    //rotate right, so n.left becomes the root
+                    top = n.left;
+                    n.left = top.right;
+                    top.right = n;
+                }
+            } else {
+                n.right = this.insert(n.right, k - leftSize - 1, m);
+                if (n.right.priority > n.priority) {
+                    //rotate left, so n.right becomes the root
+                    top = n.right;
+                    n.right = top.left;
+                    top.left = n;
+                }
+            }
+            this.resize(n);
+            if (top != n) {
+                this.resize(top);
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Joins the subtrees rooted at {@code a} and {@code b} into one whose
+     * in-order traversal is that of a followed by that of b, and returns its
+     * root.
+     *
+     * @param a
+     *            the root of the first subtree, or null
+     * @param b
+     *            the root of the second subtree, or null
+     * @return the root of the joined subtree
+     */
+    private Node merge(Node a, Node b) {
+        Node top;
+        if (a == null) {
+            top = b;
+        } else if (b == null) {
+            top = a;
+        } else if (a.priority > b.priority) {
+            a.right = this.merge(a.right, b);
+            this.resize(a);
+            top = a;
+        } else {
+            b.left = this.merge(a, b.left);
+            this.resize(b);
+            top = b;
+        }
+        return top;
+    }
+
+    /**
+     * Removes the node with index {@code k} in the in-order traversal from
+     * the subtree rooted at {@code n}, and returns the new root.
+     *
+     * @param n
+     *            the root of the subtree
+     * @param k
+     *            the index
+     * @return the root of the subtree with the node at index k removed
+     * @requires 0 <= k < SIZE(n)
+     */
+    private Node remove(Node n, int k) {
+        Node top = n;
+        int leftSize = this.size(n.left);
+        if (k == leftSize) {
+            top = this.merge(n.left, n.right);
+        } else {
+            if (k < leftSize) {
+                n.left = this.remove(n.left, k);
+            } else {
+                n.right = this.remove(n.right, k - leftSize - 1);
+            }
+            n.size--;
+        }
+        return top;
+    }
+
+    /**
+     * No-argument constructor.
+     */
+    public List6() {
+
+        this.createNewRep();
+
+        assert this.conventionHolds();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final List6<T> newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(List<T> source) {
+        assert source instanceof List6<?> : ""
+                + "Violation of: source is of dynamic type List6<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type List6<?>, and
+         * the ? must be T or the call would not have compiled.
+         */
+        List6<T> localSource = (List6<T>) source;
+        this.root = localSource.root;
+        this.leftLength = localSource.leftLength;
+        localSource.createNewRep();
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    @Override
+    public final void addRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        this.root = this.insert(this.root, this.leftLength, new Node(x));
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeRightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        T returned = this.nodeAt(this.root, this.leftLength).data;
+        this.root = this.remove(this.root, this.leftLength);
+
+        assert this.conventionHolds();
+        return returned;
+    }
+
+    @Override
+    public final void advance() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        this.leftLength++;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void moveToStart() {
+
+        this.leftLength = 0;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final int leftLength() {
+        assert this.conventionHolds();
+
+        return this.leftLength;
+    }
+
+    @Override
+    public final int rightLength() {
+        assert this.conventionHolds();
+
+        return this.size(this.root) - this.leftLength;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        assert this.conventionHolds();
+        return new List6Iterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for {@code List6}.
+     */
+    private final class List6Iterator implements Iterator<T> {
+
+        /**
+         * Nodes whose data and right subtrees are still to be visited, the
+         * next one on top.
+         */
+        private final Deque<Node> pending;
+
+        /**
+         * No-argument constructor.
+         */
+        private List6Iterator() {
+            this.pending = new ArrayDeque<>();
+            this.pushLeftPath(List6.this.root);
+            assert List6.this.conventionHolds();
+        }
+
+        /**
+         * Pushes {@code n} and the left descendants of {@code n}, down to the
+         * first node of the subtree rooted at {@code n}.
+         *
+         * @param n
+         *            the root of the subtree, or null
+         */
+        private void pushLeftPath(Node n) {
+            Node current = n;
+            while (current != null) {
+                this.pending.push(current);
+                current = current.left;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.pending.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            Node n = this.pending.pop();
+            this.pushLeftPath(n.right);
+            assert List6.this.conventionHolds();
+            return n.data;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+    /*
+     * Other methods (overridden for performance reasons) ---------------------
+     */
+
+    @Override
+    public final T rightFront() {
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        return this.nodeAt(this.root, this.leftLength).data;
+    }
+
+    @Override
+    public final T replaceRightFront(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.rightLength() > 0 : "Violation of: this.right /= <>";
+
+        Node n = this.nodeAt(this.root, this.leftLength);
+        T replaced = n.data;
+        n.data = x;
+
+        assert this.conventionHolds();
+        return replaced;
+    }
+
+    @Override
+    public final void moveToFinish() {
+
+        this.leftLength = this.size(this.root);
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void retreat() {
+        assert this.leftLength() > 0 : "Violation of: this.left /= <>";
+
+        this.leftLength--;
+
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Other methods ----------------------------------------------------------
+     */
+
+    /**
+     * Moves the position so that this.left has length {@code k}.
+     *
+     * @param k
+     *            the new length of this.left
+     * @updates this
+     * @requires 0 <= k <= |this.left| + |this.right|
+     * @ensures <pre>
+     * this.left * this.right = #this.left * #this.right  and
+     * |this.left| = k
+     * </pre>
+     */
+    public final void seek(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k <= this.size(this.root) : ""
+                + "Violation of: k <= |this.left| + |this.right|";
+
+        this.leftLength = k;
+
+        assert this.conventionHolds();
+    }
+
+}
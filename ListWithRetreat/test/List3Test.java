@@ -1,8 +1,13 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
 import components.list.List;
 import components.list.List1L;
 
 /**
- * Customized JUnit test fixture for {@code List3}.
+ * Customized JUnit test fixture for {@code List3}, plus test cases for the
+ * methods that relink whole chains of nodes.
  */
 public class List3Test extends ListTest {
 
@@ -16,4 +21,188 @@ public class List3Test extends ListTest {
         return new List1L<String>();
     }
 
+    @Test
+    public final void testAppend() {
+        List<String> list1 = this.createFromArgsTest(1, "red", "green");
+        List<String> ext1 = this.createFromArgsTest(1, "blue", "white");
+        List<String> list2 = this.createFromArgsRef(1, "red", "green", "blue",
+                "white");
+        List<String> ext2 = this.createFromArgsRef(0);
+        list1.append(ext1);
+        assertEquals(list2, list1);
+        assertEquals(ext2, ext1);
+    }
+
+    @Test
+    public final void testAppendEmptyToRightEmpty() {
+        List<String> list1 = this.createFromArgsTest(2, "red", "green");
+        List<String> ext1 = this.createFromArgsTest(0);
+        List<String> list2 = this.createFromArgsRef(2, "red", "green");
+        list1.append(ext1);
+        assertEquals(list2, list1);
+        list1.retreat();
+        list2.retreat();
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testAppendToEmpty() {
+        List<String> list1 = this.createFromArgsTest(0);
+        List<String> ext1 = this.createFromArgsTest(2, "blue", "white");
+        List<String> list2 = this.createFromArgsRef(0, "blue", "white");
+        list1.append(ext1);
+        assertEquals(list2, list1);
+        list1.moveToFinish();
+        list2.moveToFinish();
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testSwapRights() {
+        List<String> list1 = this.createFromArgsTest(1, "red", "green");
+        List<String> other1 = this.createFromArgsTest(2, "blue", "white",
+                "black");
+        List<String> list2 = this.createFromArgsRef(1, "red", "black");
+        List<String> other2 = this.createFromArgsRef(2, "blue", "white",
+                "green");
+        list1.swapRights(other1);
+        assertEquals(list2, list1);
+        assertEquals(other2, other1);
+    }
+
+    @Test
+    public final void testSwapRightsEmpty() {
+        List<String> list1 = this.createFromArgsTest(2, "red", "green");
+        List<String> other1 = this.createFromArgsTest(0, "blue");
+        List<String> list2 = this.createFromArgsRef(2, "red", "green", "blue");
+        List<String> other2 = this.createFromArgsRef(0);
+        list1.swapRights(other1);
+        assertEquals(list2, list1);
+        assertEquals(other2, other1);
+        list1.moveToFinish();
+        list2.moveToFinish();
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testFlip() {
+        List<String> list1 = this.createFromArgsTest(1, "red", "green", "blue",
+                "white");
+        List<String> list2 = this.createFromArgsRef(3, "white", "blue",
+                "green", "red");
+        list1.flip();
+        assertEquals(list2, list1);
+        list1.moveToStart();
+        list2.moveToStart();
+        assertEquals(list2, list1);
+        list1.moveToFinish();
+        list2.moveToFinish();
+        list1.retreat();
+        list2.retreat();
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testFlipEmpty() {
+        List<String> list1 = this.createFromArgsTest(0);
+        List<String> list2 = this.createFromArgsRef(0);
+        list1.flip();
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testSplice() {
+        List3<String> list1 = new List3<String>();
+        List<String> insertion1 = this.createFromArgsTest(1, "blue", "white");
+        list1.addRightFront("green");
+        list1.addRightFront("red");
+        list1.advance();
+        List<String> list2 = this.createFromArgsRef(1, "red", "blue", "white",
+                "green");
+        List<String> insertion2 = this.createFromArgsRef(0);
+        list1.splice(insertion1);
+        assertEquals(list2, list1);
+        assertEquals(insertion2, insertion1);
+    }
+
+    @Test
+    public final void testSpliceEmpty() {
+        List3<String> list1 = new List3<String>();
+        List<String> insertion1 = this.createFromArgsTest(0);
+        list1.addRightFront("red");
+        List<String> list2 = this.createFromArgsRef(0, "red");
+        list1.splice(insertion1);
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testSplit() {
+        List3<String> list1 = new List3<String>();
+        List<String> tail1 = this.createFromArgsTest(1, "black");
+        list1.addRightFront("blue");
+        list1.addRightFront("green");
+        list1.addRightFront("red");
+        list1.advance();
+        List<String> list2 = this.createFromArgsRef(1, "red");
+        List<String> tail2 = this.createFromArgsRef(0, "green", "blue");
+        list1.split(tail1);
+        assertEquals(list2, list1);
+        assertEquals(tail2, tail1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testConstructorPoolCapacityNegative() {
+        new List3<String>(-1);
+    }
+
+    @Test
+    public final void testAllocationCountWithoutPool() {
+        List3<String> list = new List3<String>();
+        long before = list.allocationCount();
+        for (int i = 0; i < 10; i++) {
+            list.addRightFront("red");
+            list.removeRightFront();
+        }
+        assertEquals(before + 10, list.allocationCount());
+    }
+
+    @Test
+    public final void testAllocationCountWithPoolSteadyState() {
+        List3<String> list = new List3<String>(4);
+        for (int i = 0; i < 4; i++) {
+            list.addRightFront(Integer.toString(i));
+        }
+        long before = list.allocationCount();
+        //use the list as a queue of at most 4 entries
+        for (int i = 0; i < 1000; i++) {
+            list.moveToStart();
+            list.removeRightFront();
+            list.moveToFinish();
+            list.addRightFront(Integer.toString(i));
+        }
+        assertEquals(before, list.allocationCount());
+        assertEquals(4, list.rightLength() + list.leftLength());
+    }
+
+    @Test
+    public final void testAllocationCountPoolBounded() {
+        List3<String> list = new List3<String>(2);
+        for (int i = 0; i < 5; i++) {
+            list.addRightFront(Integer.toString(i));
+        }
+        for (int i = 0; i < 5; i++) {
+            list.removeRightFront();
+        }
+        long before = list.allocationCount();
+        for (int i = 0; i < 5; i++) {
+            list.addRightFront(Integer.toString(i));
+        }
+        assertEquals(before + 3, list.allocationCount());
+    }
+
+    @Test
+    public final void testRandomCallsWithPool() {
+        this.checkRandomCalls(new List3<String>(8), 2000, 1);
+    }
+
 }
@@ -0,0 +1,96 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code List4}, plus test cases that span
+ * many nodes.
+ */
+public class List4Test extends ListTest {
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List4<String>();
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testConstructorNodeCapacityOne() {
+        new List4<String>(1);
+    }
+
+    @Test
+    public final void testAppendManyNodeCapacityTwo() {
+        List<String> list = new List4<String>(2);
+        List<String> ref = new List1L<String>();
+        for (int i = 0; i < 25; i++) {
+            list.addRightFront(Integer.toString(i));
+            list.advance();
+            ref.addRightFront(Integer.toString(i));
+            ref.advance();
+        }
+        list.moveToStart();
+        ref.moveToStart();
+        assertEquals(ref, list);
+        for (int i = 0; i < 25; i++) {
+            assertEquals(ref.removeRightFront(), list.removeRightFront());
+            assertEquals(ref, list);
+        }
+    }
+
+    @Test
+    public final void testInsertInMiddleSplitsNodes() {
+        List<String> list = new List4<String>(4);
+        List<String> ref = new List1L<String>();
+        for (int i = 0; i < 40; i++) {
+            list.addRightFront(Integer.toString(i));
+            ref.addRightFront(Integer.toString(i));
+            if (i % 3 == 0) {
+                list.advance();
+                ref.advance();
+            }
+            assertEquals(ref, list);
+        }
+        list.moveToFinish();
+        ref.moveToFinish();
+        for (int i = 0; i < 40; i++) {
+            list.retreat();
+            ref.retreat();
+            assertEquals(ref, list);
+        }
+    }
+
+    @Test
+    public final void testRandomCallsNodeCapacityThree() {
+        this.checkRandomCalls(new List4<String>(3), 2000, 1);
+    }
+
+    @Test
+    public final void testRandomCallsDefaultNodeCapacity() {
+        this.checkRandomCalls(new List4<String>(), 2000, 2);
+    }
+
+    @Test
+    public final void testNewInstanceAndTransferFrom() {
+        List<String> list = new List4<String>(3);
+        for (int i = 0; i < 10; i++) {
+            list.addRightFront(Integer.toString(i));
+        }
+        list.advance();
+        List<String> other = list.newInstance();
+        other.transferFrom(list);
+        assertEquals(0, list.leftLength());
+        assertEquals(0, list.rightLength());
+        assertEquals(1, other.leftLength());
+        assertEquals(9, other.rightLength());
+        this.checkRandomCalls(list, 200, 3);
+    }
+
+}
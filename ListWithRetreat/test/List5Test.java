@@ -0,0 +1,90 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code List5}, plus test cases that make
+ * the array grow and move the gap.
+ */
+public class List5Test extends ListTest {
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List5<String>();
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testConstructorInitialCapacityZero() {
+        new List5<String>(0);
+    }
+
+    @Test
+    public final void testAddRightFrontGrowsInMiddle() {
+        List<String> list = new List5<String>(1);
+        List<String> ref = new List1L<String>();
+        for (int i = 0; i < 40; i++) {
+            list.addRightFront(Integer.toString(i));
+            ref.addRightFront(Integer.toString(i));
+            if (i % 3 == 0) {
+                list.advance();
+                ref.advance();
+            }
+            assertEquals(ref, list);
+        }
+    }
+
+    @Test
+    public final void testAdvanceRetreatFullArray() {
+        List<String> list = new List5<String>(4);
+        List<String> ref = new List1L<String>();
+        for (int i = 0; i < 4; i++) {
+            list.addRightFront(Integer.toString(i));
+            ref.addRightFront(Integer.toString(i));
+        }
+        for (int i = 0; i < 4; i++) {
+            list.advance();
+            ref.advance();
+            assertEquals(ref, list);
+        }
+        for (int i = 0; i < 4; i++) {
+            list.retreat();
+            ref.retreat();
+            assertEquals(ref, list);
+        }
+    }
+
+    @Test
+    public final void testRandomCallsInitialCapacityOne() {
+        this.checkRandomCalls(new List5<String>(1), 2000, 1);
+    }
+
+    @Test
+    public final void testRandomCallsDefaultInitialCapacity() {
+        this.checkRandomCalls(new List5<String>(), 2000, 2);
+    }
+
+    @Test
+    public final void testNewInstanceAndTransferFrom() {
+        List<String> list = new List5<String>(2);
+        for (int i = 0; i < 10; i++) {
+            list.addRightFront(Integer.toString(i));
+        }
+        list.advance();
+        List<String> other = list.newInstance();
+        other.transferFrom(list);
+        assertEquals(0, list.leftLength());
+        assertEquals(0, list.rightLength());
+        assertEquals(1, other.leftLength());
+        assertEquals(9, other.rightLength());
+        this.checkRandomCalls(list, 200, 3);
+    }
+
+}
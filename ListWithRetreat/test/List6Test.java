@@ -0,0 +1,84 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.list.List;
+import components.list.List1L;
+
+/**
+ * Customized JUnit test fixture for {@code List6}, plus test cases for
+ * {@code seek} and the secondary methods it overrides.
+ */
+public class List6Test extends ListTest {
+
+    @Override
+    protected final List<String> constructorTest() {
+        return new List6<String>();
+    }
+
+    @Override
+    protected final List<String> constructorRef() {
+        return new List1L<String>();
+    }
+
+    @Test
+    public final void testSeekEmpty() {
+        List6<String> list1 = new List6<String>();
+        List<String> list2 = this.createFromArgsRef(0);
+        list1.seek(0);
+        assertEquals(list2, list1);
+    }
+
+    @Test
+    public final void testSeekForward() {
+        List<String> list = this.createFromArgsTest(1, "red", "green", "blue",
+                "white");
+        List<String> list2 = this.createFromArgsRef(3, "red", "green", "blue",
+                "white");
+        ((List6<String>) list).seek(3);
+        assertEquals(list2, list);
+    }
+
+    @Test
+    public final void testSeekBackward() {
+        List<String> list = this.createFromArgsTest(4, "red", "green", "blue",
+                "white");
+        List<String> list2 = this.createFromArgsRef(2, "red", "green", "blue",
+                "white");
+        ((List6<String>) list).seek(2);
+        assertEquals(list2, list);
+    }
+
+    @Test
+    public final void testSeekEveryPosition() {
+        List6<String> list = new List6<String>();
+        List<String> ref = new List1L<String>();
+        for (int i = 0; i < 100; i++) {
+            list.addRightFront(Integer.toString(i));
+            ref.addRightFront(Integer.toString(i));
+        }
+        for (int k = 100; k >= 0; k -= 7) {
+            list.seek(k);
+            ref.moveToStart();
+            for (int i = 0; i < k; i++) {
+                ref.advance();
+            }
+            assertEquals(ref, list);
+        }
+    }
+
+    @Test
+    public final void testRightFrontAndReplaceRightFront() {
+        List<String> list = this.createFromArgsTest(1, "red", "green", "blue");
+        List<String> list2 = this.createFromArgsRef(1, "red", "white", "blue");
+        assertEquals("green", list.rightFront());
+        assertEquals("green", list.replaceRightFront("white"));
+        assertEquals(list2, list);
+    }
+
+    @Test
+    public final void testRandomCalls() {
+        this.checkRandomCalls(new List6<String>(), 2000, 1);
+    }
+
+}
@@ -1,5 +1,7 @@
 import static org.junit.Assert.assertEquals;
 
+import java.util.Random;
+
 import org.junit.Test;
 
 import components.list.List;
@@ -106,6 +108,49 @@ public abstract class ListTest {
         return list;
     }
 
+    /**
+     * Applies the same {@code steps} random kernel calls to {@code list} and
+     * to a list of the reference implementation type, checking that they
+     * agree after each one.
+     *
+     * @param list
+     *            the list to test
+     * @param steps
+     *            the number of calls
+     * @param seed
+     *            the seed of the random calls
+     * @updates list
+     * @requires list = (<>, <>)
+     */
+    protected final void checkRandomCalls(List<String> list, int steps,
+            long seed) {
+        List<String> ref = this.constructorRef();
+        Random random = new Random(seed);
+        for (int i = 0; i < steps; i++) {
+            int call = random.nextInt(10);
+            if (call < 4) {
+                String x = Integer.toString(i);
+                list.addRightFront(x);
+                ref.addRightFront(x);
+            } else if (call < 6 && ref.rightLength() > 0) {
+                assertEquals(ref.removeRightFront(), list.removeRightFront());
+            } else if (call < 8 && ref.rightLength() > 0) {
+                list.advance();
+                ref.advance();
+            } else if (call < 9 && ref.leftLength() > 0) {
+                list.retreat();
+                ref.retreat();
+            } else if (random.nextBoolean()) {
+                list.moveToStart();
+                ref.moveToStart();
+            } else {
+                list.moveToFinish();
+                ref.moveToFinish();
+            }
+            assertEquals(ref, list);
+        }
+    }
+
     /*
      * Test cases for constructor, addRightFront, removeRightFront, advance,
      * moveToStart, leftLength, and rightLength.
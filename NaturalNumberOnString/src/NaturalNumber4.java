@@ -0,0 +1,211 @@
+import java.util.Arrays;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumberSecondary;
+
+/**
+ * {@code NaturalNumber} represented as a growable array of decimal digits with
+ * implementations of primary methods.
+ *
+ * <p>
+ * The digits are stored most significant first, so {@code multiplyBy10}
+ * appends a digit at the end of the array and {@code divideBy10} drops the
+ * last one: both are amortized O(1) and allocate nothing except when the array
+ * has to grow. (With the {@code String} representation of
+ * {@code NaturalNumber3} every kernel call copies the whole number, which
+ * makes the secondary methods built from them quadratic.)
+ * </p>
+ *
+ * @convention <pre>
+ * 0 <= $this.length <= |$this.digits|  and
+ * [all entries of $this.digits[0, $this.length) are 0 through 9]  and
+ * ($this.length = 0  or  $this.digits[0] /= 0)
+ * </pre>
+ * @correspondence <pre>
+ * this = [the decimal number whose digits, most significant first, are
+ *         $this.digits[0, $this.length) (0 if $this.length = 0)]
+ * </pre>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public class NaturalNumber4 extends NaturalNumberSecondary {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial capacity of the digits array.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Digits, most significant first.
+     */
+    private byte[] digits;
+
+    /**
+     * Number of digits.
+     */
+    private int length;
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.digits = new byte[INITIAL_CAPACITY];
+
+        this.length = 0;
+
+    }
+
+    /**
+     * Sets {@code this} to the number whose decimal depiction is {@code s}.
+     *
+     * @param s
+     *            the decimal depiction
+     * @replaces this
+     * @requires there exists n: NATURAL (s = TO_STRING(n))
+     * @ensures s = TO_STRING(this)
+     */
+    private void setFromDepiction(String s) {
+        if (s.equals("0")) {
+            this.createNewRep();
+        } else {
+            this.digits = new byte[Math.max(INITIAL_CAPACITY, s.length())];
+            for (int i = 0; i < s.length(); i++) {
+                this.digits[i] = (byte) (s.charAt(i) - '0');
+            }
+            this.length = s.length();
+        }
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public NaturalNumber4() {
+
+        this.createNewRep();
+
+    }
+
+    /**
+     * Constructor from {@code int}.
+     *
+     * @param i
+     *            {@code int} to initialize from
+     */
+    public NaturalNumber4(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+
+        this.setFromDepiction(Integer.toString(i));
+    }
+
+    /**
+     * Constructor from {@code String}.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     */
+    public NaturalNumber4(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+
+        this.setFromDepiction(s);
+    }
+
+    /**
+     * Constructor from {@code NaturalNumber}.
+     *
+     * @param n
+     *            {@code NaturalNumber} to initialize from
+     */
+    public NaturalNumber4(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        this.setFromDepiction(n.toString());
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final NaturalNumber newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(NaturalNumber source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof NaturalNumber4 : ""
+                + "Violation of: source is of dynamic type NaturalNumber4";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        NaturalNumber4 localSource = (NaturalNumber4) source;
+        this.digits = localSource.digits;
+        this.length = localSource.length;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void multiplyBy10(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k < RADIX : "Violation of: k < 10";
+
+        //a leading 0 is never stored
+        if (this.length > 0 || k > 0) {
+            if (this.length == this.digits.length) {
+                this.digits = Arrays.copyOf(this.digits,
+                        2 * this.digits.length);
+            }
+            this.digits[this.length] = (byte) k;
+            this.length++;
+        }
+    }
+
+    @Override
+    public final int divideBy10() {
+
+        int k = 0;
+
+        //the last digit is the remainder
+        if (this.length > 0) {
+            this.length--;
+            k = this.digits[this.length];
+        }
+
+        return k;
+    }
+
+    @Override
+    public final boolean isZero() {
+
+        return this.length == 0;
+    }
+
+}
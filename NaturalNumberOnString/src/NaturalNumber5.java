@@ -0,0 +1,2395 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinTask;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumberSecondary;
+
+/**
+ * {@code NaturalNumber} represented as a {@code long} if it is less than
+ * 2<sup>63</sup> and as an array of base 2<sup>32</sup> limbs otherwise, with
+ * implementations of primary methods and of the secondary arithmetic methods.
+ *
+ * <p>
+ * Most numbers in practice are small, and these are held in a {@code long},
+ * with no array at all: {@code clear}, {@code newInstance}, and arithmetic
+ * whose result is still less than 2<sup>63</sup> allocate nothing (except
+ * the new object of {@code newInstance} and the remainder of {@code divide}),
+ * and the limb array is only created when a result overflows. The shared
+ * constants {@code ZERO}, {@code ONE}, {@code TEN}, and {@code powerOfTen(k)}
+ * may be used as arguments wherever a number is only read, instead of creating
+ * one; any method that would change one of them throws
+ * {@code UnsupportedOperationException} instead.
+ * </p>
+ *
+ * <p>
+ * The secondary methods inherited from {@code NaturalNumberSecondary} work one
+ * decimal digit at a time through the kernel methods. Here {@code add},
+ * {@code subtract}, {@code multiply}, {@code divide}, {@code power}, and the
+ * other secondary methods that do arithmetic are overridden to work a whole
+ * 32-bit limb at a time (using {@code long} for intermediate results), so
+ * their inner loops run about 9.6 times fewer iterations per operand, and
+ * {@code multiply} and {@code divide} about 90 times fewer. The kernel methods
+ * themselves ({@code multiplyBy10} and {@code divideBy10}) are O(n) in this
+ * representation; they are only used by clients that work digit by digit.
+ * </p>
+ *
+ * <p>
+ * For large numbers, {@code multiply} switches to Karatsuba and Toom-Cook
+ * 3-way multiplication, {@code divide} to Burnikel and Ziegler's recursive
+ * division, and {@code root} uses Newton's iteration, so all three cost about
+ * as much as a multiplication. Conversion from and to {@code String} splits
+ * the number at powers of ten recursively and is subquadratic as well.
+ * </p>
+ *
+ * @convention <pre>
+ * if $this.mag = null then
+ *   $this.small >= 0
+ * else
+ *   [the value of $this.mag (as in the correspondence) is at least 2^63]  and
+ *   $this.mag[|$this.mag| - 1] /= 0
+ * </pre>
+ * @correspondence <pre>
+ * if $this.mag = null then
+ *   this = $this.small
+ * else
+ *   this = [sum of $this.mag[i] * 2^(32 * i) for 0 <= i < |$this.mag|, where
+ *           each $this.mag[i] is read as an unsigned 32-bit integer]
+ * </pre>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public class NaturalNumber5 extends NaturalNumberSecondary {
+
+    /*
+     * Shared constants -------------------------------------------------------
+     */
+
+    /**
+     * Shared constant 0, for read-only use: any method that would change it
+     * throws {@code UnsupportedOperationException}.
+     */
+    public static final NaturalNumber5 ZERO = new NaturalNumber5(0, true);
+
+    /**
+     * Shared constant 1, for read-only use: any method that would change it
+     * throws {@code UnsupportedOperationException}.
+     */
+    public static final NaturalNumber5 ONE = new NaturalNumber5(1, true);
+
+    /**
+     * Shared constant 10, for read-only use: any method that would change it
+     * throws {@code UnsupportedOperationException}.
+     */
+    public static final NaturalNumber5 TEN = new NaturalNumber5(10, true);
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Mask selecting the low 32 bits of a {@code long}, i.e., the unsigned
+     * value of an {@code int} limb.
+     */
+    private static final long LONG_MASK = 0xFFFFFFFFL;
+
+    /**
+     * Number of bits in a limb.
+     */
+    private static final int LIMB_BITS = 32;
+
+    /**
+     * Largest power of 10 that fits in an {@code int}.
+     */
+    private static final int DECIMAL_CHUNK = 1_000_000_000;
+
+    /**
+     * Number of decimal digits in {@code DECIMAL_CHUNK - 1}.
+     */
+    private static final int DECIMAL_CHUNK_DIGITS = 9;
+
+    /**
+     * Operands with fewer limbs than this (the shorter one) are multiplied by
+     * the schoolbook method.
+     */
+    private static final int KARATSUBA_THRESHOLD = 48;
+
+    /**
+     * Operands with at least this many limbs (the shorter one) are multiplied
+     * by Toom-Cook 3-way multiplication instead of Karatsuba's.
+     */
+    private static final int TOOM3_THRESHOLD = 160;
+
+    /**
+     * When parallel multiplication is on, sub-products of operands with at
+     * least this many limbs (the shorter one) are computed in parallel.
+     */
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    /**
+     * Divisors with fewer limbs than this (or with quotients of fewer limbs
+     * than this) are divided by long division instead of Burnikel and
+     * Ziegler's recursive division.
+     */
+    private static final int BURNIKEL_ZIEGLER_THRESHOLD = 40;
+
+    /**
+     * Depictions with at most this many digits are parsed one chunk of
+     * {@code DECIMAL_CHUNK_DIGITS} digits at a time instead of by splitting.
+     */
+    private static final int PARSE_THRESHOLD = 600;
+
+    /**
+     * Magnitudes with at most this many limbs are depicted one chunk of
+     * {@code DECIMAL_CHUNK_DIGITS} digits at a time instead of by splitting.
+     */
+    private static final int DEPICTION_THRESHOLD = 60;
+
+    /**
+     * Powers of ten used to split depictions and magnitudes in halves:
+     * {@code splitPowers[k] = 10^(DECIMAL_CHUNK_DIGITS * 2^k)}, computed
+     * (by repeated squaring) when first needed.
+     */
+    private static volatile int[][] splitPowers = {
+        new int[] { DECIMAL_CHUNK } };
+
+    /**
+     * Whether large products are split into sub-products computed in
+     * parallel (fork/join).
+     */
+    private static volatile boolean parallelMultiplication = false;
+
+    /**
+     * The magnitude of 0.
+     */
+    private static final int[] NO_LIMBS = new int[0];
+
+    /**
+     * Largest k for which {@code powerOfTen(k)} is available.
+     */
+    private static final int MAX_CONSTANT_POWER = 18;
+
+    /**
+     * 10^k for 0 <= k <= {@code MAX_CONSTANT_POWER}, as shared constants.
+     */
+    private static final NaturalNumber5[] POWERS_OF_TEN = constantPowers();
+
+    /**
+     * The value, if it is less than 2^63 (and {@code mag} is null).
+     */
+    private long small;
+
+    /**
+     * Limbs, least significant first, if the value is at least 2^63; null
+     * otherwise.
+     */
+    private int[] mag;
+
+    /**
+     * Whether this is one of the shared constants, which must not be changed.
+     */
+    private final boolean readOnly;
+
+    /**
+     * Returns {@code a[0, length)} without its leading (most significant) zero
+     * limbs, copying only if something has to be dropped.
+     *
+     * @param a
+     *            the limbs
+     * @param length
+     *            the number of limbs of a to keep at most
+     * @return the limbs without leading zeros
+     * @requires 0 <= length <= |a|
+     * @ensures <pre>
+     * [trim has the same value as a[0, length)]  and
+     * (|trim| = 0  or  trim[|trim| - 1] /= 0)
+     * </pre>
+     */
+    private static int[] trim(int[] a, int length) {
+        int n = length;
+        while (n > 0 && a[n - 1] == 0) {
+            n--;
+        }
+        int[] result = a;
+        if (n != a.length) {
+            result = Arrays.copyOf(a, n);
+        }
+        return result;
+    }
+
+    /**
+     * Compares two magnitudes.
+     *
+     * @param a
+     *            the first magnitude
+     * @param b
+     *            the second magnitude
+     * @return a negative integer, zero, or a positive integer as a is less
+     *         than, equal to, or greater than b
+     * @requires [a and b have no leading zero limbs]
+     */
+    private static int compareMagnitudes(int[] a, int[] b) {
+        int result = Integer.compare(a.length, b.length);
+        for (int i = a.length - 1; result == 0 && i >= 0; i--) {
+            result = Integer.compareUnsigned(a[i], b[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the sum of two magnitudes.
+     *
+     * @param a
+     *            the first magnitude
+     * @param b
+     *            the second magnitude
+     * @return a + b
+     * @requires [a and b have no leading zero limbs]
+     * @ensures addMagnitudes = a + b  and  [it has no leading zero limbs]
+     */
+    private static int[] addMagnitudes(int[] a, int[] b) {
+        int[] longer = a;
+        int[] shorter = b;
+        if (a.length < b.length) {
+            longer = b;
+            shorter = a;
+        }
+        int[] sum = new int[longer.length + 1];
+        long carry = 0;
+        for (int i = 0; i < longer.length; i++) {
+            carry += longer[i] & LONG_MASK;
+            if (i < shorter.length) {
+                carry += shorter[i] & LONG_MASK;
+            }
+            sum[i] = (int) carry;
+            carry >>>= LIMB_BITS;
+        }
+        sum[longer.length] = (int) carry;
+        return trim(sum, sum.length);
+    }
+
+    /**
+     * Returns the difference of two magnitudes.
+     *
+     * @param a
+     *            the magnitude to subtract from
+     * @param b
+     *            the magnitude to subtract
+     * @return a - b
+     * @requires [a and b have no leading zero limbs]  and  a >= b
+     * @ensures subtractMagnitudes = a - b  and  [it has no leading zero limbs]
+     */
+    private static int[] subtractMagnitudes(int[] a, int[] b) {
+        int[] difference = new int[a.length];
+        long borrow = 0;
+        for (int i = 0; i < a.length; i++) {
+            borrow = (a[i] & LONG_MASK) + borrow;
+            if (i < b.length) {
+                borrow -= b[i] & LONG_MASK;
+            }
+            difference[i] = (int) borrow;
+            //the arithmetic shift makes borrow 0 or -1
+            borrow >>= LIMB_BITS;
+        }
+        assert borrow == 0 : "Violation of: a >= b";
+        return trim(difference, difference.length);
+    }
+
+    /**
+     * Returns the product of two magnitudes, by the schoolbook method.
+     *
+     * @param a
+     *            the first magnitude
+     * @param b
+     *            the second magnitude
+     * @return a * b
+     * @requires [a and b have no leading zero limbs]
+     * @ensures multiplySchoolbook = a * b  and  [it has no leading zero limbs]
+     */
+    private static int[] multiplySchoolbook(int[] a, int[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return NO_LIMBS;
+        }
+        int[] product = new int[a.length + b.length];
+        for (int i = 0; i < a.length; i++) {
+            long ai = a[i] & LONG_MASK;
+            long carry = 0;
+            for (int j = 0; j < b.length; j++) {
+                carry += ai * (b[j] & LONG_MASK)
+                        + (product[i + j] & LONG_MASK);
+                product[i + j] = (int) carry;
+                carry >>>= LIMB_BITS;
+            }
+            product[i + b.length] = (int) carry;
+        }
+        return trim(product, product.length);
+    }
+
+    /**
+     * Returns {@code a[from, to)} (with limbs past the end of {@code a} taken
+     * as 0), without leading zero limbs.
+     *
+     * @param a
+     *            the limbs
+     * @param from
+     *            the index of the first limb
+     * @param to
+     *            the index one past the last limb
+     * @return the limbs a[from, to)
+     * @requires 0 <= from <= to
+     * @ensures <pre>
+     * limbs = [the value of a[from, min(to, |a|))]  and
+     * [it has no leading zero limbs]
+     * </pre>
+     */
+    private static int[] limbs(int[] a, int from, int to) {
+        int end = Math.min(to, a.length);
+        int[] result = NO_LIMBS;
+        if (from < end) {
+            result = Arrays.copyOfRange(a, from, end);
+            result = trim(result, result.length);
+        }
+        return result;
+    }
+
+    /**
+     * Adds {@code x * 2^(32 * offset)} into {@code target}.
+     *
+     * @param target
+     *            the limbs to add into
+     * @param x
+     *            the magnitude to add
+     * @param offset
+     *            the number of limbs to shift x by
+     * @updates target
+     * @requires [target + x * 2^(32 * offset) fits in |target| limbs]
+     * @ensures target = #target + x * 2^(32 * offset)
+     */
+    private static void addInto(int[] target, int[] x, int offset) {
+        long carry = 0;
+        int i = 0;
+        while (i < x.length) {
+            carry += (target[offset + i] & LONG_MASK) + (x[i] & LONG_MASK);
+            target[offset + i] = (int) carry;
+            carry >>>= LIMB_BITS;
+            i++;
+        }
+        while (carry != 0) {
+            carry += target[offset + i] & LONG_MASK;
+            target[offset + i] = (int) carry;
+            carry >>>= LIMB_BITS;
+            i++;
+        }
+    }
+
+    /**
+     * Returns the product of two magnitudes, choosing the multiplication
+     * method by the operand sizes: schoolbook, Karatsuba, or Toom-Cook 3-way
+     * (and, for very unbalanced operands, one of these on slices of the
+     * longer operand as long as the shorter one).
+     *
+     * @param a
+     *            the first magnitude
+     * @param b
+     *            the second magnitude
+     * @return a * b
+     * @requires [a and b have no leading zero limbs]
+     * @ensures multiplyMagnitudes = a * b  and  [it has no leading zero limbs]
+     */
+    private static int[] multiplyMagnitudes(int[] a, int[] b) {
+        int[] longer = a;
+        int[] shorter = b;
+        if (a.length < b.length) {
+            longer = b;
+            shorter = a;
+        }
+        int[] product;
+        if (shorter.length < KARATSUBA_THRESHOLD) {
+            product = multiplySchoolbook(longer, shorter);
+        } else if (2 * shorter.length <= longer.length) {
+            //multiply shorter by each slice of longer as long as shorter
+            product = new int[longer.length + shorter.length];
+            for (int from = 0; from < longer.length; from += shorter.length) {
+                int[] slice = limbs(longer, from, from + shorter.length);
+                addInto(product, multiplyMagnitudes(slice, shorter), from);
+            }
+            product = trim(product, product.length);
+        } else if (shorter.length < TOOM3_THRESHOLD) {
+            product = multiplyKaratsuba(longer, shorter);
+        } else {
+            product = multiplyToomCook3(longer, shorter);
+        }
+        return product;
+    }
+
+    /**
+     * Returns the products {@code a[i] * b[i]} of the given pairs of
+     * magnitudes, computing them in parallel if parallel multiplication is on
+     * and the operands are large enough.
+     *
+     * @param a
+     *            the first magnitudes
+     * @param b
+     *            the second magnitudes
+     * @param size
+     *            the size (in limbs) of the operands of the whole product
+     * @return the products
+     * @requires |a| = |b|  and  [all magnitudes have no leading zero limbs]
+     * @ensures <pre>
+     * |multiplyAll| = |a|  and
+     * for all i: integer where (0 <= i < |a|)
+     *   (multiplyAll[i] = a[i] * b[i])
+     * </pre>
+     */
+    private static int[][] multiplyAll(int[][] a, int[][] b, int size) {
+        int[][] products = new int[a.length][];
+        if (parallelMultiplication && size >= PARALLEL_THRESHOLD) {
+            //fork all but the last sub-product, which this thread computes
+            @SuppressWarnings("unchecked")
+            ForkJoinTask<int[]>[] tasks = new ForkJoinTask[a.length - 1];
+            for (int i = 0; i < tasks.length; i++) {
+                final int[] x = a[i];
+                final int[] y = b[i];
+                tasks[i] = ForkJoinTask.adapt(() -> multiplyMagnitudes(x, y))
+                        .fork();
+            }
+            products[tasks.length] = multiplyMagnitudes(a[tasks.length],
+                    b[tasks.length]);
+            for (int i = 0; i < tasks.length; i++) {
+                products[i] = tasks[i].join();
+            }
+        } else {
+            for (int i = 0; i < a.length; i++) {
+                products[i] = multiplyMagnitudes(a[i], b[i]);
+            }
+        }
+        return products;
+    }
+
+    /**
+     * Returns the product of two magnitudes of similar sizes, by Karatsuba's
+     * method: with {@code a = a1 * B + a0} and {@code b = b1 * B + b0}, three
+     * half-size products {@code a0 * b0}, {@code a1 * b1}, and
+     * {@code (a0 + a1) * (b0 + b1)} give all of {@code a * b}.
+     *
+     * @param a
+     *            the first magnitude
+     * @param b
+     *            the second magnitude
+     * @return a * b
+     * @requires <pre>
+     * [a and b have no leading zero limbs]  and
+     * |b| <= |a| < 2 * |b|
+     * </pre>
+     * @ensures multiplyKaratsuba = a * b  and  [it has no leading zero limbs]
+     */
+    private static int[] multiplyKaratsuba(int[] a, int[] b) {
+        int half = (a.length + 1) / 2;
+        int[] a0 = limbs(a, 0, half);
+        int[] a1 = limbs(a, half, a.length);
+        int[] b0 = limbs(b, 0, half);
+        int[] b1 = limbs(b, half, b.length);
+
+        int[][] products = multiplyAll(
+                new int[][] { a0, a1, addMagnitudes(a0, a1) },
+                new int[][] { b0, b1, addMagnitudes(b0, b1) }, b.length);
+        int[] z0 = products[0];
+        int[] z2 = products[1];
+        int[] z1 = subtractMagnitudes(subtractMagnitudes(products[2], z0), z2);
+
+        int[] product = new int[a.length + b.length + 1];
+        addInto(product, z0, 0);
+        addInto(product, z1, half);
+        addInto(product, z2, 2 * half);
+        return trim(product, product.length);
+    }
+
+    /**
+     * A signed number, for the intermediate results of Toom-Cook
+     * multiplication, which may be negative.
+     */
+    private static final class Signed {
+
+        /**
+         * Sign: -1, 0, or 1.
+         */
+        private final int sign;
+
+        /**
+         * Magnitude (0 iff sign = 0).
+         */
+        private final int[] mag;
+
+        /**
+         * Constructor from sign and magnitude.
+         *
+         * @param sign
+         *            the sign (ignored if mag is 0)
+         * @param mag
+         *            the magnitude
+         */
+        private Signed(int sign, int[] mag) {
+            if (mag.length == 0) {
+                this.sign = 0;
+            } else {
+                this.sign = sign;
+            }
+            this.mag = mag;
+        }
+
+        /**
+         * Constructor from a (non-negative) magnitude.
+         *
+         * @param mag
+         *            the magnitude
+         */
+        private Signed(int[] mag) {
+            this(1, mag);
+        }
+
+        /**
+         * Returns {@code this + other}.
+         *
+         * @param other
+         *            the number to add
+         * @return this + other
+         */
+        private Signed add(Signed other) {
+            Signed result;
+            if (this.sign == 0) {
+                result = other;
+            } else if (other.sign == 0) {
+                result = this;
+            } else if (this.sign == other.sign) {
+                result = new Signed(this.sign,
+                        addMagnitudes(this.mag, other.mag));
+            } else {
+                int compare = compareMagnitudes(this.mag, other.mag);
+                if (compare >= 0) {
+                    result = new Signed(this.sign,
+                            subtractMagnitudes(this.mag, other.mag));
+                } else {
+                    result = new Signed(other.sign,
+                            subtractMagnitudes(other.mag, this.mag));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns {@code this - other}.
+         *
+         * @param other
+         *            the number to subtract
+         * @return this - other
+         */
+        private Signed subtract(Signed other) {
+            return this.add(new Signed(-other.sign, other.mag));
+        }
+
+        /**
+         * Returns {@code this * other}.
+         *
+         * @param other
+         *            the number to multiply by
+         * @return this * other
+         */
+        private Signed multiply(Signed other) {
+            return new Signed(this.sign * other.sign,
+                    multiplyMagnitudes(this.mag, other.mag));
+        }
+
+        /**
+         * Returns {@code this * 2}.
+         *
+         * @return this * 2
+         */
+        private Signed twice() {
+            return new Signed(this.sign, addMagnitudes(this.mag, this.mag));
+        }
+
+        /**
+         * Returns {@code this / d}, for a divisor that divides {@code this}
+         * exactly.
+         *
+         * @param d
+         *            the divisor
+         * @return this / d
+         * @requires d > 0  and  [d divides this]
+         */
+        private Signed divideExactly(int d) {
+            int[] quotient = this.mag.clone();
+            int remainder = divideSmallInPlace(quotient, quotient.length, d);
+            assert remainder == 0 : "Violation of: [d divides this]";
+            return new Signed(this.sign, trim(quotient, quotient.length));
+        }
+
+    }
+
+    /**
+     * Returns the product of two magnitudes of similar sizes, by Toom-Cook
+     * 3-way multiplication: each operand is split into three parts, read as
+     * the coefficients of a quadratic polynomial, and the product polynomial
+     * is found from its values at 0, 1, -1, 2, and infinity, which takes five
+     * third-size products (Bodrato's evaluation and interpolation sequence).
+     *
+     * @param a
+     *            the first magnitude
+     * @param b
+     *            the second magnitude
+     * @return a * b
+     * @requires <pre>
+     * [a and b have no leading zero limbs]  and
+     * |b| <= |a| < 2 * |b|
+     * </pre>
+     * @ensures multiplyToomCook3 = a * b  and  [it has no leading zero limbs]
+     */
+    private static int[] multiplyToomCook3(int[] a, int[] b) {
+        int k = (a.length + 2) / 3;
+        Signed a0 = new Signed(limbs(a, 0, k));
+        Signed a1 = new Signed(limbs(a, k, 2 * k));
+        Signed a2 = new Signed(limbs(a, 2 * k, a.length));
+        Signed b0 = new Signed(limbs(b, 0, k));
+        Signed b1 = new Signed(limbs(b, k, 2 * k));
+        Signed b2 = new Signed(limbs(b, 2 * k, b.length));
+
+        //evaluate at 0, 1, -1, 2, and infinity
+        Signed a02 = a0.add(a2);
+        Signed b02 = b0.add(b2);
+        Signed aM1 = a02.subtract(a1);
+        Signed bM1 = b02.subtract(b1);
+        Signed aP1 = a02.add(a1);
+        Signed bP1 = b02.add(b1);
+        Signed aP2 = aP1.add(a2).twice().subtract(a0);
+        Signed bP2 = bP1.add(b2).twice().subtract(b0);
+
+        //the products at 1, 2, and infinity are of non-negative values
+        int[][] products = multiplyAll(
+                new int[][] { a0.mag, aP1.mag, aP2.mag, a2.mag },
+                new int[][] { b0.mag, bP1.mag, bP2.mag, b2.mag }, b.length);
+        Signed v0 = new Signed(products[0]);
+        Signed v1 = new Signed(products[1]);
+        Signed v2 = new Signed(products[2]);
+        Signed vInf = new Signed(products[3]);
+        Signed vM1 = aM1.multiply(bM1);
+
+        //interpolate the coefficients c1, c2, c3 of the product
+        Signed t2 = v2.subtract(vM1).divideExactly(3);
+        Signed tM1 = v1.subtract(vM1).divideExactly(2);
+        Signed t1 = v1.subtract(v0);
+        t2 = t2.subtract(t1).divideExactly(2);
+        t1 = t1.subtract(tM1).subtract(vInf);
+        t2 = t2.subtract(vInf.twice());
+        tM1 = tM1.subtract(t2);
+        assert t1.sign >= 0 && t2.sign >= 0 && tM1.sign >= 0 : ""
+                + "Violation of: [the coefficients of a product of natural"
+                + " numbers are not negative]";
+
+        int[] product = new int[a.length + b.length + 1];
+        addInto(product, v0.mag, 0);
+        addInto(product, tM1.mag, k);
+        addInto(product, t1.mag, 2 * k);
+        addInto(product, t2.mag, 3 * k);
+        addInto(product, vInf.mag, 4 * k);
+        return trim(product, product.length);
+    }
+
+    /**
+     * Returns {@code a * m + addend}.
+     *
+     * @param a
+     *            the magnitude
+     * @param m
+     *            the (unsigned) multiplier
+     * @param addend
+     *            the (unsigned) number to add
+     * @return a * m + addend
+     * @requires [a has no leading zero limbs]
+     * @ensures <pre>
+     * multiplyAddSmall = a * m + addend  and  [it has no leading zero limbs]
+     * </pre>
+     */
+    private static int[] multiplyAddSmall(int[] a, int m, int addend) {
+        long mm = m & LONG_MASK;
+        long carry = addend & LONG_MASK;
+        int[] result = new int[a.length + 1];
+        for (int i = 0; i < a.length; i++) {
+            carry += (a[i] & LONG_MASK) * mm;
+            result[i] = (int) carry;
+            carry >>>= LIMB_BITS;
+        }
+        result[a.length] = (int) carry;
+        return trim(result, result.length);
+    }
+
+    /**
+     * Divides {@code a[0, length)} by {@code d} in place and returns the
+     * remainder.
+     *
+     * @param a
+     *            the limbs to divide (may then have leading zero limbs)
+     * @param length
+     *            the number of limbs of a to divide
+     * @param d
+     *            the (unsigned) divisor
+     * @return the remainder
+     * @updates a
+     * @requires 0 <= length <= |a|  and  d /= 0
+     * @ensures <pre>
+     * #a[0, length) = a[0, length) * d + divideSmallInPlace  and
+     * 0 <= divideSmallInPlace < d  and
+     * [the other entries in a are the same as in #a]
+     * </pre>
+     */
+    private static int divideSmallInPlace(int[] a, int length, int d) {
+        long dd = d & LONG_MASK;
+        long remainder = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            long current = (remainder << LIMB_BITS) | (a[i] & LONG_MASK);
+            a[i] = (int) Long.divideUnsigned(current, dd);
+            remainder = Long.remainderUnsigned(current, dd);
+        }
+        return (int) remainder;
+    }
+
+    /**
+     * Returns {@code a[0, length)} shifted left by {@code shift} bits, in a new
+     * array of {@code resultLength} limbs.
+     *
+     * @param a
+     *            the limbs
+     * @param length
+     *            the number of limbs of a to shift
+     * @param shift
+     *            the number of bits to shift by
+     * @param resultLength
+     *            the number of limbs in the result
+     * @return the shifted limbs
+     * @requires <pre>
+     * 0 <= length <= |a|  and  0 <= shift < 32  and
+     * [a[0, length) * 2^shift fits in resultLength limbs]
+     * </pre>
+     * @ensures shiftLeft = a[0, length) * 2^shift
+     */
+    private static int[] shiftLeft(int[] a, int length, int shift,
+            int resultLength) {
+        int[] result = new int[resultLength];
+        if (shift == 0) {
+            System.arraycopy(a, 0, result, 0, length);
+        } else {
+            int carry = 0;
+            for (int i = 0; i < length; i++) {
+                result[i] = (a[i] << shift) | carry;
+                carry = a[i] >>> (LIMB_BITS - shift);
+            }
+            if (length < resultLength) {
+                result[length] = carry;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the quotient and remainder of two magnitudes, by long division
+     * (Knuth's Algorithm D) one limb of the quotient at a time.
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @return the quotient and the remainder, in that order
+     * @requires [a and b have no leading zero limbs]  and  b /= 0
+     * @ensures <pre>
+     * a = divideMagnitudes[0] * b + divideMagnitudes[1]  and
+     * 0 <= divideMagnitudes[1] < b  and
+     * [neither has leading zero limbs]
+     * </pre>
+     */
+    private static int[][] divideMagnitudes(int[] a, int[] b) {
+        assert b.length > 0 : "Violation of: b /= 0";
+
+        if (compareMagnitudes(a, b) < 0) {
+            return new int[][] { NO_LIMBS, a };
+        }
+        if (b.length == 1) {
+            int[] quotient = a.clone();
+            int remainder = divideSmallInPlace(quotient, quotient.length,
+                    b[0]);
+            return new int[][] { trim(quotient, quotient.length),
+                trim(new int[] { remainder }, 1) };
+        }
+
+        //normalize so the top limb of the divisor has its high bit set
+        int n = b.length;
+        int m = a.length;
+        int shift = Integer.numberOfLeadingZeros(b[n - 1]);
+        int[] v = shiftLeft(b, n, shift, n);
+        int[] u = shiftLeft(a, m, shift, m + 1);
+        long vTop = v[n - 1] & LONG_MASK;
+        long vNext = v[n - 2] & LONG_MASK;
+        int[] quotient = new int[m - n + 1];
+
+        for (int j = m - n; j >= 0; j--) {
+            //estimate the quotient limb from the top two limbs of u
+            long top = ((u[j + n] & LONG_MASK) << LIMB_BITS)
+                    | (u[j + n - 1] & LONG_MASK);
+            long qHat = Long.divideUnsigned(top, vTop);
+            long rHat = Long.remainderUnsigned(top, vTop);
+            while (qHat > LONG_MASK || Long.compareUnsigned(qHat * vNext,
+                    (rHat << LIMB_BITS) | (u[j + n - 2] & LONG_MASK)) > 0) {
+                qHat--;
+                rHat += vTop;
+                if (rHat > LONG_MASK) {
+                    break;
+                }
+            }
+
+            //subtract qHat * v from u[j, j + n]
+            long borrow = 0;
+            long t;
+            for (int i = 0; i < n; i++) {
+                long p = qHat * (v[i] & LONG_MASK);
+                t = (u[i + j] & LONG_MASK) - borrow - (p & LONG_MASK);
+                u[i + j] = (int) t;
+                borrow = (p >>> LIMB_BITS) - (t >> LIMB_BITS);
+            }
+            t = (u[j + n] & LONG_MASK) - borrow;
+            u[j + n] = (int) t;
+
+            if (t < 0) {
+                //qHat was one too large: add v back
+                qHat--;
+                long carry = 0;
+                for (int i = 0; i < n; i++) {
+                    carry += (u[i + j] & LONG_MASK) + (v[i] & LONG_MASK);
+                    u[i + j] = (int) carry;
+                    carry >>>= LIMB_BITS;
+                }
+                u[j + n] += (int) carry;
+            }
+            quotient[j] = (int) qHat;
+        }
+
+        //the remainder is what is left of u, shifted back
+        int[] remainder = new int[n];
+        for (int i = 0; i < n; i++) {
+            remainder[i] = u[i] >>> shift;
+            if (shift > 0) {
+                remainder[i] |= u[i + 1] << (LIMB_BITS - shift);
+            }
+        }
+        return new int[][] { trim(quotient, quotient.length),
+            trim(remainder, n) };
+    }
+
+    /**
+     * Returns the number of significant bits of a magnitude.
+     *
+     * @param a
+     *            the magnitude
+     * @return the number of bits of a
+     * @requires [a has no leading zero limbs]
+     * @ensures 2^(bitLength - 1) <= a < 2^bitLength  or  a = bitLength = 0
+     */
+    private static long bitLength(int[] a) {
+        long result = 0;
+        if (a.length > 0) {
+            result = (long) a.length * LIMB_BITS
+                    - Integer.numberOfLeadingZeros(a[a.length - 1]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@code a * 2^bits}.
+     *
+     * @param a
+     *            the magnitude
+     * @param bits
+     *            the number of bits to shift by
+     * @return a * 2^bits
+     * @requires [a has no leading zero limbs]  and  bits >= 0
+     * @ensures shiftLeftBits = a * 2^bits  and  [it has no leading zero limbs]
+     */
+    private static int[] shiftLeftBits(int[] a, int bits) {
+        int limbShift = bits / LIMB_BITS;
+        int[] shifted = shiftLeft(a, a.length, bits % LIMB_BITS,
+                a.length + 1);
+        int[] result = new int[shifted.length + limbShift];
+        System.arraycopy(shifted, 0, result, limbShift, shifted.length);
+        return trim(result, result.length);
+    }
+
+    /**
+     * Returns {@code a / 2^bits} (rounded down).
+     *
+     * @param a
+     *            the magnitude
+     * @param bits
+     *            the number of bits to shift by
+     * @return a / 2^bits
+     * @requires [a has no leading zero limbs]  and  bits >= 0
+     * @ensures shiftRightBits = a / 2^bits  and  [it has no leading zero limbs]
+     */
+    private static int[] shiftRightBits(int[] a, int bits) {
+        int limbShift = bits / LIMB_BITS;
+        int shift = bits % LIMB_BITS;
+        int[] result = NO_LIMBS;
+        if (limbShift < a.length) {
+            result = new int[a.length - limbShift];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = a[i + limbShift] >>> shift;
+                if (shift > 0 && i + limbShift + 1 < a.length) {
+                    result[i] |= a[i + limbShift + 1] << (LIMB_BITS - shift);
+                }
+            }
+            result = trim(result, result.length);
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@code high * 2^(32 * k) + low}.
+     *
+     * @param high
+     *            the high limbs
+     * @param low
+     *            the low limbs
+     * @param k
+     *            the number of limbs to shift high by
+     * @return high * 2^(32 * k) + low
+     * @requires <pre>
+     * [high and low have no leading zero limbs]  and  |low| <= k
+     * </pre>
+     * @ensures <pre>
+     * concatenate = high * 2^(32 * k) + low  and
+     * [it has no leading zero limbs]
+     * </pre>
+     */
+    private static int[] concatenate(int[] high, int[] low, int k) {
+        int[] result = low;
+        if (high.length > 0) {
+            result = new int[k + high.length];
+            System.arraycopy(low, 0, result, 0, low.length);
+            System.arraycopy(high, 0, result, k, high.length);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the quotient and remainder of two magnitudes, by Burnikel and
+     * Ziegler's recursive division, which reduces division to multiplications
+     * of half-size operands (so it is as fast as multiplication, up to a
+     * logarithmic factor) and uses long division only for small pieces.
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @return the quotient and the remainder, in that order
+     * @requires [a and b have no leading zero limbs]  and  b /= 0
+     * @ensures <pre>
+     * a = divideRecursive[0] * b + divideRecursive[1]  and
+     * 0 <= divideRecursive[1] < b  and
+     * [neither has leading zero limbs]
+     * </pre>
+     */
+    private static int[][] divideRecursive(int[] a, int[] b) {
+        assert b.length > 0 : "Violation of: b /= 0";
+
+        if (b.length < BURNIKEL_ZIEGLER_THRESHOLD
+                || a.length - b.length < BURNIKEL_ZIEGLER_THRESHOLD) {
+            return divideMagnitudes(a, b);
+        }
+
+        /*
+         * Pad the divisor to n = j * 2^i limbs, with j below the threshold,
+         * and normalize it so its top bit is set; then the blocks of n limbs
+         * of the (equally shifted) dividend are divided two at a time.
+         */
+        int blocks = 2 * Integer
+                .highestOneBit(b.length / BURNIKEL_ZIEGLER_THRESHOLD);
+        int n = (b.length + blocks - 1) / blocks * blocks;
+        int shift = (int) ((long) n * LIMB_BITS - bitLength(b));
+        int[] bShifted = shiftLeftBits(b, shift);
+        int[] aShifted = shiftLeftBits(a, shift);
+        //one more bit so the top block is less than the divisor
+        int t = (int) Math.max(2,
+                (bitLength(aShifted) + 1 + (long) n * LIMB_BITS - 1)
+                        / ((long) n * LIMB_BITS));
+
+        int[] quotient = new int[(t - 1) * n + 1];
+        int[] z = limbs(aShifted, (t - 2) * n, t * n);
+        int[] remainder = NO_LIMBS;
+        for (int i = t - 2; i >= 0; i--) {
+            int[][] qr = divide2n1n(z, bShifted, n);
+            addInto(quotient, qr[0], i * n);
+            remainder = qr[1];
+            if (i > 0) {
+                z = concatenate(remainder, limbs(aShifted, (i - 1) * n, i * n),
+                        n);
+            }
+        }
+        return new int[][] { trim(quotient, quotient.length),
+            shiftRightBits(remainder, shift) };
+    }
+
+    /**
+     * Returns the quotient and remainder of a magnitude of (at most) 2n limbs
+     * divided by one of n limbs, by dividing two 3/2n-limb parts by the
+     * divisor in turn.
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @param n
+     *            the number of limbs of b
+     * @return the quotient and the remainder, in that order
+     * @requires <pre>
+     * [a and b have no leading zero limbs]  and  |b| = n  and
+     * [the top bit of b is set]  and  a < b * 2^(32 * n)
+     * </pre>
+     * @ensures <pre>
+     * a = divide2n1n[0] * b + divide2n1n[1]  and
+     * 0 <= divide2n1n[1] < b  and
+     * [neither has leading zero limbs]
+     * </pre>
+     */
+    private static int[][] divide2n1n(int[] a, int[] b, int n) {
+        if (n % 2 != 0 || n < BURNIKEL_ZIEGLER_THRESHOLD) {
+            return divideMagnitudes(a, b);
+        }
+        int half = n / 2;
+        int[][] qr1 = divide3n2n(limbs(a, half, 2 * n), b, half);
+        int[][] qr2 = divide3n2n(
+                concatenate(qr1[1], limbs(a, 0, half), half), b, half);
+        return new int[][] { concatenate(qr1[0], qr2[0], half), qr2[1] };
+    }
+
+    /**
+     * Returns the quotient and remainder of a magnitude of (at most) 3k limbs
+     * divided by one of 2k limbs, by estimating the quotient from the top 2k
+     * limbs of the dividend and the top k limbs of the divisor and then
+     * correcting it (at most twice).
+     *
+     * @param a
+     *            the dividend
+     * @param b
+     *            the divisor
+     * @param k
+     *            half the number of limbs of b
+     * @return the quotient and the remainder, in that order
+     * @requires <pre>
+     * [a and b have no leading zero limbs]  and  |b| = 2 * k  and
+     * [the top bit of b is set]  and  a < b * 2^(32 * k)
+     * </pre>
+     * @ensures <pre>
+     * a = divide3n2n[0] * b + divide3n2n[1]  and
+     * 0 <= divide3n2n[1] < b  and
+     * [neither has leading zero limbs]
+     * </pre>
+     */
+    private static int[][] divide3n2n(int[] a, int[] b, int k) {
+        int[] a12 = limbs(a, k, 3 * k);
+        int[] b1 = limbs(b, k, 2 * k);
+        int[] b2 = limbs(b, 0, k);
+
+        int[] q;
+        int[] r1;
+        if (compareMagnitudes(limbs(a, 2 * k, 3 * k), b1) < 0) {
+            int[][] qr = divide2n1n(a12, b1, k);
+            q = qr[0];
+            r1 = qr[1];
+        } else {
+            //then the top limbs are equal, and the estimate is 2^(32k) - 1
+            q = new int[k];
+            Arrays.fill(q, -1);
+            r1 = addMagnitudes(
+                    subtractMagnitudes(a12, concatenate(b1, NO_LIMBS, k)), b1);
+        }
+
+        int[] d = multiplyMagnitudes(q, b2);
+        int[] r = concatenate(r1, limbs(a, 0, k), k);
+        while (compareMagnitudes(r, d) < 0) {
+            r = addMagnitudes(r, b);
+            q = subtractMagnitudes(q, new int[] { 1 });
+        }
+        return new int[][] { q, subtractMagnitudes(r, d) };
+    }
+
+    /**
+     * Returns the magnitude of {@code v}.
+     *
+     * @param v
+     *            the value
+     * @return the magnitude of v
+     * @requires v >= 0
+     * @ensures magnitudeOfLong = v  and  [it has no leading zero limbs]
+     */
+    private static int[] magnitudeOfLong(long v) {
+        return trim(new int[] { (int) v, (int) (v >>> LIMB_BITS) }, 2);
+    }
+
+    /**
+     * Returns {@code a^p}, by repeated squaring.
+     *
+     * @param a
+     *            the base
+     * @param p
+     *            the exponent
+     * @return a^p
+     * @requires [a has no leading zero limbs]  and  p >= 0
+     * @ensures powerMagnitude = a^p  and  [it has no leading zero limbs]
+     */
+    private static int[] powerMagnitude(int[] a, int p) {
+        //square and multiply, from the most significant bit of p down
+        int[] result = new int[] { 1 };
+        for (int bit = Integer.highestOneBit(p); bit > 0; bit >>>= 1) {
+            result = multiplyMagnitudes(result, result);
+            if ((p & bit) != 0) {
+                result = multiplyMagnitudes(result, a);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns one step of Newton's iteration for the integer {@code r}-th
+     * root of {@code a}, {@code ((r - 1) * x + a / x^(r - 1)) / r}.
+     *
+     * @param a
+     *            the number whose root is sought
+     * @param x
+     *            the current approximation
+     * @param r
+     *            the root
+     * @return the next approximation
+     * @requires [a and x have no leading zero limbs]  and  x > 0  and  r >= 2
+     * @ensures <pre>
+     * newtonRootStep = ((r - 1) * x + a / x^(r - 1)) / r  and
+     * [it has no leading zero limbs]
+     * </pre>
+     */
+    private static int[] newtonRootStep(int[] a, int[] x, int r) {
+        int[] sum = addMagnitudes(multiplyAddSmall(x, r - 1, 0),
+                divideRecursive(a, powerMagnitude(x, r - 1))[0]);
+        divideSmallInPlace(sum, sum.length, r);
+        return trim(sum, sum.length);
+    }
+
+    /**
+     * Returns the integer {@code r}-th root of {@code a}, by Newton's
+     * iteration from a floating-point estimate. By the inequality of
+     * arithmetic and geometric means, a Newton step from any positive
+     * approximation gives at least the root, and the steps from there
+     * decrease until they reach it, with the number of correct bits about
+     * doubling at each step.
+     *
+     * @param a
+     *            the number whose root is sought
+     * @param r
+     *            the root
+     * @return the integer r-th root of a
+     * @requires [a has no leading zero limbs]  and  r >= 2
+     * @ensures <pre>
+     * rootMagnitude^r <= a < (rootMagnitude + 1)^r  and
+     * [it has no leading zero limbs]
+     * </pre>
+     */
+    private static int[] rootMagnitude(int[] a, int r) {
+        final int doubleBits = 53;
+        final int longBits = 62;
+        long bits = bitLength(a);
+        if (bits == 0) {
+            return NO_LIMBS;
+        }
+        if (r >= bits) {
+            //2^(bits - 1) <= a < 2^r, so the root is 1
+            return new int[] { 1 };
+        }
+
+        //estimate log2(a) from its top bits, and the root from that
+        int dropped = (int) Math.max(0, bits - doubleBits);
+        int[] top = shiftRightBits(a, dropped);
+        double topValue = 0;
+        for (int i = top.length - 1; i >= 0; i--) {
+            topValue = topValue * (LONG_MASK + 1) + (top[i] & LONG_MASK);
+        }
+        double rootBits = (dropped + Math.log(topValue) / Math.log(2)) / r;
+        int[] x;
+        if (rootBits < longBits) {
+            x = magnitudeOfLong((long) Math.ceil(Math.pow(2, rootBits)));
+        } else {
+            int exponent = (int) rootBits - doubleBits;
+            x = shiftLeftBits(magnitudeOfLong(
+                    (long) Math.pow(2, rootBits - exponent)), exponent);
+        }
+
+        x = newtonRootStep(a, x, r);
+        int[] next = newtonRootStep(a, x, r);
+        while (compareMagnitudes(next, x) < 0) {
+            x = next;
+            next = newtonRootStep(a, x, r);
+        }
+        return x;
+    }
+
+    /**
+     * A modulus, with what is needed to multiply residues modulo it: for an
+     * odd modulus, residues are kept in Montgomery form ({@code x * R mod m},
+     * with {@code R = 2^(32 * |m|)}, as arrays of exactly |m| limbs), so that
+     * each product is reduced by Montgomery reduction, interleaved with the
+     * multiplication, which takes no division; for an even one, they are kept
+     * as they are and each product is reduced by division.
+     */
+    private static final class Modulus {
+
+        /**
+         * The modulus.
+         */
+        private final int[] m;
+
+        /**
+         * Whether residues are in Montgomery form (iff m is odd).
+         */
+        private final boolean montgomery;
+
+        /**
+         * -1 / m mod 2^32, if m is odd.
+         */
+        private final int inverse;
+
+        /**
+         * Constructor from the modulus.
+         *
+         * @param m
+         *            the modulus
+         * @requires [m has no leading zero limbs]  and  m > 1
+         */
+        private Modulus(int[] m) {
+            this.m = m;
+            this.montgomery = (m[0] & 1) != 0;
+            //Newton's iteration doubles the correct low bits of 1 / m[0]
+            final int iterations = 5;
+            int x = m[0];
+            for (int i = 0; i < iterations; i++) {
+                x *= 2 - m[0] * x;
+            }
+            this.inverse = -x;
+        }
+
+        /**
+         * Returns {@code a mod m}, in the form used for residues.
+         *
+         * @param a
+         *            the number
+         * @return the residue of a
+         * @requires [a has no leading zero limbs]
+         */
+        private int[] residue(int[] a) {
+            int[] result;
+            if (this.montgomery) {
+                int[] shifted = concatenate(a, NO_LIMBS, this.m.length);
+                result = Arrays.copyOf(divideRecursive(shifted, this.m)[1],
+                        this.m.length);
+            } else {
+                result = divideRecursive(a, this.m)[1];
+            }
+            return result;
+        }
+
+        /**
+         * Returns the number whose residue is {@code a}.
+         *
+         * @param a
+         *            the residue
+         * @return the number, less than m
+         * @requires [a is a residue in the form used by this]
+         */
+        private int[] value(int[] a) {
+            int[] result = a;
+            if (this.montgomery) {
+                result = this.reduce(trim(a, a.length));
+            }
+            return result;
+        }
+
+        /**
+         * Returns the residue of the product of the numbers whose residues are
+         * {@code a} and {@code b}.
+         *
+         * @param a
+         *            the first residue
+         * @param b
+         *            the second residue
+         * @return the residue of the product
+         * @requires [a and b are residues in the form used by this]
+         */
+        private int[] multiply(int[] a, int[] b) {
+            int[] result;
+            if (this.montgomery) {
+                result = this.montgomeryMultiply(a, b);
+            } else {
+                result = divideRecursive(multiplyMagnitudes(a, b), this.m)[1];
+            }
+            return result;
+        }
+
+        /**
+         * Returns {@code a * b / R mod m}, by Montgomery multiplication with
+         * the reduction interleaved with the multiplication (the CIOS method):
+         * after each limb of a is multiplied in, the multiple of m that clears
+         * the lowest limb is added and that limb is dropped, so the partial
+         * result stays at |m| + 2 limbs.
+         *
+         * @param a
+         *            the first residue
+         * @param b
+         *            the second residue
+         * @return a * b / R mod m
+         * @requires <pre>
+         * |a| = |b| = |m|  and  a < m  and  b < m  and  [m is odd]
+         * </pre>
+         * @ensures <pre>
+         * montgomeryMultiply * R = a * b (mod m)  and
+         * montgomeryMultiply < m  and  |montgomeryMultiply| = |m|
+         * </pre>
+         */
+        private int[] montgomeryMultiply(int[] a, int[] b) {
+            int n = this.m.length;
+            int[] w = new int[n + 2];
+            for (int i = 0; i < n; i++) {
+                //w = w + a[i] * b
+                long ai = a[i] & LONG_MASK;
+                long carry = 0;
+                for (int j = 0; j < n; j++) {
+                    carry += ai * (b[j] & LONG_MASK) + (w[j] & LONG_MASK);
+                    w[j] = (int) carry;
+                    carry >>>= LIMB_BITS;
+                }
+                carry += w[n] & LONG_MASK;
+                w[n] = (int) carry;
+                w[n + 1] = (int) (carry >>> LIMB_BITS);
+
+                //w = (w + u * m) / 2^32, with u making the sum divisible
+                long u = (w[0] * this.inverse) & LONG_MASK;
+                carry = (u * (this.m[0] & LONG_MASK) + (w[0] & LONG_MASK))
+                        >>> LIMB_BITS;
+                for (int j = 1; j < n; j++) {
+                    carry += u * (this.m[j] & LONG_MASK) + (w[j] & LONG_MASK);
+                    w[j - 1] = (int) carry;
+                    carry >>>= LIMB_BITS;
+                }
+                carry += w[n] & LONG_MASK;
+                w[n - 1] = (int) carry;
+                w[n] = w[n + 1] + (int) (carry >>> LIMB_BITS);
+            }
+
+            //the result is less than 2 * m
+            int[] result = Arrays.copyOf(w, n);
+            if (w[n] != 0 || compareMagnitudes(trim(result, n), this.m) >= 0) {
+                long borrow = 0;
+                for (int j = 0; j < n; j++) {
+                    borrow += (result[j] & LONG_MASK) - (this.m[j] & LONG_MASK);
+                    result[j] = (int) borrow;
+                    borrow >>= LIMB_BITS;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns {@code t / R mod m}, by Montgomery reduction: adding the
+         * multiple of m that clears the low limbs of t, one limb at a time,
+         * and then dropping those limbs. This takes a number out of
+         * Montgomery form.
+         *
+         * @param t
+         *            the number to reduce
+         * @return t / R mod m
+         * @requires <pre>
+         * [t has no leading zero limbs]  and  t < m * R  and  [m is odd]
+         * </pre>
+         * @ensures reduce * R = t (mod m)  and  reduce < m
+         */
+        private int[] reduce(int[] t) {
+            int n = this.m.length;
+            int[] w = Arrays.copyOf(t, 2 * n + 1);
+            for (int i = 0; i < n; i++) {
+                long u = (w[i] * this.inverse) & LONG_MASK;
+                long carry = 0;
+                for (int j = 0; j < n; j++) {
+                    carry += u * (this.m[j] & LONG_MASK)
+                            + (w[i + j] & LONG_MASK);
+                    w[i + j] = (int) carry;
+                    carry >>>= LIMB_BITS;
+                }
+                for (int k = i + n; carry != 0; k++) {
+                    carry += w[k] & LONG_MASK;
+                    w[k] = (int) carry;
+                    carry >>>= LIMB_BITS;
+                }
+            }
+            //the result is less than 2 * m
+            int[] result = trim(Arrays.copyOfRange(w, n, 2 * n + 1), n + 1);
+            if (compareMagnitudes(result, this.m) >= 0) {
+                result = subtractMagnitudes(result, this.m);
+            }
+            return result;
+        }
+
+    }
+
+    /**
+     * Returns {@code a^p mod m}, by left-to-right sliding-window
+     * exponentiation: the bits of p are read from the most significant down,
+     * squaring for each bit, and each window of up to w bits that starts and
+     * ends with a 1 is handled by one multiplication by a precomputed odd
+     * power of a.
+     *
+     * @param a
+     *            the base
+     * @param p
+     *            the exponent
+     * @param m
+     *            the modulus
+     * @return a^p mod m
+     * @requires [a, p, and m have no leading zero limbs]  and  m > 0
+     * @ensures modPowerMagnitude = a^p mod m  and  [no leading zero limbs]
+     */
+    private static int[] modPowerMagnitude(int[] a, int[] p, int[] m) {
+        if (m.length == 1 && m[0] == 1) {
+            return NO_LIMBS;
+        }
+        Modulus modulus = new Modulus(m);
+        long bits = bitLength(p);
+        //window sizes as in java.math.BigInteger
+        final long[] windowLimits = { 7, 25, 81, 241, 673, 1793 };
+        int window = 1;
+        while (window <= windowLimits.length
+                && bits > windowLimits[window - 1]) {
+            window++;
+        }
+
+        //the odd powers a^1, a^3, ..., a^(2^w - 1)
+        int[][] oddPowers = new int[1 << (window - 1)][];
+        oddPowers[0] = modulus.residue(a);
+        int[] square = modulus.multiply(oddPowers[0], oddPowers[0]);
+        for (int i = 1; i < oddPowers.length; i++) {
+            oddPowers[i] = modulus.multiply(oddPowers[i - 1], square);
+        }
+
+        int[] result = null;
+        long i = bits - 1;
+        while (i >= 0) {
+            if (!testBit(p, i)) {
+                result = modulus.multiply(result, result);
+                i--;
+            } else {
+                //the window ends at the lowest 1 among the next w bits
+                long low = Math.max(0, i - window + 1);
+                while (!testBit(p, low)) {
+                    low++;
+                }
+                int value = 0;
+                for (long j = i; j >= low; j--) {
+                    value = 2 * value + (testBit(p, j) ? 1 : 0);
+                    if (result != null) {
+                        result = modulus.multiply(result, result);
+                    }
+                }
+                if (result == null) {
+                    result = oddPowers[value / 2];
+                } else {
+                    result = modulus.multiply(result, oddPowers[value / 2]);
+                }
+                i = low - 1;
+            }
+        }
+        if (result == null) {
+            //p = 0
+            result = modulus.residue(new int[] { 1 });
+        }
+        return modulus.value(result);
+    }
+
+    /**
+     * Reports whether bit {@code i} of {@code a} is 1.
+     *
+     * @param a
+     *            the magnitude
+     * @param i
+     *            the index of the bit
+     * @return whether bit i of a is 1
+     * @requires 0 <= i < 32 * |a|
+     */
+    private static boolean testBit(int[] a, long i) {
+        return ((a[(int) (i / LIMB_BITS)] >>> (i % LIMB_BITS)) & 1) != 0;
+    }
+
+    /**
+     * Returns {@code 10^(DECIMAL_CHUNK_DIGITS * 2^k)}, from (and, the first
+     * time, into) the cached table of powers of ten.
+     *
+     * @param k
+     *            the index of the power
+     * @return 10^(DECIMAL_CHUNK_DIGITS * 2^k) (not to be modified)
+     * @requires k >= 0
+     */
+    private static int[] splitPower(int k) {
+        int[][] table = splitPowers;
+        if (k >= table.length) {
+            synchronized (NaturalNumber5.class) {
+                table = splitPowers;
+                if (k >= table.length) {
+                    int[][] grown = Arrays.copyOf(table, k + 1);
+                    for (int i = table.length; i <= k; i++) {
+                        grown[i] = multiplyMagnitudes(grown[i - 1],
+                                grown[i - 1]);
+                    }
+                    splitPowers = grown;
+                    table = grown;
+                }
+            }
+        }
+        return table[k];
+    }
+
+    /**
+     * Returns the magnitude of the number whose decimal depiction is
+     * {@code s}.
+     *
+     * @param s
+     *            the decimal depiction
+     * @return the magnitude
+     * @requires there exists n: NATURAL (s = TO_STRING(n))
+     * @ensures [parse has the value depicted by s and no leading zero limbs]
+     */
+    private static int[] parse(String s) {
+        return parse(s, 0, s.length());
+    }
+
+    /**
+     * Returns the magnitude of the number whose decimal depiction (possibly
+     * with leading zeros) is {@code s[start, end)}. Long depictions are split
+     * into a high part and a low part of {@code DECIMAL_CHUNK_DIGITS * 2^k}
+     * digits, which are parsed recursively and combined with one
+     * multiplication by a cached power of ten, so parsing costs about as much
+     * as a multiplication of numbers of that size.
+     *
+     * @param s
+     *            the decimal depiction
+     * @param start
+     *            the index of the first digit
+     * @param end
+     *            the index one past the last digit
+     * @return the magnitude
+     * @requires <pre>
+     * 0 <= start < end <= |s|  and  [s[start, end) is all decimal digits]
+     * </pre>
+     * @ensures <pre>
+     * [parse has the value depicted by s[start, end) and no leading zero
+     *  limbs]
+     * </pre>
+     */
+    private static int[] parse(String s, int start, int end) {
+        int[] result = NO_LIMBS;
+        if (end - start <= PARSE_THRESHOLD) {
+            //the first chunk takes the digits left over by whole chunks
+            int chunkStart = start;
+            int chunkEnd = start + (end - start) % DECIMAL_CHUNK_DIGITS;
+            if (chunkEnd == start) {
+                chunkEnd += DECIMAL_CHUNK_DIGITS;
+            }
+            while (chunkStart < end) {
+                int chunk = Integer.parseInt(s.substring(chunkStart, chunkEnd));
+                result = multiplyAddSmall(result, DECIMAL_CHUNK, chunk);
+                chunkStart = chunkEnd;
+                chunkEnd += DECIMAL_CHUNK_DIGITS;
+            }
+        } else {
+            //the low part gets the largest power-of-two chunks below half
+            int k = 0;
+            int lowDigits = DECIMAL_CHUNK_DIGITS;
+            while (2 * lowDigits < end - start) {
+                k++;
+                lowDigits *= 2;
+            }
+            int middle = end - lowDigits;
+            result = addMagnitudes(
+                    multiplyMagnitudes(parse(s, start, middle), splitPower(k)),
+                    parse(s, middle, end));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the decimal depiction of a magnitude.
+     *
+     * @param a
+     *            the magnitude
+     * @return the decimal depiction of a
+     * @requires [a has no leading zero limbs]
+     * @ensures depiction = TO_STRING(a)
+     */
+    private static String depiction(int[] a) {
+        StringBuilder sb = new StringBuilder();
+        appendDepiction(sb, a, 1);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the decimal depiction of a magnitude, with leading zeros to make
+     * it at least {@code digits} digits long, to {@code sb}. Large magnitudes
+     * are split by dividing by a cached power of ten of about half their size,
+     * and the quotient and remainder are depicted recursively, so depicting
+     * costs about as much as a division of numbers of that size.
+     *
+     * @param sb
+     *            the {@code StringBuilder} to append to
+     * @param a
+     *            the magnitude
+     * @param digits
+     *            the least number of digits to append
+     * @updates sb
+     * @requires [a has no leading zero limbs]  and  digits >= 1
+     * @ensures <pre>
+     * sb = #sb * [TO_STRING(a), with leading zeros to make it at least digits
+     *             long]
+     * </pre>
+     */
+    private static void appendDepiction(StringBuilder sb, int[] a,
+            int digits) {
+        if (a.length <= DEPICTION_THRESHOLD) {
+            String s = depictionByChunks(a);
+            for (int pad = s.length(); pad < digits; pad++) {
+                sb.append('0');
+            }
+            sb.append(s);
+        } else {
+            //the largest power of ten with at most half the limbs of a
+            int k = 0;
+            int lowDigits = DECIMAL_CHUNK_DIGITS;
+            while (2 * splitPower(k + 1).length <= a.length + 1) {
+                k++;
+                lowDigits *= 2;
+            }
+            int[][] qr = divideRecursive(a, splitPower(k));
+            appendDepiction(sb, qr[0], Math.max(1, digits - lowDigits));
+            appendDepiction(sb, qr[1], lowDigits);
+        }
+    }
+
+    /**
+     * Returns the decimal depiction of a magnitude, found one chunk of
+     * {@code DECIMAL_CHUNK_DIGITS} digits at a time.
+     *
+     * @param a
+     *            the magnitude
+     * @return the decimal depiction of a
+     * @requires [a has no leading zero limbs]
+     * @ensures depictionByChunks = TO_STRING(a)
+     */
+    private static String depictionByChunks(int[] a) {
+        if (a.length == 0) {
+            return "0";
+        }
+        //peel off 9 digits at a time, least significant first
+        int[] q = a.clone();
+        int length = q.length;
+        int[] chunks = new int[q.length * 2 + 1];
+        int chunkCount = 0;
+        while (length > 0) {
+            chunks[chunkCount] = divideSmallInPlace(q, length, DECIMAL_CHUNK);
+            chunkCount++;
+            while (length > 0 && q[length - 1] == 0) {
+                length--;
+            }
+        }
+        StringBuilder sb = new StringBuilder(
+                chunkCount * DECIMAL_CHUNK_DIGITS);
+        sb.append(chunks[chunkCount - 1]);
+        for (int i = chunkCount - 2; i >= 0; i--) {
+            String chunk = Integer.toString(chunks[i]);
+            for (int pad = chunk.length(); pad < DECIMAL_CHUNK_DIGITS; pad++) {
+                sb.append('0');
+            }
+            sb.append(chunk);
+        }
+        return sb.toString();
+    }
+
+
+    /**
+     * Returns the magnitude of {@code n}, without copying it if {@code n} is a
+     * {@code NaturalNumber5} of at least 2^63.
+     *
+     * @param n
+     *            the number
+     * @return the magnitude of n (not to be modified)
+     * @ensures [magnitudeOf has the value of n and no leading zero limbs]
+     */
+    private static int[] magnitudeOf(NaturalNumber n) {
+        int[] result;
+        if (n instanceof NaturalNumber5) {
+            result = ((NaturalNumber5) n).magnitude();
+        } else {
+            result = parse(n.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Returns {@code n} if it is a {@code NaturalNumber5} whose value is held
+     * in a {@code long}, and null otherwise.
+     *
+     * @param n
+     *            the number
+     * @return n as a small NaturalNumber5, or null
+     */
+    private static NaturalNumber5 asSmall(NaturalNumber n) {
+        NaturalNumber5 result = null;
+        if (n instanceof NaturalNumber5 && ((NaturalNumber5) n).mag == null) {
+            result = (NaturalNumber5) n;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the magnitude of {@code this}.
+     *
+     * @return the magnitude of this (not to be modified)
+     * @ensures [magnitude has the value of this and no leading zero limbs]
+     */
+    private int[] magnitude() {
+        int[] result = this.mag;
+        if (result == null) {
+            result = magnitudeOfLong(this.small);
+        }
+        return result;
+    }
+
+    /**
+     * Sets {@code this} to the value of magnitude {@code a}, in a
+     * {@code long} if it fits.
+     *
+     * @param a
+     *            the magnitude (not to be modified afterwards)
+     * @replaces this
+     * @requires [a has no leading zero limbs]
+     * @ensures this = a
+     */
+    private void setMagnitude(int[] a) {
+        if (a.length == 0) {
+            this.small = 0;
+            this.mag = null;
+        } else if (a.length == 1) {
+            this.small = a[0] & LONG_MASK;
+            this.mag = null;
+        } else if (a.length == 2 && a[1] >= 0) {
+            this.small = ((long) a[1] << LIMB_BITS) | (a[0] & LONG_MASK);
+            this.mag = null;
+        } else {
+            this.mag = a;
+        }
+    }
+
+    /**
+     * Sets {@code this} to {@code v}.
+     *
+     * @param v
+     *            the value
+     * @replaces this
+     * @requires v >= 0
+     * @ensures this = v
+     */
+    private void setSmall(long v) {
+        this.small = v;
+        this.mag = null;
+    }
+
+    /**
+     * Creator of initial representation.
+     */
+    private void createNewRep() {
+
+        this.small = 0;
+        this.mag = null;
+
+    }
+
+    /**
+     * Checks that {@code this} is not a shared constant, before it is
+     * changed. Unlike a precondition this is checked whether or not assertion
+     * checking is on, because changing a constant would silently change every
+     * later use of it.
+     *
+     * @throws UnsupportedOperationException
+     *             if this is one of the shared constants
+     */
+    private void checkWritable() {
+        if (this.readOnly) {
+            throw new UnsupportedOperationException(
+                    "Shared NaturalNumber5 constants cannot be changed");
+        }
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor.
+     */
+    public NaturalNumber5() {
+
+        this.readOnly = false;
+        this.createNewRep();
+
+    }
+
+    /**
+     * Constructor from {@code int}.
+     *
+     * @param i
+     *            {@code int} to initialize from
+     */
+    public NaturalNumber5(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+
+        this.readOnly = false;
+        this.setSmall(i);
+    }
+
+    /**
+     * Constructor from {@code String}.
+     *
+     * @param s
+     *            {@code String} to initialize from
+     */
+    public NaturalNumber5(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert s.matches("0|[1-9]\\d*") : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+
+        this.readOnly = false;
+        this.setFromDepiction(s);
+    }
+
+    /**
+     * Constructor from {@code NaturalNumber}.
+     *
+     * @param n
+     *            {@code NaturalNumber} to initialize from
+     */
+    public NaturalNumber5(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        this.readOnly = false;
+        this.setFrom(n);
+    }
+
+    /**
+     * Constructor of a shared constant.
+     *
+     * @param v
+     *            the value
+     * @param readOnly
+     *            whether the new number must not be changed
+     * @requires v >= 0
+     */
+    private NaturalNumber5(long v, boolean readOnly) {
+        this.readOnly = readOnly;
+        this.setSmall(v);
+    }
+
+    /**
+     * Returns the shared constants 10^0 through 10^MAX_CONSTANT_POWER, with
+     * {@code ONE} and {@code TEN} as the first two.
+     *
+     * @return the powers of ten
+     */
+    private static NaturalNumber5[] constantPowers() {
+        NaturalNumber5[] powers = new NaturalNumber5[MAX_CONSTANT_POWER + 1];
+        powers[0] = ONE;
+        powers[1] = TEN;
+        long power = RADIX;
+        for (int k = 2; k <= MAX_CONSTANT_POWER; k++) {
+            power *= RADIX;
+            powers[k] = new NaturalNumber5(power, true);
+        }
+        return powers;
+    }
+
+    /**
+     * Returns the shared constant 10^k, for read-only use: any method that
+     * would change it throws {@code UnsupportedOperationException}.
+     *
+     * @param k
+     *            the exponent
+     * @return 10^k
+     * @requires 0 <= k <= 18
+     * @ensures powerOfTen = 10^k
+     */
+    public static NaturalNumber5 powerOfTen(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k <= MAX_CONSTANT_POWER : "Violation of: k <= 18";
+
+        return POWERS_OF_TEN[k];
+    }
+
+    /**
+     * Sets whether products of large numbers are split into sub-products
+     * computed in parallel (fork/join, in the common pool). It is off by
+     * default.
+     *
+     * @param on
+     *            whether to multiply in parallel
+     */
+    public static void setParallelMultiplication(boolean on) {
+        parallelMultiplication = on;
+    }
+
+    /**
+     * Sets {@code this} to the number whose decimal depiction is {@code s}.
+     *
+     * @param s
+     *            the decimal depiction
+     * @replaces this
+     * @requires there exists n: NATURAL (s = TO_STRING(n))
+     * @ensures s = TO_STRING(this)
+     */
+    private void setFromDepiction(String s) {
+        //every depiction of at most 18 digits is less than 2^63
+        if (s.length() <= MAX_CONSTANT_POWER) {
+            this.setSmall(Long.parseLong(s));
+        } else {
+            this.setMagnitude(parse(s));
+        }
+    }
+
+    /**
+     * Sets {@code this} to the value of {@code n}.
+     *
+     * @param n
+     *            the number
+     * @replaces this
+     * @ensures this = n
+     */
+    private void setFrom(NaturalNumber n) {
+        NaturalNumber5 other = asSmall(n);
+        if (other != null) {
+            this.setSmall(other.small);
+        } else {
+            //magnitudes are never changed in place, so they can be shared
+            this.setMagnitude(magnitudeOf(n));
+        }
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final NaturalNumber newInstance() {
+        try {
+            return this.getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.checkWritable();
+
+        this.createNewRep();
+    }
+
+    @Override
+    public final void transferFrom(NaturalNumber source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof NaturalNumber5 : ""
+                + "Violation of: source is of dynamic type NaturalNumber5";
+        this.checkWritable();
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        NaturalNumber5 localSource = (NaturalNumber5) source;
+        localSource.checkWritable();
+        this.small = localSource.small;
+        this.mag = localSource.mag;
+        localSource.createNewRep();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void multiplyBy10(int k) {
+        assert 0 <= k : "Violation of: 0 <= k";
+        assert k < RADIX : "Violation of: k < 10";
+        this.checkWritable();
+
+        if (this.mag == null && this.small <= (Long.MAX_VALUE - k) / RADIX) {
+            this.small = this.small * RADIX + k;
+        } else {
+            this.setMagnitude(multiplyAddSmall(this.magnitude(), RADIX, k));
+        }
+    }
+
+    @Override
+    public final int divideBy10() {
+        this.checkWritable();
+
+        int k;
+        if (this.mag == null) {
+            k = (int) (this.small % RADIX);
+            this.small /= RADIX;
+        } else {
+            int[] quotient = this.mag.clone();
+            k = divideSmallInPlace(quotient, quotient.length, RADIX);
+            this.setMagnitude(trim(quotient, quotient.length));
+        }
+
+        return k;
+    }
+
+    @Override
+    public final boolean isZero() {
+
+        return this.mag == null && this.small == 0;
+    }
+
+    /*
+     * Secondary methods ------------------------------------------------------
+     */
+
+    @Override
+    public final void copyFrom(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        this.checkWritable();
+
+        this.setFrom(n);
+    }
+
+    @Override
+    public final int compareTo(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+
+        NaturalNumber5 other = asSmall(n);
+        int result;
+        if (this.mag == null && other != null) {
+            result = Long.compare(this.small, other.small);
+        } else {
+            result = compareMagnitudes(this.magnitude(), magnitudeOf(n));
+        }
+        return result;
+    }
+
+    @Override
+    public final void setFromInt(int i) {
+        assert i >= 0 : "Violation of: i >= 0";
+        this.checkWritable();
+
+        this.setSmall(i);
+    }
+
+    @Override
+    public final boolean canConvertToInt() {
+        return this.mag == null && this.small <= Integer.MAX_VALUE;
+    }
+
+    @Override
+    public final int toInt() {
+        assert this.canConvertToInt() : ""
+                + "Violation of: this <= Integer.MAX_VALUE";
+
+        return (int) this.small;
+    }
+
+    @Override
+    public final void setFromString(String s) {
+        assert s != null : "Violation of: s is not null";
+        assert this.canSetFromString(s) : ""
+                + "Violation of: there exists n: NATURAL (s = TO_STRING(n))";
+        this.checkWritable();
+
+        this.setFromDepiction(s);
+    }
+
+    @Override
+    public final void increment() {
+        this.checkWritable();
+
+        if (this.mag == null && this.small < Long.MAX_VALUE) {
+            this.small++;
+        } else {
+            this.setMagnitude(multiplyAddSmall(this.magnitude(), 1, 1));
+        }
+    }
+
+    @Override
+    public final void decrement() {
+        assert !this.isZero() : "Violation of: this > 0";
+        this.checkWritable();
+
+        if (this.mag == null) {
+            this.small--;
+        } else {
+            this.setMagnitude(subtractMagnitudes(this.mag, new int[] { 1 }));
+        }
+    }
+
+    @Override
+    public final void add(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        this.checkWritable();
+
+        NaturalNumber5 other = asSmall(n);
+        //a sum of two longs overflows iff it is negative
+        if (this.mag == null && other != null
+                && this.small + other.small >= 0) {
+            this.small += other.small;
+        } else {
+            this.setMagnitude(
+                    addMagnitudes(this.magnitude(), magnitudeOf(n)));
+        }
+    }
+
+    @Override
+    public final void subtract(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert this.compareTo(n) >= 0 : "Violation of: this >= n";
+        this.checkWritable();
+
+        NaturalNumber5 other = asSmall(n);
+        if (this.mag == null && other != null) {
+            this.small -= other.small;
+        } else {
+            this.setMagnitude(
+                    subtractMagnitudes(this.magnitude(), magnitudeOf(n)));
+        }
+    }
+
+    @Override
+    public final void multiply(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        this.checkWritable();
+
+        NaturalNumber5 other = asSmall(n);
+        if (this.mag == null && other != null && (this.small == 0
+                || other.small <= Long.MAX_VALUE / this.small)) {
+            this.small *= other.small;
+        } else {
+            this.setMagnitude(
+                    multiplyMagnitudes(this.magnitude(), magnitudeOf(n)));
+        }
+    }
+
+    @Override
+    public final NaturalNumber divide(NaturalNumber n) {
+        assert n != null : "Violation of: n is not null";
+        assert !n.isZero() : "Violation of: n > 0";
+        this.checkWritable();
+
+        NaturalNumber5 remainder = new NaturalNumber5();
+        NaturalNumber5 other = asSmall(n);
+        if (this.mag == null && other != null) {
+            remainder.small = this.small % other.small;
+            this.small /= other.small;
+        } else {
+            int[][] quotientAndRemainder = divideRecursive(this.magnitude(),
+                    magnitudeOf(n));
+            this.setMagnitude(quotientAndRemainder[0]);
+            remainder.setMagnitude(quotientAndRemainder[1]);
+        }
+        return remainder;
+    }
+
+    @Override
+    public final void power(int p) {
+        assert p >= 0 : "Violation of: p >= 0";
+        this.checkWritable();
+
+        this.setMagnitude(powerMagnitude(this.magnitude(), p));
+    }
+
+    @Override
+    public final void root(int r) {
+        assert r >= 2 : "Violation of: r >= 2";
+        this.checkWritable();
+
+        this.setMagnitude(rootMagnitude(this.magnitude(), r));
+    }
+
+    @Override
+    public final String toString() {
+        String result;
+        if (this.mag == null) {
+            result = Long.toString(this.small);
+        } else {
+            result = depiction(this.mag);
+        }
+        return result;
+    }
+
+    /*
+     * Modular arithmetic -----------------------------------------------------
+     */
+
+    /**
+     * Multiplies {@code this} by {@code n}, modulo {@code m}.
+     *
+     * @param n
+     *            {@code NaturalNumber} to multiply by
+     * @param m
+     *            the modulus
+     * @updates this
+     * @requires m > 0
+     * @ensures this = (#this * n) mod m
+     */
+    public final void modMultiply(NaturalNumber n, NaturalNumber m) {
+        assert n != null : "Violation of: n is not null";
+        assert m != null : "Violation of: m is not null";
+        assert !m.isZero() : "Violation of: m > 0";
+        this.checkWritable();
+
+        NaturalNumber5 other = asSmall(n);
+        NaturalNumber5 modulus = asSmall(m);
+        if (this.mag == null && other != null && modulus != null
+                && modulus.small <= Integer.MAX_VALUE) {
+            //both residues are less than 2^31, so their product fits
+            this.small = (this.small % modulus.small)
+                    * (other.small % modulus.small) % modulus.small;
+        } else {
+            this.setMagnitude(divideRecursive(
+                    multiplyMagnitudes(this.magnitude(), magnitudeOf(n)),
+                    magnitudeOf(m))[1]);
+        }
+    }
+
+    /**
+     * Raises {@code this} to the power {@code p}, modulo {@code m}. For an
+     * odd modulus this uses Montgomery multiplication, so no division is done
+     * except to convert {@code this} to and from Montgomery form.
+     *
+     * @param p
+     *            the exponent
+     * @param m
+     *            the modulus
+     * @updates this
+     * @requires m > 0
+     * @ensures this = #this^p mod m
+     */
+    public final void modPower(NaturalNumber p, NaturalNumber m) {
+        assert p != null : "Violation of: p is not null";
+        assert m != null : "Violation of: m is not null";
+        assert !m.isZero() : "Violation of: m > 0";
+        this.checkWritable();
+
+        int[] exponent = magnitudeOf(p);
+        NaturalNumber5 modulus = asSmall(m);
+        if (this.mag == null && modulus != null
+                && modulus.small <= Integer.MAX_VALUE) {
+            //square and multiply on residues less than 2^31
+            long base = this.small % modulus.small;
+            long result = 1 % modulus.small;
+            for (long i = bitLength(exponent) - 1; i >= 0; i--) {
+                result = result * result % modulus.small;
+                if (testBit(exponent, i)) {
+                    result = result * base % modulus.small;
+                }
+            }
+            this.small = result;
+        } else {
+            this.setMagnitude(modPowerMagnitude(this.magnitude(), exponent,
+                    magnitudeOf(m)));
+        }
+    }
+
+    /*
+     * Conversion to and from long and limbs ----------------------------------
+     */
+
+    /**
+     * Sets the value of {@code this} to {@code v}.
+     *
+     * @param v
+     *            {@code long} to set the value to
+     * @replaces this
+     * @requires v >= 0
+     * @ensures this = v
+     */
+    public final void setFromLong(long v) {
+        assert v >= 0 : "Violation of: v >= 0";
+        this.checkWritable();
+
+        this.setSmall(v);
+    }
+
+    /**
+     * Reports whether {@code this} is small enough to convert to {@code long}.
+     *
+     * @return true iff this is small enough
+     * @ensures canConvertToLong = (this <= Long.MAX_VALUE)
+     */
+    public final boolean canConvertToLong() {
+        return this.mag == null;
+    }
+
+    /**
+     * Reports the value of {@code this} as a {@code long}.
+     *
+     * @return the value
+     * @requires this <= Long.MAX_VALUE
+     * @ensures toLong = this
+     */
+    public final long toLong() {
+        assert this.canConvertToLong() : ""
+                + "Violation of: this <= Long.MAX_VALUE";
+
+        return this.small;
+    }
+
+    /**
+     * Returns the base 2^32 limbs of {@code this}, least significant first,
+     * for binary encodings such as {@code NaturalNumberChannelWriter}'s.
+     *
+     * @return the limbs (not to be modified)
+     * @ensures <pre>
+     * this = [sum of limbs[i] * 2^(32 * i) for 0 <= i < |limbs|, each read as
+     *         an unsigned 32-bit integer]  and
+     * (|limbs| = 0  or  limbs[|limbs| - 1] /= 0)
+     * </pre>
+     */
+    final int[] limbs() {
+        return this.magnitude();
+    }
+
+    /**
+     * Sets {@code this} to the number with the given base 2^32 limbs, least
+     * significant first, for binary encodings such as
+     * {@code NaturalNumberChannelReader}'s.
+     *
+     * @param limbs
+     *            the limbs (not to be modified afterwards)
+     * @replaces this
+     * @ensures <pre>
+     * this = [sum of limbs[i] * 2^(32 * i) for 0 <= i < |limbs|, each read as
+     *         an unsigned 32-bit integer]
+     * </pre>
+     */
+    final void setFromLimbs(int[] limbs) {
+        assert limbs != null : "Violation of: limbs is not null";
+        this.checkWritable();
+
+        this.setMagnitude(trim(limbs, limbs.length));
+    }
+
+}
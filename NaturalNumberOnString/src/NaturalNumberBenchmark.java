@@ -0,0 +1,379 @@
+import java.util.Random;
+
+import components.naturalnumber.NaturalNumber;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times conversion from and to {@code String}, and {@code multiply} (with
+ * parallel multiplication off and on), of {@code NaturalNumber5} on numbers of
+ * increasing sizes; then times {@code divide} and {@code root} of
+ * {@code NaturalNumber5} against those inherited from
+ * {@code NaturalNumberSecondary}, which work digit by digit through the kernel
+ * methods (as in {@code NaturalNumber3}), on {@code NaturalNumber4}; and
+ * finally times {@code modPower} of {@code NaturalNumber5} against repeated
+ * {@code multiply} and {@code divide}.
+ *
+ * <p>
+ * The operands are pseudo-random numbers with the given numbers of decimal
+ * digits. Run with assertion checking off ({@code -da}).
+ * </p>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public final class NaturalNumberBenchmark {
+
+    /**
+     * Numbers of decimal digits of the operands to time.
+     */
+    private static final int[] DIGITS = { 1_000, 10_000, 100_000, 1_000_000 };
+
+    /**
+     * Numbers of decimal digits of the divisors and roots to time.
+     */
+    private static final int[] DIVIDE_DIGITS = { 100, 1_000, 10_000 };
+
+    /**
+     * Largest number of digits to time {@code NaturalNumber4} on.
+     */
+    private static final int DIGIT_BY_DIGIT_MAX_DIGITS = 1_000;
+
+    /**
+     * Numbers of bits of the moduli (and exponents) of the modular powers to
+     * time.
+     */
+    private static final int[] MOD_POWER_BITS = { 512, 1024, 2048, 4096 };
+
+    /**
+     * Number of timed runs per configuration; the fastest one is reported.
+     */
+    private static final int RUNS = 5;
+
+    /**
+     * Number of timed runs per configuration of the modular powers, which
+     * take more runs for the JIT compiler to warm up.
+     */
+    private static final int MOD_POWER_RUNS = 20;
+
+    /**
+     * Seed for the random operands.
+     */
+    private static final long SEED = 2024L;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private NaturalNumberBenchmark() {
+    }
+
+    /**
+     * Returns a pseudo-random decimal depiction with {@code digits} digits.
+     *
+     * @param random
+     *            the source of random digits
+     * @param digits
+     *            the number of digits
+     * @return the depiction
+     * @requires digits > 0
+     * @ensures <pre>
+     * |randomDepiction| = digits  and
+     * there exists n: NATURAL (randomDepiction = TO_STRING(n))
+     * </pre>
+     */
+    private static String randomDepiction(Random random, int digits) {
+        final int radix = 10;
+        StringBuilder depiction = new StringBuilder(digits);
+        depiction.append((char) ('1' + random.nextInt(radix - 1)));
+        for (int i = 1; i < digits; i++) {
+            depiction.append((char) ('0' + random.nextInt(radix)));
+        }
+        return depiction.toString();
+    }
+
+    /**
+     * Returns the fastest of {@code RUNS} runs of the constructor from
+     * {@code String} on {@code s}.
+     *
+     * @param s
+     *            the depiction to parse
+     * @return the elapsed time in milliseconds
+     * @requires there exists n: NATURAL (s = TO_STRING(n))
+     */
+    private static double timeParse(String s) {
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            new NaturalNumber5(s);
+            best = Math.min(best,
+                    (System.nanoTime() - start) / NANOS_PER_MILLI);
+        }
+        return best;
+    }
+
+    /**
+     * Returns the fastest of {@code RUNS} runs of {@code n.toString()}.
+     *
+     * @param n
+     *            the number to depict
+     * @return the elapsed time in milliseconds
+     */
+    private static double timeToString(NaturalNumber5 n) {
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            n.toString();
+            best = Math.min(best,
+                    (System.nanoTime() - start) / NANOS_PER_MILLI);
+        }
+        return best;
+    }
+
+    /**
+     * Returns the fastest of {@code RUNS} runs of {@code n.divide(m)}, each on
+     * a new copy of {@code n}.
+     *
+     * @param n
+     *            the dividend
+     * @param m
+     *            the divisor
+     * @return the elapsed time in milliseconds
+     * @requires m > 0
+     */
+    private static double timeDivide(NaturalNumber n, NaturalNumber m) {
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            NaturalNumber quotient = n.newInstance();
+            quotient.copyFrom(n);
+            long start = System.nanoTime();
+            quotient.divide(m);
+            best = Math.min(best,
+                    (System.nanoTime() - start) / NANOS_PER_MILLI);
+        }
+        return best;
+    }
+
+    /**
+     * Returns the fastest of {@code RUNS} runs of {@code n.root(r)}, each on a
+     * new copy of {@code n}.
+     *
+     * @param n
+     *            the number whose root to take
+     * @param r
+     *            the root
+     * @return the elapsed time in milliseconds
+     * @requires r >= 2
+     */
+    private static double timeRoot(NaturalNumber n, int r) {
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            NaturalNumber root = n.newInstance();
+            root.copyFrom(n);
+            long start = System.nanoTime();
+            root.root(r);
+            best = Math.min(best,
+                    (System.nanoTime() - start) / NANOS_PER_MILLI);
+        }
+        return best;
+    }
+
+    /**
+     * Returns a pseudo-random number of {@code bits} bits.
+     *
+     * @param random
+     *            the source of random bits
+     * @param bits
+     *            the number of bits
+     * @return the number
+     * @requires bits > 0
+     * @ensures 2^(bits - 1) <= randomBits < 2^bits
+     */
+    private static NaturalNumber5 randomBits(Random random, int bits) {
+        NaturalNumber5 n = new NaturalNumber5(1);
+        NaturalNumber5 two = new NaturalNumber5(2);
+        for (int i = 1; i < bits; i++) {
+            n.multiply(two);
+            if (random.nextBoolean()) {
+                n.increment();
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Returns the fastest of {@code MOD_POWER_RUNS} runs of
+     * {@code n.modPower(p, m)}, each on a new copy of {@code n}.
+     *
+     * @param n
+     *            the base
+     * @param p
+     *            the exponent
+     * @param m
+     *            the modulus
+     * @return the elapsed time in milliseconds
+     * @requires m > 0
+     */
+    private static double timeModPower(NaturalNumber5 n, NaturalNumber5 p,
+            NaturalNumber5 m) {
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run < MOD_POWER_RUNS; run++) {
+            NaturalNumber5 power = new NaturalNumber5(n);
+            long start = System.nanoTime();
+            power.modPower(p, m);
+            best = Math.min(best,
+                    (System.nanoTime() - start) / NANOS_PER_MILLI);
+        }
+        return best;
+    }
+
+    /**
+     * Returns the fastest of {@code MOD_POWER_RUNS} runs of computing
+     * {@code n^p mod m} by square and multiply, reducing with {@code divide}
+     * after each {@code multiply}.
+     *
+     * @param n
+     *            the base
+     * @param p
+     *            the exponent
+     * @param m
+     *            the modulus
+     * @return the elapsed time in milliseconds
+     * @requires m > 0
+     */
+    private static double timeMultiplyDivide(NaturalNumber5 n,
+            NaturalNumber5 p, NaturalNumber5 m) {
+        //the bits of p, most significant first
+        StringBuilder bits = new StringBuilder();
+        NaturalNumber5 q = new NaturalNumber5(p);
+        NaturalNumber5 two = new NaturalNumber5(2);
+        while (!q.isZero()) {
+            bits.append(q.divide(two).toInt());
+        }
+        bits.reverse();
+
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run < MOD_POWER_RUNS; run++) {
+            NaturalNumber5 power = new NaturalNumber5(1);
+            long start = System.nanoTime();
+            for (int i = 0; i < bits.length(); i++) {
+                power.multiply(new NaturalNumber5(power));
+                power.copyFrom(power.divide(m));
+                if (bits.charAt(i) == '1') {
+                    power.multiply(n);
+                    power.copyFrom(power.divide(m));
+                }
+            }
+            best = Math.min(best,
+                    (System.nanoTime() - start) / NANOS_PER_MILLI);
+        }
+        return best;
+    }
+
+    /**
+     * Returns the fastest of {@code RUNS} runs of {@code n.multiply(m)}, each
+     * on a new copy of {@code n}.
+     *
+     * @param n
+     *            the multiplicand
+     * @param m
+     *            the multiplier
+     * @param parallel
+     *            whether to multiply in parallel
+     * @return the elapsed time in milliseconds
+     */
+    private static double timeMultiply(NaturalNumber5 n, NaturalNumber5 m,
+            boolean parallel) {
+        NaturalNumber5.setParallelMultiplication(parallel);
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            NaturalNumber5 product = new NaturalNumber5(n);
+            long start = System.nanoTime();
+            product.multiply(m);
+            best = Math.min(best,
+                    (System.nanoTime() - start) / NANOS_PER_MILLI);
+        }
+        NaturalNumber5.setParallelMultiplication(false);
+        return best;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments; ignored
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+        Random random = new Random(SEED);
+
+        out.println("n-digit numbers (fastest of " + RUNS + " runs, ms)");
+        out.println("n\tparse\ttoString\tmultiply\tmultiply (parallel)");
+        for (int digits : DIGITS) {
+            String s = randomDepiction(random, digits);
+            NaturalNumber5 n = new NaturalNumber5(s);
+            NaturalNumber5 m = new NaturalNumber5(
+                    randomDepiction(random, digits));
+            out.print(Integer.toString(digits));
+            out.print(String.format("\t%.2f", timeParse(s)));
+            out.print(String.format("\t%.2f", timeToString(n)));
+            out.print(String.format("\t%.2f", timeMultiply(n, m, false)));
+            out.println(String.format("\t%.2f", timeMultiply(n, m, true)));
+        }
+
+        out.println();
+        out.println("divide a 2n-digit number by an n-digit number, and take"
+                + " the square and cube roots of the 2n-digit number (fastest"
+                + " of " + RUNS + " runs, ms)");
+        out.println("n\tdivide 4\tdivide 5\troot 4\troot 5\tcube root 4"
+                + "\tcube root 5");
+        final int cube = 3;
+        for (int digits : DIVIDE_DIGITS) {
+            String s = randomDepiction(random, 2 * digits);
+            String d = randomDepiction(random, digits);
+            NaturalNumber n4 = new NaturalNumber4(s);
+            NaturalNumber m4 = new NaturalNumber4(d);
+            NaturalNumber n5 = new NaturalNumber5(s);
+            NaturalNumber m5 = new NaturalNumber5(d);
+            //the inherited methods take too long on larger numbers
+            boolean timeN4 = digits <= DIGIT_BY_DIGIT_MAX_DIGITS;
+            out.print(Integer.toString(digits));
+            out.print(timeN4 ? String.format("\t%.2f", timeDivide(n4, m4))
+                    : "\t-");
+            out.print(String.format("\t%.2f", timeDivide(n5, m5)));
+            out.print(timeN4 ? String.format("\t%.2f", timeRoot(n4, 2))
+                    : "\t-");
+            out.print(String.format("\t%.2f", timeRoot(n5, 2)));
+            out.print(timeN4 ? String.format("\t%.2f", timeRoot(n4, cube))
+                    : "\t-");
+            out.println(String.format("\t%.2f", timeRoot(n5, cube)));
+        }
+
+        out.println();
+        out.println("b-bit base and exponent to the power mod a b-bit modulus"
+                + " (fastest of " + MOD_POWER_RUNS + " runs, ms)");
+        out.println("b\tmodPower (odd m)\tmodPower (even m)"
+                + "\tmultiply and divide");
+        for (int bits : MOD_POWER_BITS) {
+            NaturalNumber5 n = randomBits(random, bits);
+            NaturalNumber5 p = randomBits(random, bits);
+            //2 * (a (b - 1)-bit number) + 1 is an odd b-bit number
+            NaturalNumber5 odd = randomBits(random, bits - 1);
+            odd.multiply(new NaturalNumber5(2));
+            odd.increment();
+            NaturalNumber5 even = new NaturalNumber5(odd);
+            even.increment();
+            out.print(Integer.toString(bits));
+            out.print(String.format("\t%.2f", timeModPower(n, p, odd)));
+            out.print(String.format("\t%.2f", timeModPower(n, p, even)));
+            out.println(String.format("\t%.2f", timeMultiplyDivide(n, p, odd)));
+        }
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,250 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.util.Arrays;
+
+/**
+ * Reads {@code NaturalNumber}s written by {@code NaturalNumberChannelWriter}
+ * from a {@code ReadableByteChannel}, as {@code NaturalNumber5}s built
+ * straight from their bytes (see {@code NaturalNumberChannelWriter} for the
+ * encoding).
+ *
+ * <p>
+ * The channel must be in blocking mode, so that each read waits for at least
+ * one byte. The limbs of a long number are stored in an array that grows as
+ * they arrive, so a corrupt or truncated stream whose header claims a huge
+ * length fails at its end instead of first allocating that much memory.
+ * </p>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public final class NaturalNumberChannelReader implements Closeable {
+
+    /**
+     * Size of the buffer, in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Mask selecting the low 8 bits of an {@code int}, i.e., the unsigned
+     * value of a {@code byte}.
+     */
+    private static final int BYTE_MASK = 0xFF;
+
+    /**
+     * Largest number of limbs allocated for a number before any of them has
+     * been read.
+     */
+    private static final int INITIAL_LIMBS = BUFFER_SIZE / Integer.BYTES;
+
+    /**
+     * The channel read from.
+     */
+    private final ReadableByteChannel channel;
+
+    /**
+     * Bytes read from the channel and not yet decoded.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Constructor from the channel to read from.
+     *
+     * @param channel
+     *            the channel
+     * @requires [channel is in blocking mode]
+     */
+    public NaturalNumberChannelReader(ReadableByteChannel channel) {
+        assert channel != null : "Violation of: channel is not null";
+        //throw error for a non-blocking channel, which may read no bytes
+        if (channel instanceof SelectableChannel
+                && !((SelectableChannel) channel).isBlocking()) {
+            throw new IllegalArgumentException(
+                    "Channel must be in blocking mode");
+        }
+
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        this.buffer.limit(0);
+    }
+
+    /**
+     * Reads more bytes from the channel into the buffer, keeping those not
+     * yet decoded, unless the channel is at its end.
+     *
+     * @return whether any bytes were read
+     * @throws IOException
+     *             if the channel cannot be read, or reads no bytes without
+     *             being at its end
+     */
+    private boolean fill() throws IOException {
+        this.buffer.compact();
+        int count;
+        try {
+            count = this.channel.read(this.buffer);
+        } finally {
+            this.buffer.flip();
+        }
+        if (count == 0) {
+            //only a channel that is not blocking returns without any bytes
+            throw new IOException("Channel read no bytes; it must be in"
+                    + " blocking mode");
+        }
+        return count > 0;
+    }
+
+    /**
+     * Returns the next byte.
+     *
+     * @return the next byte
+     * @throws IOException
+     *             if the channel cannot be read or is at its end
+     */
+    private byte nextByte() throws IOException {
+        if (!this.buffer.hasRemaining() && !this.fill()) {
+            throw new EOFException("truncated NaturalNumber");
+        }
+        return this.buffer.get();
+    }
+
+    /**
+     * Reads a varint.
+     *
+     * @return the value, as an unsigned 64-bit integer
+     * @throws IOException
+     *             if the channel cannot be read or does not hold a varint
+     */
+    private long readVarint() throws IOException {
+        long v = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift >= NaturalNumberChannelWriter.MAX_VARINT_BYTES
+                    * NaturalNumberChannelWriter.VARINT_BITS) {
+                throw new StreamCorruptedException("varint too long");
+            }
+            b = this.nextByte();
+            v |= (long) (b & NaturalNumberChannelWriter.VARINT_MASK) << shift;
+            shift += NaturalNumberChannelWriter.VARINT_BITS;
+        } while ((b & NaturalNumberChannelWriter.VARINT_MORE) != 0);
+        return v;
+    }
+
+    /**
+     * Reports whether there is another number to read, i.e., whether the
+     * channel has any bytes left.
+     *
+     * @return whether there is another number
+     * @throws IOException
+     *             if the channel cannot be read
+     */
+    public boolean hasNext() throws IOException {
+        return this.buffer.hasRemaining() || this.fill();
+    }
+
+    /**
+     * Reads the next number.
+     *
+     * @return the number read
+     * @throws IOException
+     *             if the channel cannot be read or does not hold an encoded
+     *             number
+     * @ensures [read is the number whose encoding was at the front of the
+     *          channel]
+     */
+    public NaturalNumber5 read() throws IOException {
+        NaturalNumber5 n = new NaturalNumber5();
+        long header = this.readVarint();
+        if ((header & 1) == 0) {
+            n.setFromLong(header >>> 1);
+        } else {
+            long length = header >>> 1;
+            long limbCount = (length + Integer.BYTES - 1) / Integer.BYTES;
+            if (limbCount > Integer.MAX_VALUE) {
+                throw new StreamCorruptedException("NaturalNumber too long");
+            }
+            int[] limbs = new int[(int) Math.min(limbCount, INITIAL_LIMBS)];
+            int fullLimbs = (int) (length / Integer.BYTES);
+            for (int i = 0; i < fullLimbs; i++) {
+                limbs = ensureLength(limbs, i + 1, limbCount);
+                if (this.buffer.remaining() >= Integer.BYTES) {
+                    limbs[i] = this.buffer.getInt();
+                } else {
+                    limbs[i] = this.nextBytes(Integer.BYTES);
+                }
+            }
+            if (fullLimbs < limbCount) {
+                limbs = ensureLength(limbs, fullLimbs + 1, limbCount);
+                limbs[fullLimbs] = this
+                        .nextBytes((int) (length % Integer.BYTES));
+            }
+            n.setFromLimbs(limbs);
+        }
+        return n;
+    }
+
+    /**
+     * Returns {@code limbs}, or a copy of it at least {@code length} long but
+     * at most {@code limit} long if it is shorter than {@code length}.
+     *
+     * @param limbs
+     *            the array
+     * @param length
+     *            the length needed
+     * @param limit
+     *            the largest length ever needed
+     * @return limbs, or a longer copy of it
+     * @requires length <= limit <= Integer.MAX_VALUE
+     * @ensures <pre>
+     * length <= |ensureLength| <= max(|limbs|, limit)  and
+     * ensureLength[0, |limbs|) = limbs
+     * </pre>
+     */
+    private static int[] ensureLength(int[] limbs, int length, long limit) {
+        int[] result = limbs;
+        if (limbs.length < length) {
+            //double the length, so each limb is copied O(1) times on average
+            result = Arrays.copyOf(limbs, (int) Math.min(limit,
+                    Math.max(length, 2L * limbs.length)));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the next {@code count} bytes, least significant first, as an
+     * {@code int}.
+     *
+     * @param count
+     *            the number of bytes
+     * @return the bytes as an int
+     * @throws IOException
+     *             if the channel cannot be read or is at its end
+     * @requires 0 < count <= 4
+     */
+    private int nextBytes(int count) throws IOException {
+        int result = 0;
+        for (int i = 0; i < count; i++) {
+            result |= (this.nextByte() & BYTE_MASK) << (Byte.SIZE * i);
+        }
+        return result;
+    }
+
+    /**
+     * Closes the channel.
+     *
+     * @throws IOException
+     *             if the channel cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+}
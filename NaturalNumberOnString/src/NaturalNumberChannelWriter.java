@@ -0,0 +1,206 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+
+import components.naturalnumber.NaturalNumber;
+
+/**
+ * Writes {@code NaturalNumber}s to a {@code WritableByteChannel} in a compact
+ * binary encoding, to be read back by {@code NaturalNumberChannelReader}.
+ *
+ * <p>
+ * Each number starts with a header h, an unsigned 64-bit integer written as a
+ * varint (7 bits per byte, least significant group first, with the high bit
+ * of each byte set iff more bytes follow). If h is even, the number is h / 2,
+ * so numbers less than 2<sup>63</sup> take only the header (1 byte below 64, 2
+ * below 8192, and so on). If h is odd, (h - 1) / 2 is a length L, and the
+ * number is the L bytes that follow, least significant first, with the last
+ * one not 0. Large numbers thus take about 42% of the bytes of their decimal
+ * depiction, and a {@code NaturalNumber5} is written straight from its limbs
+ * through the buffer, without a {@code String} or a copy of the whole number.
+ * Numbers of other types are converted to {@code NaturalNumber5} first.
+ * </p>
+ *
+ * <p>
+ * The channel must be in blocking mode, so that writing the buffer never
+ * spins on a channel that accepts no bytes.
+ * </p>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public final class NaturalNumberChannelWriter implements Closeable {
+
+    /**
+     * Size of the buffer, in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Largest number of bytes of a varint.
+     */
+    static final int MAX_VARINT_BYTES = 10;
+
+    /**
+     * Number of bits of each byte of a varint that hold the value.
+     */
+    static final int VARINT_BITS = 7;
+
+    /**
+     * Mask of the bits of a varint byte that hold the value.
+     */
+    static final int VARINT_MASK = 0x7F;
+
+    /**
+     * Bit of a varint byte that is set iff more bytes follow.
+     */
+    static final int VARINT_MORE = 0x80;
+
+    /**
+     * The channel written to.
+     */
+    private final WritableByteChannel channel;
+
+    /**
+     * Bytes not yet written to the channel.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Constructor from the channel to write to.
+     *
+     * @param channel
+     *            the channel
+     * @requires [channel is in blocking mode]
+     */
+    public NaturalNumberChannelWriter(WritableByteChannel channel) {
+        assert channel != null : "Violation of: channel is not null";
+        //throw error for a non-blocking channel, which may write no bytes
+        if (channel instanceof SelectableChannel
+                && !((SelectableChannel) channel).isBlocking()) {
+            throw new IllegalArgumentException(
+                    "Channel must be in blocking mode");
+        }
+
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Makes room for at least {@code bytes} bytes in the buffer, writing its
+     * contents to the channel if needed.
+     *
+     * @param bytes
+     *            the number of bytes to make room for
+     * @throws IOException
+     *             if the channel cannot be written
+     * @requires bytes <= BUFFER_SIZE
+     */
+    private void ensureRoom(int bytes) throws IOException {
+        if (this.buffer.remaining() < bytes) {
+            this.drain();
+        }
+    }
+
+    /**
+     * Writes the contents of the buffer to the channel and empties it.
+     *
+     * @throws IOException
+     *             if the channel cannot be written
+     */
+    private void drain() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    /**
+     * Writes {@code v}, read as an unsigned 64-bit integer, as a varint.
+     *
+     * @param v
+     *            the value
+     * @throws IOException
+     *             if the channel cannot be written
+     */
+    private void writeVarint(long v) throws IOException {
+        this.ensureRoom(MAX_VARINT_BYTES);
+        long rest = v;
+        while ((rest & ~VARINT_MASK) != 0) {
+            this.buffer.put((byte) ((rest & VARINT_MASK) | VARINT_MORE));
+            rest >>>= VARINT_BITS;
+        }
+        this.buffer.put((byte) rest);
+    }
+
+    /**
+     * Writes {@code n}.
+     *
+     * @param n
+     *            the number to write
+     * @throws IOException
+     *             if the channel cannot be written
+     * @ensures [the encoding of n is written after what was written before]
+     */
+    public void write(NaturalNumber n) throws IOException {
+        assert n != null : "Violation of: n is not null";
+
+        NaturalNumber5 number;
+        if (n instanceof NaturalNumber5) {
+            number = (NaturalNumber5) n;
+        } else {
+            number = new NaturalNumber5(n);
+        }
+
+        if (number.canConvertToLong()) {
+            this.writeVarint(number.toLong() << 1);
+        } else {
+            int[] limbs = number.limbs();
+            int top = limbs[limbs.length - 1];
+            int topBytes = (Integer.SIZE - Integer.numberOfLeadingZeros(top)
+                    + Byte.SIZE - 1) / Byte.SIZE;
+            long length = (long) (limbs.length - 1) * Integer.BYTES
+                    + topBytes;
+            this.writeVarint((length << 1) | 1);
+            for (int i = 0; i < limbs.length - 1; i++) {
+                this.ensureRoom(Integer.BYTES);
+                this.buffer.putInt(limbs[i]);
+            }
+            this.ensureRoom(topBytes);
+            for (int i = 0; i < topBytes; i++) {
+                this.buffer.put((byte) (top >>> (Byte.SIZE * i)));
+            }
+        }
+    }
+
+    /**
+     * Writes everything written so far through to the channel.
+     *
+     * @throws IOException
+     *             if the channel cannot be written
+     */
+    public void flush() throws IOException {
+        this.drain();
+    }
+
+    /**
+     * Flushes this and closes the channel.
+     *
+     * @throws IOException
+     *             if the channel cannot be written or closed
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.drain();
+        } finally {
+            this.channel.close();
+        }
+    }
+
+}
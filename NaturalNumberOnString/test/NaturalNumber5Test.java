@@ -0,0 +1,593 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber1L;
+
+/**
+ * Customized JUnit test fixture for {@code NaturalNumber5}, plus test cases for
+ * the secondary methods it overrides, on numbers of several limbs.
+ */
+public class NaturalNumber5Test extends NaturalNumberTest {
+
+    @Override
+    protected final NaturalNumber constructorTest() {
+
+        return new NaturalNumber5();
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(int i) {
+
+        return new NaturalNumber5(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(String s) {
+
+        return new NaturalNumber5(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorTest(NaturalNumber n) {
+
+        return new NaturalNumber5(n);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef() {
+
+        return new NaturalNumber1L();
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(int i) {
+
+        return new NaturalNumber1L(i);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(String s) {
+
+        return new NaturalNumber1L(s);
+    }
+
+    @Override
+    protected final NaturalNumber constructorRef(NaturalNumber n) {
+
+        return new NaturalNumber1L(n);
+    }
+
+    /**
+     * A number of several limbs.
+     */
+    private static final String LARGE1 = ""
+            + "34028236692093846346337460743176821145798765432109876543210";
+
+    /**
+     * Another number of several limbs, smaller than {@code LARGE1}.
+     */
+    private static final String LARGE2 = "18446744073709551616123456789";
+
+    /**
+     * Test for add method with carries across limbs.
+     */
+    @Test
+    public final void testAddLarge() {
+        NaturalNumber n = this.constructorTest(LARGE1);
+        NaturalNumber nExpected = this.constructorRef(LARGE1);
+        NaturalNumber m = this.constructorTest(LARGE2);
+        NaturalNumber mExpected = this.constructorRef(LARGE2);
+        n.add(m);
+        nExpected.add(mExpected);
+        assertEquals(nExpected, n);
+        assertEquals(mExpected, m);
+    }
+
+    /**
+     * Test for subtract method with borrows across limbs.
+     */
+    @Test
+    public final void testSubtractLarge() {
+        NaturalNumber n = this.constructorTest(LARGE1);
+        NaturalNumber nExpected = this.constructorRef(LARGE1);
+        NaturalNumber m = this.constructorTest(LARGE2);
+        NaturalNumber mExpected = this.constructorRef(LARGE2);
+        n.subtract(m);
+        nExpected.subtract(mExpected);
+        assertEquals(nExpected, n);
+        assertEquals(mExpected, m);
+    }
+
+    /**
+     * Test for subtract method giving zero.
+     */
+    @Test
+    public final void testSubtractToZero() {
+        NaturalNumber n = this.constructorTest(LARGE1);
+        NaturalNumber m = this.constructorTest(LARGE1);
+        n.subtract(m);
+        assertEquals(this.constructorRef(), n);
+        assertEquals(true, n.isZero());
+    }
+
+    /**
+     * Test for multiply method.
+     */
+    @Test
+    public final void testMultiplyLarge() {
+        NaturalNumber n = this.constructorTest(LARGE1);
+        NaturalNumber nExpected = this.constructorRef(LARGE1);
+        NaturalNumber m = this.constructorTest(LARGE2);
+        NaturalNumber mExpected = this.constructorRef(LARGE2);
+        n.multiply(m);
+        nExpected.multiply(mExpected);
+        assertEquals(nExpected, n);
+        assertEquals(mExpected, m);
+    }
+
+    /**
+     * Returns a depiction of {@code copies} copies of {@code LARGE1} one after
+     * the other, i.e., a number of about 59 * copies digits.
+     *
+     * @param copies
+     *            the number of copies
+     * @return the depiction
+     */
+    private static String repeatLarge1(int copies) {
+        StringBuilder depiction = new StringBuilder();
+        for (int i = 0; i < copies; i++) {
+            depiction.append(LARGE1);
+        }
+        return depiction.toString();
+    }
+
+    /**
+     * Test for multiply method with operands large enough to use Karatsuba
+     * multiplication.
+     */
+    @Test
+    public final void testMultiplyKaratsuba() {
+        final int copies = 12;
+        String s = repeatLarge1(copies);
+        NaturalNumber n = this.constructorTest(s);
+        NaturalNumber nExpected = this.constructorRef(s);
+        NaturalNumber m = this.constructorTest(s + LARGE2);
+        NaturalNumber mExpected = this.constructorRef(s + LARGE2);
+        n.multiply(m);
+        nExpected.multiply(mExpected);
+        assertEquals(nExpected, n);
+        assertEquals(mExpected, m);
+    }
+
+    /**
+     * Test for multiply method with operands large enough to use Toom-Cook
+     * 3-way multiplication, one of them about twice as long as the other.
+     */
+    @Test
+    public final void testMultiplyToomCook3() {
+        final int copies = 40;
+        String s = repeatLarge1(copies);
+        NaturalNumber n = this.constructorTest(s + s + LARGE2);
+        NaturalNumber nExpected = this.constructorRef(s + s + LARGE2);
+        NaturalNumber m = this.constructorTest(s);
+        NaturalNumber mExpected = this.constructorRef(s);
+        n.multiply(m);
+        nExpected.multiply(mExpected);
+        assertEquals(nExpected, n);
+        assertEquals(mExpected, m);
+    }
+
+    /**
+     * Test for multiply method with parallel multiplication on.
+     */
+    @Test
+    public final void testMultiplyParallel() {
+        final int copies = 400;
+        String s = repeatLarge1(copies);
+        NaturalNumber n = this.constructorTest(s);
+        NaturalNumber m = this.constructorTest(s + LARGE2);
+        NaturalNumber nSequential = this.constructorTest(s);
+        nSequential.multiply(m);
+        NaturalNumber5.setParallelMultiplication(true);
+        try {
+            n.multiply(m);
+        } finally {
+            NaturalNumber5.setParallelMultiplication(false);
+        }
+        assertEquals(nSequential.toString(), n.toString());
+    }
+
+    /**
+     * Test for constructor from {@code String} and toString method on a number
+     * large enough to be parsed and depicted by splitting, with runs of zeros
+     * where the depiction is split.
+     */
+    @Test
+    public final void testConstructorAndToStringHuge() {
+        final int copies = 60;
+        String zeros = "000000000000000000000000000000000000000000000";
+        String s = repeatLarge1(copies) + zeros + repeatLarge1(copies) + zeros
+                + zeros + LARGE2;
+        NaturalNumber n = this.constructorTest(s);
+        NaturalNumber nExpected = this.constructorRef(s);
+        assertEquals(nExpected, n);
+        assertEquals(s, n.toString());
+    }
+
+    /**
+     * Test for setFromString and toString methods on a power of ten large
+     * enough to be parsed and depicted by splitting.
+     */
+    @Test
+    public final void testSetFromStringAndToStringPowerOfTen() {
+        final int digits = 5000;
+        StringBuilder depiction = new StringBuilder("1");
+        for (int i = 0; i < digits; i++) {
+            depiction.append('0');
+        }
+        String s = depiction.toString();
+        NaturalNumber n = this.constructorTest();
+        n.setFromString(s);
+        assertEquals(s, n.toString());
+        n.decrement();
+        assertEquals(s.substring(1).replace('0', '9'), n.toString());
+    }
+
+    /**
+     * Test for divide method with a divisor of several limbs.
+     */
+    @Test
+    public final void testDivideLarge() {
+        NaturalNumber n = this.constructorTest(LARGE1);
+        NaturalNumber nExpected = this.constructorRef(LARGE1);
+        NaturalNumber m = this.constructorTest(LARGE2);
+        NaturalNumber mExpected = this.constructorRef(LARGE2);
+        NaturalNumber r = n.divide(m);
+        NaturalNumber rExpected = nExpected.divide(mExpected);
+        assertEquals(nExpected, n);
+        assertEquals(rExpected, r);
+        assertEquals(mExpected, m);
+    }
+
+    /**
+     * Test for divide method with operands large enough to use recursive
+     * division.
+     */
+    @Test
+    public final void testDivideRecursive() {
+        final int copies = 40;
+        final int divisorCopies = 12;
+        String s = repeatLarge1(copies);
+        String d = repeatLarge1(divisorCopies) + LARGE2;
+        NaturalNumber n = this.constructorTest(s);
+        NaturalNumber nExpected = this.constructorRef(s);
+        NaturalNumber m = this.constructorTest(d);
+        NaturalNumber mExpected = this.constructorRef(d);
+        NaturalNumber r = n.divide(m);
+        NaturalNumber rExpected = nExpected.divide(mExpected);
+        assertEquals(nExpected, n);
+        assertEquals(rExpected, r);
+        assertEquals(mExpected, m);
+    }
+
+    /**
+     * Test for divide method with a one-limb divisor.
+     */
+    @Test
+    public final void testDivideSmall() {
+        final int divisor = 7;
+        NaturalNumber n = this.constructorTest(LARGE1);
+        NaturalNumber nExpected = this.constructorRef(LARGE1);
+        NaturalNumber r = n.divide(this.constructorTest(divisor));
+        NaturalNumber rExpected = nExpected
+                .divide(this.constructorRef(divisor));
+        assertEquals(nExpected, n);
+        assertEquals(rExpected, r);
+    }
+
+    /**
+     * Test for power method.
+     */
+    @Test
+    public final void testPower() {
+        final int p = 7;
+        NaturalNumber n = this.constructorTest(LARGE2);
+        NaturalNumber nExpected = this.constructorRef(LARGE2);
+        n.power(p);
+        nExpected.power(p);
+        assertEquals(nExpected, n);
+    }
+
+    /**
+     * Test for root method with r = 2.
+     */
+    @Test
+    public final void testRootSquare() {
+        NaturalNumber n = this.constructorTest(LARGE1);
+        NaturalNumber nExpected = this.constructorRef(LARGE1);
+        n.root(2);
+        nExpected.root(2);
+        assertEquals(nExpected, n);
+    }
+
+    /**
+     * Test for root method on a perfect power and on the number before it.
+     */
+    @Test
+    public final void testRootPerfectPower() {
+        final int r = 5;
+        NaturalNumber n = this.constructorTest(LARGE2);
+        n.power(r);
+        NaturalNumber m = this.constructorTest(n);
+        m.decrement();
+        n.root(r);
+        m.root(r);
+        NaturalNumber nExpected = this.constructorRef(LARGE2);
+        assertEquals(nExpected, n);
+        nExpected.decrement();
+        assertEquals(nExpected, m);
+    }
+
+    /**
+     * Test for root method with r larger than the number of bits of this.
+     */
+    @Test
+    public final void testRootLargeR() {
+        final int r = 200;
+        NaturalNumber n = this.constructorTest(LARGE2);
+        n.root(r);
+        assertEquals(this.constructorRef(1), n);
+    }
+
+    /**
+     * The largest {@code long}, 2^63 - 1.
+     */
+    private static final String LONG_MAX = "9223372036854775807";
+
+    /**
+     * 2^63, the smallest number not held in a {@code long}.
+     */
+    private static final String TWO_TO_63 = "9223372036854775808";
+
+    /**
+     * Test for increment and decrement methods across 2^63.
+     */
+    @Test
+    public final void testIncrementDecrementAcrossLong() {
+        NaturalNumber n = this.constructorTest(LONG_MAX);
+        n.increment();
+        assertEquals(this.constructorRef(TWO_TO_63), n);
+        n.decrement();
+        assertEquals(this.constructorRef(LONG_MAX), n);
+        assertEquals(LONG_MAX, n.toString());
+    }
+
+    /**
+     * Test for add and subtract methods across 2^63.
+     */
+    @Test
+    public final void testAddSubtractAcrossLong() {
+        NaturalNumber n = this.constructorTest(LONG_MAX);
+        NaturalNumber nExpected = this.constructorRef(LONG_MAX);
+        NaturalNumber m = this.constructorTest(LONG_MAX);
+        n.add(m);
+        nExpected.add(this.constructorRef(LONG_MAX));
+        assertEquals(nExpected, n);
+        n.subtract(m);
+        assertEquals(this.constructorRef(LONG_MAX), n);
+        assertEquals(true, n.compareTo(m) == 0);
+    }
+
+    /**
+     * Test for multiply and divide methods across 2^63.
+     */
+    @Test
+    public final void testMultiplyDivideAcrossLong() {
+        final String factor = "3037000500";
+        NaturalNumber n = this.constructorTest(factor);
+        NaturalNumber m = this.constructorTest(factor);
+        n.multiply(m);
+        NaturalNumber nExpected = this.constructorRef(factor);
+        nExpected.multiply(this.constructorRef(factor));
+        assertEquals(nExpected, n);
+        NaturalNumber r = n.divide(m);
+        assertEquals(this.constructorRef(factor), n);
+        assertEquals(this.constructorRef(), r);
+    }
+
+    /**
+     * Test for multiplyBy10 and divideBy10 methods across 2^63.
+     */
+    @Test
+    public final void testMultiplyBy10DivideBy10AcrossLong() {
+        final int lastDigit = 7;
+        NaturalNumber n = this.constructorTest(LONG_MAX);
+        n.multiplyBy10(lastDigit);
+        assertEquals(this.constructorRef(LONG_MAX + "7"), n);
+        assertEquals(lastDigit, n.divideBy10());
+        assertEquals(this.constructorRef(LONG_MAX), n);
+    }
+
+    /**
+     * Test for the shared constants.
+     */
+    @Test
+    public final void testConstants() {
+        final int maxPower = 18;
+        assertEquals("0", NaturalNumber5.ZERO.toString());
+        assertEquals("1", NaturalNumber5.ONE.toString());
+        assertEquals("10", NaturalNumber5.TEN.toString());
+        assertEquals("1000000000000000000",
+                NaturalNumber5.powerOfTen(maxPower).toString());
+        NaturalNumber n = this.constructorTest(LARGE2);
+        NaturalNumber nExpected = this.constructorRef(LARGE2);
+        n.multiply(NaturalNumber5.TEN);
+        n.add(NaturalNumber5.ONE);
+        nExpected.multiplyBy10(1);
+        assertEquals(nExpected, n);
+        assertEquals("10", NaturalNumber5.TEN.toString());
+        assertEquals("1", NaturalNumber5.ONE.toString());
+    }
+
+    /**
+     * Test that a shared constant cannot be incremented.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public final void testConstantIsReadOnly() {
+        NaturalNumber5.ONE.increment();
+    }
+
+    /**
+     * Test that a shared constant cannot be cleared.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public final void testConstantClearIsReadOnly() {
+        NaturalNumber5.ZERO.clear();
+    }
+
+    /**
+     * Test that a shared constant cannot be the source of transferFrom.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public final void testConstantTransferFromIsReadOnly() {
+        NaturalNumber n = this.constructorTest();
+        n.transferFrom(NaturalNumber5.TEN);
+    }
+
+    /**
+     * Test that a shared power of ten cannot be changed.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public final void testPowerOfTenIsReadOnly() {
+        final int k = 5;
+        NaturalNumber5.powerOfTen(k).multiplyBy10(0);
+    }
+
+    /**
+     * Test that a rejected change leaves the shared constant unchanged.
+     */
+    @Test
+    public final void testConstantUnchangedAfterRejectedChange() {
+        boolean rejected = false;
+        try {
+            NaturalNumber5.ONE.add(NaturalNumber5.TEN);
+        } catch (UnsupportedOperationException e) {
+            rejected = true;
+        }
+        assertEquals(true, rejected);
+        assertEquals("1", NaturalNumber5.ONE.toString());
+        assertEquals("10", NaturalNumber5.TEN.toString());
+    }
+
+    /**
+     * The Mersenne prime 2^127 - 1.
+     */
+    private static final String MERSENNE_127 = ""
+            + "170141183460469231731687303715884105727";
+
+    /**
+     * Test for modMultiply method.
+     */
+    @Test
+    public final void testModMultiply() {
+        NaturalNumber5 n = new NaturalNumber5(LARGE1);
+        NaturalNumber nExpected = this.constructorRef(LARGE1);
+        n.modMultiply(this.constructorTest(LARGE1),
+                this.constructorTest(LARGE2));
+        nExpected.multiply(this.constructorRef(LARGE1));
+        NaturalNumber rExpected = nExpected
+                .divide(this.constructorRef(LARGE2));
+        assertEquals(rExpected, n);
+    }
+
+    /**
+     * Test for modMultiply method on small numbers.
+     */
+    @Test
+    public final void testModMultiplySmall() {
+        final int modulus = 1000;
+        NaturalNumber5 n = new NaturalNumber5(LONG_MAX);
+        n.modMultiply(this.constructorTest(LONG_MAX),
+                this.constructorTest(modulus));
+        assertEquals(this.constructorRef("249"), n);
+    }
+
+    /**
+     * Test for modPower method with an odd modulus.
+     */
+    @Test
+    public final void testModPowerOddModulus() {
+        final int p = 7;
+        NaturalNumber5 n = new NaturalNumber5(LARGE1);
+        NaturalNumber nExpected = this.constructorRef(LARGE1);
+        n.modPower(this.constructorTest(p), this.constructorTest(LARGE2));
+        nExpected.power(p);
+        NaturalNumber rExpected = nExpected
+                .divide(this.constructorRef(LARGE2));
+        assertEquals(rExpected, n);
+    }
+
+    /**
+     * Test for modPower method with an even modulus.
+     */
+    @Test
+    public final void testModPowerEvenModulus() {
+        final int p = 5;
+        NaturalNumber5 n = new NaturalNumber5(LARGE2);
+        NaturalNumber nExpected = this.constructorRef(LARGE2);
+        n.modPower(this.constructorTest(p), this.constructorTest(LARGE1));
+        nExpected.power(p);
+        NaturalNumber rExpected = nExpected
+                .divide(this.constructorRef(LARGE1));
+        assertEquals(rExpected, n);
+    }
+
+    /**
+     * Test for modPower method with large exponents, by Fermat's little
+     * theorem: a^(q - 1) mod q = 1 for a prime q that does not divide a, and
+     * a^q mod q = a mod q.
+     */
+    @Test
+    public final void testModPowerFermat() {
+        NaturalNumber5 n = new NaturalNumber5(LARGE2);
+        NaturalNumber q = this.constructorTest(MERSENNE_127);
+        NaturalNumber p = this.constructorTest(MERSENNE_127);
+        p.decrement();
+        n.modPower(p, q);
+        assertEquals(this.constructorRef(1), n);
+        NaturalNumber5 m = new NaturalNumber5(LARGE1);
+        m.modPower(q, q);
+        NaturalNumber rExpected = this.constructorRef(LARGE1)
+                .divide(this.constructorRef(MERSENNE_127));
+        assertEquals(rExpected, m);
+    }
+
+    /**
+     * Test for modPower method with exponent 0 and with modulus 1.
+     */
+    @Test
+    public final void testModPowerZeroExponentAndModulusOne() {
+        NaturalNumber5 n = new NaturalNumber5(LARGE1);
+        n.modPower(this.constructorTest(), this.constructorTest(LARGE2));
+        assertEquals(this.constructorRef(1), n);
+        NaturalNumber5 m = new NaturalNumber5(LARGE1);
+        m.modPower(this.constructorTest(LARGE2), this.constructorTest(1));
+        assertEquals(this.constructorRef(), m);
+    }
+
+    /**
+     * Test for compareTo and toString methods.
+     */
+    @Test
+    public final void testCompareToAndToString() {
+        NaturalNumber n = this.constructorTest(LARGE1);
+        NaturalNumber m = this.constructorTest(LARGE2);
+        assertEquals(true, n.compareTo(m) > 0);
+        assertEquals(true, m.compareTo(n) < 0);
+        assertEquals(0, n.compareTo(this.constructorRef(LARGE1)));
+        assertEquals(LARGE1, n.toString());
+    }
+
+}
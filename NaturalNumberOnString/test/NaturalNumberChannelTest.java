@@ -0,0 +1,297 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import components.naturalnumber.NaturalNumber;
+import components.naturalnumber.NaturalNumber1L;
+
+/**
+ * JUnit test fixture for {@code NaturalNumberChannelWriter} and
+ * {@code NaturalNumberChannelReader}.
+ */
+public class NaturalNumberChannelTest {
+
+    /**
+     * A number of several limbs.
+     */
+    private static final String LARGE = "123456789012345678901234567890"
+            + "98765432109876543210";
+
+    /**
+     * Writes {@code numbers} with a {@code NaturalNumberChannelWriter}.
+     *
+     * @param numbers
+     *            the numbers to write
+     * @return the bytes written
+     * @throws IOException
+     *             if writing fails
+     */
+    private static byte[] encode(NaturalNumber... numbers) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (NaturalNumberChannelWriter writer = new NaturalNumberChannelWriter(
+                Channels.newChannel(out))) {
+            for (NaturalNumber n : numbers) {
+                writer.write(n);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns a {@code NaturalNumberChannelReader} of {@code bytes}.
+     *
+     * @param bytes
+     *            the bytes to read
+     * @return the reader
+     */
+    private static NaturalNumberChannelReader decoder(byte[] bytes) {
+        return new NaturalNumberChannelReader(
+                Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+
+    /**
+     * Returns {@code v}, read as an unsigned 64-bit integer, as a varint.
+     *
+     * @param v
+     *            the value
+     * @return the bytes of the varint
+     */
+    private static byte[] varint(long v) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rest = v;
+        while ((rest & ~NaturalNumberChannelWriter.VARINT_MASK) != 0) {
+            out.write((int) (rest & NaturalNumberChannelWriter.VARINT_MASK)
+                    | NaturalNumberChannelWriter.VARINT_MORE);
+            rest >>>= NaturalNumberChannelWriter.VARINT_BITS;
+        }
+        out.write((int) rest);
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes and reads back {@code s} and checks the result.
+     *
+     * @param s
+     *            the depiction of the number
+     * @throws IOException
+     *             if writing or reading fails
+     */
+    private static void checkRoundTrip(String s) throws IOException {
+        NaturalNumber n = new NaturalNumber5(s);
+        NaturalNumberChannelReader reader = decoder(encode(n));
+        NaturalNumber m = reader.read();
+        assertEquals(s, m.toString());
+        assertEquals(s, n.toString());
+        assertEquals(false, reader.hasNext());
+    }
+
+    /**
+     * Test for write and read methods with 0.
+     */
+    @Test
+    public final void testRoundTripZero() throws IOException {
+        checkRoundTrip("0");
+    }
+
+    /**
+     * Test for write and read methods with numbers that fit in the header.
+     */
+    @Test
+    public final void testRoundTripSmall() throws IOException {
+        checkRoundTrip("1");
+        checkRoundTrip("63");
+        checkRoundTrip("64");
+        checkRoundTrip("127");
+        checkRoundTrip("128");
+        checkRoundTrip("1000000");
+    }
+
+    /**
+     * Test for write and read methods with numbers next to Long.MAX_VALUE
+     * and 2^64.
+     */
+    @Test
+    public final void testRoundTripAcrossLong() throws IOException {
+        checkRoundTrip("9223372036854775807");
+        checkRoundTrip("9223372036854775808");
+        checkRoundTrip("18446744073709551615");
+        checkRoundTrip("18446744073709551616");
+    }
+
+    /**
+     * Test for write and read methods with a number of several limbs.
+     */
+    @Test
+    public final void testRoundTripLarge() throws IOException {
+        checkRoundTrip(LARGE);
+    }
+
+    /**
+     * Test for write and read methods with a number longer than the buffer.
+     */
+    @Test
+    public final void testRoundTripHuge() throws IOException {
+        StringBuilder s = new StringBuilder("9");
+        for (int i = 0; i < 20000; i++) {
+            s.append((char) ('0' + i * 7 % 10));
+        }
+        checkRoundTrip(s.toString());
+    }
+
+    /**
+     * Test for write and read methods with a {@code NaturalNumber1L}.
+     */
+    @Test
+    public final void testRoundTripOtherType() throws IOException {
+        NaturalNumber n = new NaturalNumber1L(LARGE);
+        NaturalNumberChannelReader reader = decoder(encode(n));
+        assertEquals(LARGE, reader.read().toString());
+        assertEquals(LARGE, n.toString());
+    }
+
+    /**
+     * Test for write, hasNext, and read methods with several numbers.
+     */
+    @Test
+    public final void testRoundTripSequence() throws IOException {
+        String[] values = { "0", LARGE, "5", "9223372036854775808", "0" };
+        NaturalNumber[] numbers = new NaturalNumber[values.length];
+        for (int i = 0; i < values.length; i++) {
+            numbers[i] = new NaturalNumber5(values[i]);
+        }
+        NaturalNumberChannelReader reader = decoder(encode(numbers));
+        for (String s : values) {
+            assertEquals(true, reader.hasNext());
+            assertEquals(s, reader.read().toString());
+        }
+        assertEquals(false, reader.hasNext());
+    }
+
+    /**
+     * Test for write method encoding of numbers that fit in the header.
+     */
+    @Test
+    public final void testEncodingSmall() throws IOException {
+        assertEquals("[0]",
+                Arrays.toString(encode(new NaturalNumber5(0))));
+        assertEquals("[126]",
+                Arrays.toString(encode(new NaturalNumber5(63))));
+        assertEquals("[-128, 1]",
+                Arrays.toString(encode(new NaturalNumber5(64))));
+    }
+
+    /**
+     * Test for write method encoding of a number of several limbs.
+     */
+    @Test
+    public final void testEncodingLength() throws IOException {
+        //2^64 takes a header of 1 byte, then 9 bytes of magnitude
+        byte[] bytes = encode(new NaturalNumber5("18446744073709551616"));
+        assertEquals("[19, 0, 0, 0, 0, 0, 0, 0, 0, 1]",
+                Arrays.toString(bytes));
+    }
+
+    /**
+     * Test for read method with a truncated number.
+     */
+    @Test(expected = EOFException.class)
+    public final void testReadTruncated() throws IOException {
+        byte[] bytes = encode(new NaturalNumber5(LARGE));
+        decoder(Arrays.copyOf(bytes, bytes.length - 1)).read();
+    }
+
+    /**
+     * Test for read method with a header that claims a number far longer than
+     * the stream, which must fail at the end of the stream without first
+     * allocating memory for the claimed length.
+     */
+    @Test(expected = EOFException.class)
+    public final void testReadTruncatedHugeLength() throws IOException {
+        //header for a length of about 8 GiB, followed by only 4 bytes
+        final long length = (long) Integer.BYTES * Integer.MAX_VALUE;
+        byte[] bytes = varint(2 * length + 1);
+        bytes = Arrays.copyOf(bytes, bytes.length + Integer.BYTES);
+        decoder(bytes).read();
+    }
+
+    /**
+     * Test for read method with a number longer than the limbs first
+     * allocated for it.
+     */
+    @Test
+    public final void testRoundTripLongerThanInitialLimbs() throws IOException {
+        final int digits = 200000;
+        StringBuilder s = new StringBuilder("1");
+        for (int i = 1; i < digits; i++) {
+            s.append((char) ('0' + i * 3 % 10));
+        }
+        checkRoundTrip(s.toString());
+    }
+
+    /**
+     * Test for constructor of {@code NaturalNumberChannelReader} with a
+     * non-blocking channel.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public final void testReaderNonBlockingChannel() throws IOException {
+        Pipe pipe = Pipe.open();
+        try {
+            pipe.source().configureBlocking(false);
+            new NaturalNumberChannelReader(pipe.source());
+        } finally {
+            pipe.source().close();
+            pipe.sink().close();
+        }
+    }
+
+    /**
+     * Test for constructor of {@code NaturalNumberChannelWriter} with a
+     * non-blocking channel.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public final void testWriterNonBlockingChannel() throws IOException {
+        Pipe pipe = Pipe.open();
+        try {
+            pipe.sink().configureBlocking(false);
+            new NaturalNumberChannelWriter(pipe.sink());
+        } finally {
+            pipe.source().close();
+            pipe.sink().close();
+        }
+    }
+
+    /**
+     * Test for hasNext method with a channel that reads no bytes without
+     * being at its end, which must fail instead of waiting for bytes.
+     */
+    @Test(expected = IOException.class)
+    public final void testHasNextChannelReadsNothing() throws IOException {
+        ReadableByteChannel empty = new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) {
+                return 0;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        new NaturalNumberChannelReader(empty).hasNext();
+    }
+
+}
@@ -0,0 +1,453 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} that keeps only its first {@code bound} entries (in
+ * the machine order), represented as an array of at most {@code bound} entries
+ * organized as a heap, with implementations of primary methods.
+ *
+ * <p>
+ * Unlike an ordinary {@code SortingMachine}, once {@code bound} entries have
+ * been added, each further {@code add} keeps the {@code bound} smallest of the
+ * entries (according to the machine order) and drops the others; ties are
+ * broken arbitrarily. This is meant for clients that only ever remove the
+ * first K entries: memory is O(K) and {@code add} is O(log K) however many
+ * entries are added. While in insertion mode the kept entries form a heap on
+ * the reverse order, so the largest kept entry is at the root and is the one
+ * evicted; {@code changeToExtractionMode} reorganizes them into a heap on the
+ * machine order.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * SUBTREE_IS_HEAP (
+ *   a: string of T,
+ *   start: integer,
+ *   stop: integer,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  [the subtree of a (when a is interpreted as a complete binary tree) rooted
+ *   at index start and only through entry stop of a satisfies the heap
+ *   ordering property according to the relation r]
+ *
+ * REVERSE (
+ *   r: binary relation on T
+ *  ) : binary relation on T is
+ *  [the relation r' such that r'(x, y) = r(y, x)]
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
+ * $this.bound > 0  and
+ * |$this.heap| <= $this.bound  and
+ * 0 <= $this.heapSize <= |$this.heap|  and
+ * for all i: integer
+ *     where (0 <= i  and  i < $this.heapSize)
+ *   ([entry at position i in $this.heap is not null])  and
+ * if $this.insertionMode then
+ *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
+ *     REVERSE([relation computed by $this.machineOrder.compare method]))
+ * else
+ *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
+ *     [relation computed by $this.machineOrder.compare method])
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.heap[0, $this.heapSize)))
+ * </pre>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public class BoundedSortingMachine<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial capacity of the heap array, when the bound allows it.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Reverse of {@code machineOrder}, used for the heap in insertion mode.
+     */
+    private Comparator<T> reverseOrder;
+
+    /**
+     * Maximum number of entries kept.
+     */
+    private int bound;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Heap.
+     */
+    private T[] heap;
+
+    /**
+     * Heap size.
+     */
+    private int heapSize;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.bound > 0  and
+     * |$this.heap| <= $this.bound  and
+     * 0 <= $this.heapSize <= |$this.heap|  and
+     * for all i: integer
+     *     where (0 <= i  and  i < $this.heapSize)
+     *   ([entry at position i in $this.heap is not null])  and
+     * if $this.insertionMode then
+     *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
+     *     REVERSE([relation computed by $this.machineOrder.compare method]))
+     * else
+     *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
+     *     [relation computed by $this.machineOrder.compare method])
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.bound > 0 : "Violation of: $this.bound > 0";
+        assert this.heap.length <= this.bound : ""
+                + "Violation of: |$this.heap| <= $this.bound";
+        assert 0 <= this.heapSize : "Violation of: 0 <= $this.heapSize";
+        assert this.heapSize <= this.heap.length : ""
+                + "Violation of: $this.heapSize <= |$this.heap|";
+        if (ConventionChecking.shouldCheck()) {
+            //check the whole heap, or just a random subtree when sampling
+            int top = 0;
+            if (ConventionChecking.isSampling() && this.heapSize > 0) {
+                top = ConventionChecking.sampleIndex(this.heapSize);
+            } else {
+                for (int i = 0; i < this.heapSize; i++) {
+                    assert this.heap[i] != null : ""
+                            + "Violation of: all entries in"
+                            + " $this.heap[0, $this.heapSize) are not null";
+                }
+            }
+            if (this.insertionMode) {
+                assert Heaps.isHeap(this.heap, top, this.heapSize - 1,
+                        Heaps.BINARY, this.reverseOrder) : ""
+                        + "Violation of: if $this.insertionMode then"
+                        + " SUBTREE_IS_HEAP($this.heap, 0,"
+                        + " $this.heapSize - 1, REVERSE([relation computed"
+                        + " by $this.machineOrder.compare method]))";
+            } else {
+                assert Heaps.isHeap(this.heap, top, this.heapSize - 1,
+                        Heaps.BINARY, this.machineOrder) : ""
+                        + "Violation of: if not $this.insertionMode then"
+                        + " SUBTREE_IS_HEAP($this.heap, 0,"
+                        + " $this.heapSize - 1, [relation computed by"
+                        + " $this.machineOrder.compare method])";
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param bound
+     *            maximum number of entries kept
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method]  and
+     * bound > 0
+     * </pre>
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.bound = bound  and
+     * $this.heapSize = 0
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order, int bound) {
+        this.machineOrder = order;
+
+        this.reverseOrder = Collections.reverseOrder(order);
+
+        this.bound = bound;
+
+        this.insertionMode = true;
+
+        /*
+         * With "new T[...]" in place of "new Object[...]" it does not compile;
+         * as shown, it results in a warning about an unchecked cast, though it
+         * cannot fail.
+         */
+        this.heap = (T[]) new Object[Math.min(bound, INITIAL_CAPACITY)];
+
+        this.heapSize = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order and bound.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param bound
+     *            maximum number of entries kept
+     * @requires bound > 0
+     * @ensures this = (true, order, {})
+     */
+    public BoundedSortingMachine(Comparator<T> order, int bound) {
+        //throw error for invalid bound if bound <= 0
+        if (bound <= 0) {
+            throw new IllegalArgumentException(
+                    "Bound must be greater than 0");
+        }
+
+        this.createNewRep(order, bound);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(Comparator.class, int.class)
+                    .newInstance(this.machineOrder, this.bound);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder, this.bound);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof BoundedSortingMachine<?> : ""
+                + "Violation of: source is of dynamic type"
+                + " BoundedSortingMachine<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * BoundedSortingMachine<?>, and the ? must be T or the call would not
+         * have compiled.
+         */
+        BoundedSortingMachine<T> localSource = (BoundedSortingMachine<T>) source;
+        this.machineOrder = localSource.machineOrder;
+        this.reverseOrder = localSource.reverseOrder;
+        this.bound = localSource.bound;
+        this.insertionMode = localSource.insertionMode;
+        this.heap = localSource.heap;
+        this.heapSize = localSource.heapSize;
+        localSource.createNewRep(localSource.machineOrder, localSource.bound);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    /**
+     * Adds {@code x} to the entries kept by {@code this}; if that makes more
+     * than {@code bound()} entries, drops a largest one.
+     *
+     * @param x
+     *            the element to be added
+     * @aliases reference x
+     * @updates this.contents
+     * @requires this.insertion_mode
+     * @ensures <pre>
+     * if |#this.contents| < this.bound then
+     *   this.contents = #this.contents union {x}
+     * else
+     *   [this.contents is #this.contents union {x} with one entry removed
+     *    that is not smaller than any other entry, according to this.ordering]
+     * </pre>
+     */
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        if (this.heapSize < this.bound) {
+            if (this.heapSize == this.heap.length) {
+                //grow the array, but never beyond the bound
+                this.heap = Arrays.copyOf(this.heap,
+                        (int) Math.min(2L * this.heap.length, this.bound));
+            }
+            //add x as the last leaf and restore the heap
+            this.heap[this.heapSize] = x;
+            Heaps.siftUp(this.heap, this.heapSize, Heaps.BINARY,
+                    this.reverseOrder);
+            this.heapSize++;
+        } else if (this.machineOrder.compare(x, this.heap[0]) < 0) {
+            //x beats the largest kept entry, so evict it
+            this.heap[0] = x;
+            Heaps.siftDown(this.heap, 0, this.heapSize - 1, Heaps.BINARY,
+                    this.reverseOrder);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        //switch mode
+        this.insertionMode = false;
+
+        //rebuild heap on the machine order
+        for (int i = this.heapSize / 2 - 1; i >= 0; i--) {
+            Heaps.siftDown(this.heap, i, this.heapSize - 1, Heaps.BINARY,
+                    this.machineOrder);
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        //get first element from heap
+        T first = this.heap[0];
+
+        //replace first with last element, and drop the reference to it
+        this.heapSize--;
+        this.heap[0] = this.heap[this.heapSize];
+        this.heap[this.heapSize] = null;
+
+        //sift down to rebuild heap
+        Heaps.siftDown(this.heap, 0, this.heapSize - 1, Heaps.BINARY,
+                this.machineOrder);
+
+        assert this.conventionHolds();
+
+        return first;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.heapSize;
+    }
+
+    /**
+     * Reports the maximum number of entries kept by {@code this}.
+     *
+     * @return the bound given at construction
+     * @ensures bound > 0
+     */
+    public final int bound() {
+        assert this.conventionHolds();
+        return this.bound;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new BoundedSortingMachineIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code BoundedSortingMachine}.
+     */
+    private final class BoundedSortingMachineIterator implements Iterator<T> {
+
+        /**
+         * Representation iterator count.
+         */
+        private int arrayCurrentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private BoundedSortingMachineIterator() {
+            this.arrayCurrentIndex = 0;
+            assert BoundedSortingMachine.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.arrayCurrentIndex < BoundedSortingMachine.this.heapSize;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next = BoundedSortingMachine.this.heap[this.arrayCurrentIndex];
+            this.arrayCurrentIndex++;
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
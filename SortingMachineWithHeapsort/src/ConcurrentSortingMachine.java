@@ -0,0 +1,491 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} whose {@code add} may be called from many threads at
+ * once, represented as one buffer per adding thread and a sorted array, with
+ * implementations of primary methods.
+ *
+ * <p>
+ * In insertion mode each thread adds to its own buffer (found through a
+ * {@code ThreadLocal}), so concurrent adds never contend for a lock; the only
+ * shared write is registering a thread's buffer, once, in a lock-free queue.
+ * {@code changeToExtractionMode} copies all the buffers into one array and
+ * sorts it with a parallel (fork/join) merge sort; {@code removeFirst} then
+ * takes entries from the front of the array in constant time.
+ * </p>
+ * <p>
+ * The adding threads may outlive insertion mode, and each one's
+ * {@code ThreadLocal} map still refers to its buffer. So
+ * {@code changeToExtractionMode} shrinks every buffer to an empty array and
+ * drops the machine's {@code ThreadLocal}, which lets it and the buffers be
+ * collected instead of keeping O(n) arrays of nulls alive for the whole
+ * extraction phase.
+ * </p>
+ * <p>
+ * Only {@code add} is safe to call concurrently. Every other method, and in
+ * particular {@code changeToExtractionMode}, must be called by a single thread
+ * after all the adding threads are done (e.g., after {@code Thread.join} or
+ * {@code ExecutorService.awaitTermination}), which also makes their adds
+ * visible to it.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
+ * [every buffer in $this.buffers is the one $this.localBuffer holds for some
+ *  thread]  and
+ * if $this.insertionMode then
+ *   $this.localBuffer /= null  and
+ *   $this.sorted = null
+ * else
+ *   $this.localBuffer = null  and
+ *   $this.buffers = <>  and
+ *   0 <= $this.first <= |$this.sorted|  and
+ *   [$this.sorted[$this.first, |$this.sorted|) is sorted according to the
+ *    relation computed by $this.machineOrder.compare method]
+ * </pre>
+ * @correspondence <pre>
+ * if $this.insertionMode then
+ *   this = (true, $this.machineOrder,
+ *           [multiset of all entries in all buffers in $this.buffers])
+ * else
+ *   this = (false, $this.machineOrder,
+ *           multiset_entries($this.sorted[$this.first, |$this.sorted|)))
+ * </pre>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public class ConcurrentSortingMachine<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Insertion mode.
+     */
+    private volatile boolean insertionMode;
+
+    /**
+     * Buffer of the calling thread, in insertion mode.
+     */
+    private ThreadLocal<ArrayList<T>> localBuffer;
+
+    /**
+     * All buffers, in no particular order.
+     */
+    private Queue<ArrayList<T>> buffers;
+
+    /**
+     * Entries, sorted, in extraction mode.
+     */
+    private T[] sorted;
+
+    /**
+     * Index of the first entry of {@code sorted} not yet removed.
+     */
+    private int first;
+
+    /**
+     * Checks if the entries of the given {@code array} from index {@code first}
+     * up to (but not including) index {@code end} are sorted according to
+     * {@code order}.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array
+     * @param first
+     *            the index of the first entry to check
+     * @param end
+     *            the index one past the last entry to check
+     * @param order
+     *            total preorder for sorting
+     * @return true if {@code array[first, end)} is sorted; false otherwise
+     * @requires 0 <= first <= end <= |array|
+     * @ensures <pre>
+     * isSorted = [array[first, end) is sorted according to the relation
+     *             computed by order.compare method]
+     * </pre>
+     */
+    private static <T> boolean isSorted(T[] array, int first, int end,
+            Comparator<T> order) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= first : "Violation of: 0 <= first";
+        assert first <= end : "Violation of: first <= end";
+        assert end <= array.length : "Violation of: end <= |array|";
+
+        boolean isSorted = true;
+        for (int i = first + 1; isSorted && i < end; i++) {
+            isSorted = order.compare(array[i - 1], array[i]) <= 0;
+        }
+        return isSorted;
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * if $this.insertionMode then
+     *   $this.sorted = null
+     * else
+     *   $this.buffers = <>  and
+     *   0 <= $this.first <= |$this.sorted|  and
+     *   [$this.sorted[$this.first, |$this.sorted|) is sorted according to the
+     *    relation computed by $this.machineOrder.compare method]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        if (this.insertionMode) {
+            assert this.localBuffer != null : ""
+                    + "Violation of: if $this.insertionMode then"
+                    + " $this.localBuffer /= null";
+            assert this.sorted == null : ""
+                    + "Violation of: if $this.insertionMode then"
+                    + " $this.sorted = null";
+        } else {
+            assert this.localBuffer == null : ""
+                    + "Violation of: if not $this.insertionMode then"
+                    + " $this.localBuffer = null";
+            assert this.buffers.isEmpty() : ""
+                    + "Violation of: if not $this.insertionMode then"
+                    + " $this.buffers = <>";
+            assert 0 <= this.first : "Violation of: 0 <= $this.first";
+            assert this.first <= this.sorted.length : ""
+                    + "Violation of: $this.first <= |$this.sorted|";
+            if (ConventionChecking.shouldCheck()) {
+                //check every entry, or just a few when sampling
+                int start = this.first;
+                int end = this.sorted.length;
+                if (ConventionChecking.isSampling() && end > start) {
+                    start += ConventionChecking.sampleIndex(end - start);
+                    end = Math.min(start + 2, end);
+                }
+                assert isSorted(this.sorted, start, end, this.machineOrder) : ""
+                        + "Violation of: [$this.sorted[$this.first,"
+                        + " |$this.sorted|) is sorted]";
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method]
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.buffers = <>  and
+     * $this.sorted = null  and
+     * $this.first = 0
+     * </pre>
+     */
+    private void createNewRep(Comparator<T> order) {
+        this.machineOrder = order;
+
+        this.insertionMode = true;
+
+        //each thread's first add makes its buffer and registers it
+        final Queue<ArrayList<T>> newBuffers =
+                new ConcurrentLinkedQueue<ArrayList<T>>();
+        this.buffers = newBuffers;
+        this.localBuffer = ThreadLocal.withInitial(() -> {
+            ArrayList<T> buffer = new ArrayList<T>();
+            newBuffers.add(buffer);
+            return buffer;
+        });
+
+        this.sorted = null;
+
+        this.first = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order.
+     *
+     * @param order
+     *            total preorder for sorting
+     */
+    public ConcurrentSortingMachine(Comparator<T> order) {
+        this.createNewRep(order);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(Comparator.class)
+                    .newInstance(this.machineOrder);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof ConcurrentSortingMachine<?> : ""
+                + "Violation of: source is of dynamic type"
+                + " ConcurrentSortingMachine<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * ConcurrentSortingMachine<?>, and the ? must be T or the call would
+         * not have compiled.
+         */
+        ConcurrentSortingMachine<T> localSource = (ConcurrentSortingMachine<T>) source;
+        this.machineOrder = localSource.machineOrder;
+        this.localBuffer = localSource.localBuffer;
+        this.buffers = localSource.buffers;
+        this.sorted = localSource.sorted;
+        this.first = localSource.first;
+        this.insertionMode = localSource.insertionMode;
+        localSource.createNewRep(localSource.machineOrder);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * May be called by many threads at once.
+     * </p>
+     */
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        this.localBuffer.get().add(x);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        //copy every buffer into one array, then sort it in parallel
+        int length = 0;
+        for (ArrayList<T> buffer : this.buffers) {
+            length += buffer.size();
+        }
+        /*
+         * With "new T[...]" in place of "new Object[...]" it does not compile;
+         * as shown, it results in a warning about an unchecked cast, though it
+         * cannot fail.
+         */
+        T[] array = (T[]) new Object[length];
+        int end = 0;
+        for (ArrayList<T> buffer : this.buffers) {
+            for (T x : buffer) {
+                array[end] = x;
+                end++;
+            }
+            //adding threads still refer to their buffers, so shrink them
+            buffer.clear();
+            buffer.trimToSize();
+        }
+        Arrays.parallelSort(array, this.machineOrder);
+        this.buffers.clear();
+        this.localBuffer = null;
+        this.sorted = array;
+        this.first = 0;
+        this.insertionMode = false;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        T first = this.sorted[this.first];
+        this.sorted[this.first] = null;
+        this.first++;
+
+        assert this.conventionHolds();
+
+        return first;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        int size;
+        if (this.isInInsertionMode()) {
+            //add up the buffer sizes
+            size = 0;
+            for (ArrayList<T> buffer : this.buffers) {
+                size += buffer.size();
+            }
+        } else {
+            size = this.sorted.length - this.first;
+        }
+        return size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new ConcurrentSortingMachineIterator();
+    }
+
+    /**
+     * Reports the {@code ThreadLocal} holding the adding threads' buffers, so
+     * tests can check that it is dropped in extraction mode.
+     *
+     * @return this.localBuffer
+     */
+    final ThreadLocal<?> localBuffer() {
+        return this.localBuffer;
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code ConcurrentSortingMachine}.
+     */
+    private final class ConcurrentSortingMachineIterator
+            implements Iterator<T> {
+
+        /**
+         * Iterator over the buffers in insertion mode, or null.
+         */
+        private Iterator<ArrayList<T>> buffersIterator;
+
+        /**
+         * Iterator over the current buffer in insertion mode, or null.
+         */
+        private Iterator<T> bufferIterator;
+
+        /**
+         * Representation iterator count when in extraction mode.
+         */
+        private int arrayCurrentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private ConcurrentSortingMachineIterator() {
+            if (ConcurrentSortingMachine.this.insertionMode) {
+                this.buffersIterator = ConcurrentSortingMachine.this.buffers
+                        .iterator();
+                this.bufferIterator = null;
+            } else {
+                this.arrayCurrentIndex = ConcurrentSortingMachine.this.first;
+            }
+            assert ConcurrentSortingMachine.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext;
+            if (this.buffersIterator != null) {
+                //skip to the next buffer that has entries left
+                while ((this.bufferIterator == null
+                        || !this.bufferIterator.hasNext())
+                        && this.buffersIterator.hasNext()) {
+                    this.bufferIterator = this.buffersIterator.next()
+                            .iterator();
+                }
+                hasNext = this.bufferIterator != null
+                        && this.bufferIterator.hasNext();
+            } else {
+                hasNext = this.arrayCurrentIndex < ConcurrentSortingMachine.this.sorted.length;
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next;
+            if (this.buffersIterator != null) {
+                next = this.bufferIterator.next();
+            } else {
+                next = ConcurrentSortingMachine.this.sorted[this.arrayCurrentIndex];
+                this.arrayCurrentIndex++;
+            }
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
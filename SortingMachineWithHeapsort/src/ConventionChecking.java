@@ -0,0 +1,241 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Controls how thoroughly the component implementations check their
+ * representation conventions (and the expensive requires clauses of their
+ * private helpers) when assertion checking is on.
+ *
+ * <p>
+ * Checking the whole convention on every call makes even O(1) kernel methods
+ * O(n) (or worse), which makes runs with assertions on useless for judging
+ * performance. The level can be set at run time with {@link #setLevel}, or at
+ * start-up with the system properties {@code conventionChecking}
+ * ({@code full}, {@code sampled}, or {@code off}) and
+ * {@code conventionChecking.interval}; a property value that is not valid is
+ * ignored, and the default is used instead:
+ * </p>
+ * <ul>
+ * <li>{@code FULL}: every check, on every call (the default);</li>
+ * <li>{@code SAMPLED}: the cheap (O(1)) checks on every call, and the expensive
+ * ones only every {@code samplingInterval}-th call, on a randomly chosen part
+ * of the representation (e.g., one subtree of a heap);</li>
+ * <li>{@code OFF}: only the cheap checks.</li>
+ * </ul>
+ * <p>
+ * None of this has any effect when assertion checking is off, because all
+ * checks are made from {@code assert} statements.
+ * </p>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public final class ConventionChecking {
+
+    /**
+     * How thoroughly conventions are checked.
+     */
+    public enum Level {
+        /**
+         * Check everything, on every call.
+         */
+        FULL,
+        /**
+         * Check a random part, every {@code samplingInterval}-th call.
+         */
+        SAMPLED,
+        /**
+         * Check only what is cheap to check.
+         */
+        OFF
+    }
+
+    /**
+     * Name of the system property with the initial level.
+     */
+    private static final String LEVEL_PROPERTY = "conventionChecking";
+
+    /**
+     * Name of the system property with the initial sampling interval.
+     */
+    private static final String INTERVAL_PROPERTY =
+            "conventionChecking.interval";
+
+    /**
+     * Sampling interval used when none is given.
+     */
+    static final int DEFAULT_INTERVAL = 100;
+
+    /**
+     * Current level.
+     */
+    private static volatile Level level = parseLevel(
+            System.getProperty(LEVEL_PROPERTY));
+
+    /**
+     * Current sampling interval.
+     */
+    private static volatile int samplingInterval = parseInterval(
+            System.getProperty(INTERVAL_PROPERTY));
+
+    /**
+     * Number of calls to {@code shouldCheck} in {@code SAMPLED} mode. Updates
+     * may be lost under contention, which only shifts when samples happen.
+     */
+    private static int calls = 0;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private ConventionChecking() {
+    }
+
+    /**
+     * Returns the level named by {@code value}, ignoring case, or
+     * {@code FULL} if {@code value} is null or names no level.
+     *
+     * @param value
+     *            the value of the level system property
+     * @return the level named by value, or FULL
+     */
+    static Level parseLevel(String value) {
+        Level result = Level.FULL;
+        if (value != null) {
+            for (Level l : Level.values()) {
+                if (l.name().equalsIgnoreCase(value.trim())) {
+                    result = l;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the interval depicted by {@code value}, or
+     * {@code DEFAULT_INTERVAL} if {@code value} is null or does not depict a
+     * positive integer.
+     *
+     * @param value
+     *            the value of the interval system property
+     * @return the interval depicted by value, or DEFAULT_INTERVAL
+     */
+    static int parseInterval(String value) {
+        int result = DEFAULT_INTERVAL;
+        if (value != null) {
+            try {
+                int interval = Integer.parseInt(value.trim());
+                if (interval > 0) {
+                    result = interval;
+                }
+            } catch (NumberFormatException e) {
+                //not an integer; keep the default
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reports the current level.
+     *
+     * @return the current level
+     */
+    public static Level level() {
+        return level;
+    }
+
+    /**
+     * Sets the level.
+     *
+     * @param newLevel
+     *            the new level
+     * @ensures level = newLevel
+     */
+    public static void setLevel(Level newLevel) {
+        assert newLevel != null : "Violation of: newLevel is not null";
+        level = newLevel;
+    }
+
+    /**
+     * Reports the current sampling interval.
+     *
+     * @return the current sampling interval
+     */
+    public static int samplingInterval() {
+        return samplingInterval;
+    }
+
+    /**
+     * Sets the sampling interval used in {@code SAMPLED} mode.
+     *
+     * @param interval
+     *            check once every {@code interval} calls
+     * @requires interval > 0
+     * @ensures samplingInterval = interval
+     */
+    public static void setSamplingInterval(int interval) {
+        //throw error for invalid interval if interval <= 0
+        if (interval <= 0) {
+            throw new IllegalArgumentException(
+                    "Sampling interval must be greater than 0");
+        }
+        samplingInterval = interval;
+    }
+
+    /**
+     * Reports whether every check should be made, including the expensive
+     * requires clauses of private helper methods.
+     *
+     * @return true iff level = FULL
+     */
+    public static boolean isFull() {
+        return level == Level.FULL;
+    }
+
+    /**
+     * Reports whether only a random part of the representation should be
+     * checked, when {@code shouldCheck} says to check.
+     *
+     * @return true iff level = SAMPLED
+     */
+    public static boolean isSampling() {
+        return level == Level.SAMPLED;
+    }
+
+    /**
+     * Reports whether the expensive part of a convention should be checked on
+     * this call.
+     *
+     * @return true if level = FULL, or if level = SAMPLED and this is a
+     *         sampled call; false otherwise
+     */
+    public static boolean shouldCheck() {
+        boolean check;
+        switch (level) {
+            case FULL:
+                check = true;
+                break;
+            case SAMPLED:
+                calls++;
+                check = calls % samplingInterval == 0;
+                break;
+            default:
+                check = false;
+                break;
+        }
+        return check;
+    }
+
+    /**
+     * Picks a random index of the part of a representation to check.
+     *
+     * @param bound
+     *            the number of candidate indices
+     * @return a random index
+     * @requires bound > 0
+     * @ensures 0 <= sampleIndex < bound
+     */
+    public static int sampleIndex(int bound) {
+        assert bound > 0 : "Violation of: bound > 0";
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+}
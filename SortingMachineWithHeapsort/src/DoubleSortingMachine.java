@@ -0,0 +1,434 @@
+import java.util.Arrays;
+
+import components.standard.Standard;
+
+/**
+ * Sorting machine for {@code double} values in ascending order, represented as
+ * a {@code double} array, so that no value is ever boxed and no
+ * {@code Comparator} is called. Values are ordered as by
+ * {@code Double.compare}: {@code -0.0} comes before {@code 0.0}, and
+ * {@code NaN} comes after every other value.
+ *
+ * <p>
+ * It has the same insertion/extraction mode semantics as
+ * {@code SortingMachine}: values are added in insertion mode, and removed
+ * smallest first in extraction mode. In extraction mode the array is either a
+ * binary heap (the default) or, for a machine constructed with
+ * {@code radixSort} true, fully sorted by an LSD radix sort in
+ * {@code changeToExtractionMode}, after which {@code removeFirst} is O(1).
+ * </p>
+ *
+ * @mathmodel <pre>
+ * type DoubleSortingMachineModel is (
+ *   insertion_mode: boolean,
+ *   contents: finite multiset of real
+ *  )
+ * </pre>
+ * @convention <pre>
+ * 0 <= $this.size <= |$this.entries|  and
+ * if not $this.insertionMode then
+ *   if $this.radixSort then
+ *     0 <= $this.first <= $this.size  and
+ *     [$this.entries[$this.first, $this.size) is sorted in ascending order]
+ *   else
+ *     $this.first = 0  and
+ *     [$this.entries[0, $this.size) is a binary min-heap]
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode,
+ *         multiset_entries($this.entries[$this.first, $this.size)))
+ * </pre>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public class DoubleSortingMachine implements Standard<DoubleSortingMachine> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial capacity of the entries array.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Whether extraction mode uses a radix-sorted array instead of a heap.
+     */
+    private boolean radixSort;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries.
+     */
+    private double[] entries;
+
+    /**
+     * Index one past the last entry.
+     */
+    private int size;
+
+    /**
+     * Index of the first entry not yet removed (sorted array only).
+     */
+    private int first;
+
+    /**
+     * Given an array whose entries {@code [0, last]} represent a complete
+     * binary tree and an index referring to the root of a subtree that would
+     * be a min-heap except for its root, sifts the root down to turn that whole
+     * subtree into a min-heap.
+     *
+     * @param array
+     *            the complete binary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param last
+     *            the index of the last entry in the heap
+     * @updates array
+     * @requires <pre>
+     * 0 <= top  and  last < |array|  and
+     * [the subtrees rooted at the children of top are min-heaps]
+     * </pre>
+     * @ensures <pre>
+     * [the subtree rooted at top is a min-heap]  and
+     * perms(array, #array)  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static void siftDown(double[] array, int top, int last) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= top : "Violation of: 0 <= top";
+        assert last < array.length : "Violation of: last < |array|";
+
+        //move the hole down instead of swapping at every level
+        double value = array[top];
+        int hole = top;
+        int child = 2 * hole + 1;
+        while (child <= last) {
+            if (child < last
+                    && Double.compare(array[child + 1], array[child]) < 0) {
+                //if right child exists & is smaller
+                child++;
+            }
+            if (Double.compare(array[child], value) >= 0) {
+                break;
+            }
+            array[hole] = array[child];
+            hole = child;
+            child = 2 * hole + 1;
+        }
+        array[hole] = value;
+    }
+
+    /**
+     * Returns a {@code long} whose (signed) order among all such keys is the
+     * order of {@code x} by {@code Double.compare}. For non-negative
+     * {@code x} this is just its bits; for negative {@code x} every bit but the
+     * sign is flipped, so larger magnitudes become smaller keys.
+     *
+     * @param x
+     *            the value
+     * @return the sort key of x
+     * @ensures <pre>
+     * for all y: real
+     *   (Double.compare(x, y) < 0  iff  sortKey(x) < sortKey(y))  and
+     * valueOf(sortKey(x)) = x
+     * </pre>
+     */
+    private static long sortKey(double x) {
+        //doubleToLongBits makes every NaN the same (largest) value
+        long bits = Double.doubleToLongBits(x);
+        return bits ^ ((bits >> (Long.SIZE - 1)) & Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the value whose sort key is {@code key}.
+     *
+     * @param key
+     *            the sort key
+     * @return the value with sort key key
+     * @requires [key = sortKey(x) for some x]
+     * @ensures sortKey(valueOf) = key
+     */
+    private static double valueOf(long key) {
+        //the transformation in sortKey is its own inverse
+        return Double.longBitsToDouble(
+                key ^ ((key >> (Long.SIZE - 1)) & Long.MAX_VALUE));
+    }
+
+    /**
+     * Sorts {@code array[0, length)} in ascending order (by
+     * {@code Double.compare}) with an LSD radix sort on the sort keys of the
+     * entries.
+     *
+     * @param array
+     *            the array to sort
+     * @param length
+     *            the number of entries to sort
+     * @updates array
+     * @requires 0 <= length <= |array|
+     * @ensures <pre>
+     * [array[0, length) is sorted in ascending order]  and
+     * perms(array[0, length), #array[0, length))  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static void radixSort(double[] array, int length) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= length : "Violation of: 0 <= length";
+        assert length <= array.length : "Violation of: length <= |array|";
+
+        long[] keys = new long[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = sortKey(array[i]);
+        }
+        PrimitiveSorting.radixSort(keys, length);
+        for (int i = 0; i < length; i++) {
+            array[i] = valueOf(keys[i]);
+        }
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 <= $this.size <= |$this.entries|  and
+     * if not $this.insertionMode then
+     *   if $this.radixSort then
+     *     0 <= $this.first <= $this.size  and
+     *     [$this.entries[$this.first, $this.size) is sorted in ascending order]
+     *   else
+     *     $this.first = 0  and
+     *     [$this.entries[0, $this.size) is a binary min-heap]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 0 <= this.size : "Violation of: 0 <= $this.size";
+        assert this.size <= this.entries.length : ""
+                + "Violation of: $this.size <= |$this.entries|";
+        assert 0 <= this.first : "Violation of: 0 <= $this.first";
+        assert this.first <= this.size : ""
+                + "Violation of: $this.first <= $this.size";
+        if (!this.insertionMode && ConventionChecking.shouldCheck()) {
+            //check every entry, or just a random one when sampling
+            int start = this.first;
+            int end = this.size;
+            if (ConventionChecking.isSampling() && end > start) {
+                start += ConventionChecking.sampleIndex(end - start);
+                end = start + 1;
+            }
+            for (int i = start; i < end; i++) {
+                if (this.radixSort) {
+                    assert i + 1 >= this.size
+                            || Double.compare(this.entries[i],
+                                    this.entries[i + 1]) <= 0 : ""
+                                    + "Violation of: [$this.entries["
+                                    + "$this.first, $this.size) is sorted]";
+                } else {
+                    assert i == 0 || Double.compare(this.entries[(i - 1) / 2],
+                            this.entries[i]) <= 0 : ""
+                                    + "Violation of: [$this.entries[0,"
+                                    + " $this.size) is a binary min-heap]";
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param useRadixSort
+     *            whether extraction mode uses a radix-sorted array
+     * @ensures <pre>
+     * $this.radixSort = useRadixSort  and
+     * $this.insertionMode = true  and
+     * $this.size = 0  and
+     * $this.first = 0
+     * </pre>
+     */
+    private void createNewRep(boolean useRadixSort) {
+        this.radixSort = useRadixSort;
+
+        this.insertionMode = true;
+
+        this.entries = new double[INITIAL_CAPACITY];
+
+        this.size = 0;
+
+        this.first = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor, using a heap in extraction mode.
+     */
+    public DoubleSortingMachine() {
+        this.createNewRep(false);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor choosing how extraction mode is organized.
+     *
+     * @param radixSort
+     *            whether {@code changeToExtractionMode} radix sorts the entries
+     *            (instead of building a heap)
+     * @ensures this = (true, {})
+     */
+    public DoubleSortingMachine(boolean radixSort) {
+        this.createNewRep(radixSort);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final DoubleSortingMachine newInstance() {
+        try {
+            return this.getClass().getConstructor(boolean.class)
+                    .newInstance(this.radixSort);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.radixSort);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(DoubleSortingMachine source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        this.radixSort = source.radixSort;
+        this.insertionMode = source.insertionMode;
+        this.entries = source.entries;
+        this.size = source.size;
+        this.first = source.first;
+        source.createNewRep(source.radixSort);
+        assert this.conventionHolds();
+        assert source.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    /**
+     * Adds {@code x} to the contents of {@code this}.
+     *
+     * @param x
+     *            the value to be added
+     * @updates this.contents
+     * @requires this.insertion_mode
+     * @ensures this.contents = #this.contents union {x}
+     */
+    public final void add(double x) {
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        if (this.size == this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries,
+                    2 * this.entries.length);
+        }
+        this.entries[this.size] = x;
+        this.size++;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Changes the mode of {@code this} from insertion to extraction.
+     *
+     * @updates this.insertion_mode
+     * @requires this.insertion_mode
+     * @ensures not this.insertion_mode
+     */
+    public final void changeToExtractionMode() {
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        this.insertionMode = false;
+        if (this.radixSort) {
+            radixSort(this.entries, this.size);
+        } else {
+            for (int i = this.size / 2 - 1; i >= 0; i--) {
+                siftDown(this.entries, i, this.size - 1);
+            }
+        }
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Removes and returns the smallest value in the contents of {@code this}.
+     *
+     * @return the smallest value
+     * @updates this.contents
+     * @requires not this.insertion_mode and this.contents /= {}
+     * @ensures <pre>
+     * removeFirst is in #this.contents  and
+     * for all y: real where (y is in #this.contents) (removeFirst <= y)  and
+     * this.contents = #this.contents \ {removeFirst}
+     * </pre>
+     */
+    public final double removeFirst() {
+        assert !this.insertionMode : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        double result;
+        if (this.radixSort) {
+            result = this.entries[this.first];
+            this.first++;
+        } else {
+            //replace the root with the last entry & sift it down
+            result = this.entries[0];
+            this.size--;
+            this.entries[0] = this.entries[this.size];
+            siftDown(this.entries, 0, this.size - 1);
+        }
+
+        assert this.conventionHolds();
+
+        return result;
+    }
+
+    /**
+     * Reports whether {@code this} is in insertion mode.
+     *
+     * @return true iff {@code this} is in insertion mode
+     * @ensures isInInsertionMode = this.insertion_mode
+     */
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    /**
+     * Reports the number of values in {@code this}.
+     *
+     * @return the (multiset) size of this.contents
+     * @ensures size = |this.contents|
+     */
+    public final int size() {
+        assert this.conventionHolds();
+        return this.size - this.first;
+    }
+
+}
@@ -0,0 +1,43 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Converts entries of type {@code T} to and from a binary form, so that they
+ * can be written to and read back from a file.
+ *
+ * @param <T>
+ *            type of the entries
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public interface ElementCodec<T> {
+
+    /**
+     * Writes {@code x} to {@code out}.
+     *
+     * @param x
+     *            the entry to write
+     * @param out
+     *            the destination
+     * @throws IOException
+     *             if {@code out} cannot be written
+     * @requires x is not null
+     * @ensures [the bytes written to out are such that read reproduces x]
+     */
+    void write(T x, DataOutput out) throws IOException;
+
+    /**
+     * Reads an entry previously written by {@code write} from {@code in}.
+     *
+     * @param in
+     *            the source
+     * @return the entry read
+     * @throws IOException
+     *             if {@code in} cannot be read
+     * @ensures [read is the entry whose bytes were at the front of in]
+     */
+    T read(DataInput in) throws IOException;
+
+}
@@ -0,0 +1,1083 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} for more entries than fit in memory, represented as
+ * an in-memory buffer plus sorted runs spilled to temporary files, with
+ * implementations of primary methods.
+ *
+ * <p>
+ * In insertion mode, entries go into a buffer of at most {@code memoryBudget}
+ * entries; whenever it fills up, it is sorted and written to a temporary file
+ * (a "run") using the given {@code ElementCodec}. In extraction mode, the runs
+ * (and whatever is left in the buffer) are merged with a k-way merge: a heap,
+ * like {@code SortingMachine5a}'s, holds one cursor per run ordered by the
+ * cursor's current entry, so {@code removeFirst} reads only one more entry
+ * from disk and costs O(log k) comparisons. Each run being merged holds an
+ * open file, so at most {@code MAX_MERGE_WIDTH} runs are merged at once: if
+ * there are more, {@code changeToExtractionMode} first merges them, that many
+ * at a time, into longer runs, in as many passes as needed. Temporary files
+ * are deleted as soon as they are exhausted, and by {@code clear} and
+ * {@code transferFrom}.
+ * </p>
+ *
+ * <p>
+ * I/O failures are reported as {@code UncheckedIOException}.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * SUBTREE_IS_HEAP (
+ *   a: string of Run,
+ *   start: integer,
+ *   stop: integer,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  [the subtree of a (when a is interpreted as a complete binary tree) rooted
+ *   at index start and only through entry stop of a satisfies the heap
+ *   ordering property according to the relation r applied to the heads of
+ *   the runs]
+ *
+ * RUN_ENTRIES (
+ *   run: Run
+ *  ) : string of T is
+ *  [the entries of run, in order: those in run.items if it is in memory, or
+ *   the run.length entries encoded in run.file otherwise]
+ *
+ * UNREAD_ENTRIES (
+ *   run: Run
+ *  ) : finite multiset of T is
+ *  [the multiset of run.head and the entries of RUN_ENTRIES(run) at positions
+ *   run.consumed through run.length - 1]
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
+ * $this.memoryBudget > 0  and
+ * for every run in $this.runs
+ *   ([RUN_ENTRIES(run) is sorted according to $this.machineOrder])  and
+ * if $this.insertionMode then
+ *   |$this.buffer| = $this.memoryBudget  and
+ *   0 <= $this.bufferSize < $this.memoryBudget  and
+ *   $this.cursorCount = 0  and
+ *   $this.size = $this.bufferSize + [sum of run.length over $this.runs]
+ * else
+ *   0 <= $this.cursorCount <= |$this.cursors|  and
+ *   SUBTREE_IS_HEAP($this.cursors, 0, $this.cursorCount - 1,
+ *     [relation computed by $this.machineOrder.compare method])  and
+ *   [every cursor in $this.cursors[0, $this.cursorCount) has a head]  and
+ *   $this.size = [sum of |UNREAD_ENTRIES(run)| over
+ *     $this.cursors[0, $this.cursorCount)]
+ * </pre>
+ * @correspondence <pre>
+ * if $this.insertionMode then
+ *   this = (true, $this.machineOrder,
+ *     multiset_entries($this.buffer[0, $this.bufferSize)) union
+ *     [union of multiset_entries(RUN_ENTRIES(run)) over $this.runs])
+ * else
+ *   this = (false, $this.machineOrder,
+ *     [union of UNREAD_ENTRIES(run) over $this.cursors[0, $this.cursorCount)])
+ * </pre>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public class ExternalSortingMachine<T> extends SortingMachineSecondary<T> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Prefix for the names of temporary run files.
+     */
+    static final String RUN_FILE_PREFIX = "sortingmachine";
+
+    /**
+     * Suffix for the names of temporary run files.
+     */
+    static final String RUN_FILE_SUFFIX = ".run";
+
+    /**
+     * Largest number of run files merged at once, i.e., open at the same time.
+     */
+    static final int MAX_MERGE_WIDTH = 64;
+
+    /**
+     * A sorted run of entries, either in a temporary file or in memory, with
+     * a read cursor used during the merge.
+     */
+    private final class Run {
+
+        /**
+         * File holding the encoded entries, or null if the run is in memory.
+         */
+        private File file;
+
+        /**
+         * Entries of an in-memory run, or null if the run is in a file.
+         */
+        private T[] items;
+
+        /**
+         * Number of entries in the run.
+         */
+        private int length;
+
+        /**
+         * Number of entries read from the run so far (including the head).
+         */
+        private int consumed;
+
+        /**
+         * Stream reading the file during the merge, or null.
+         */
+        private DataInputStream in;
+
+        /**
+         * Smallest entry of the run not yet removed, or null if none.
+         */
+        private T head;
+
+        /**
+         * Moves the cursor to the next entry of the run, closing and deleting
+         * the file once all of its entries have been read.
+         *
+         * @updates this
+         * @ensures <pre>
+         * if #this.consumed < this.length then
+         *   this.head = [entry at position #this.consumed of the run]  and
+         *   this.consumed = #this.consumed + 1
+         * else
+         *   this.head = null
+         * </pre>
+         */
+        private void advance() {
+            if (this.consumed < this.length) {
+                if (this.items != null) {
+                    this.head = this.items[this.consumed];
+                    //drop the reference so it can be garbage collected
+                    this.items[this.consumed] = null;
+                } else {
+                    try {
+                        if (this.in == null) {
+                            this.in = openRun(this.file);
+                        }
+                        this.head = ExternalSortingMachine.this.codec
+                                .read(this.in);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                this.consumed++;
+            } else {
+                this.head = null;
+                this.discard();
+            }
+        }
+
+        /**
+         * Releases the stream and temporary file of this run, if any.
+         *
+         * @updates this
+         */
+        private void discard() {
+            if (this.in != null) {
+                try {
+                    this.in.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                this.in = null;
+            }
+            if (this.file != null) {
+                deleteRunFile(this.file);
+            }
+        }
+
+    }
+
+    /**
+     * Input stream that counts the bytes read through it.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        /**
+         * Number of bytes read (or skipped) so far.
+         */
+        private long count;
+
+        /**
+         * Constructor from the underlying stream.
+         *
+         * @param in
+         *            the underlying stream
+         */
+        private CountingInputStream(InputStream in) {
+            super(in);
+            this.count = 0;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                this.count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                this.count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            this.count += skipped;
+            return skipped;
+        }
+
+    }
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Codec used to write entries to, and read them from, run files.
+     */
+    private ElementCodec<T> codec;
+
+    /**
+     * Maximum number of entries kept in memory in insertion mode.
+     */
+    private int memoryBudget;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Buffer of entries not yet spilled.
+     */
+    private T[] buffer;
+
+    /**
+     * Number of entries in the buffer.
+     */
+    private int bufferSize;
+
+    /**
+     * Runs spilled to files.
+     */
+    private ArrayList<Run> runs;
+
+    /**
+     * Order of run cursors by head, according to {@code machineOrder}.
+     */
+    private Comparator<Run> headOrder;
+
+    /**
+     * Heap of run cursors, ordered by head, used in extraction mode.
+     */
+    private Run[] cursors;
+
+    /**
+     * Number of cursors in the heap.
+     */
+    private int cursorCount;
+
+    /**
+     * Number of entries.
+     */
+    private int size;
+
+    /**
+     * Opens a buffered stream on the given run file.
+     *
+     * @param file
+     *            the run file
+     * @return the stream
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    private static DataInputStream openRun(File file) throws IOException {
+        return new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)));
+    }
+
+    /**
+     * Creates a new temporary run file.
+     *
+     * @return the run file
+     * @throws IOException
+     *             if the file cannot be created
+     */
+    private static File createRunFile() throws IOException {
+        return File.createTempFile(RUN_FILE_PREFIX, RUN_FILE_SUFFIX);
+    }
+
+    /**
+     * Opens a buffered stream writing the given run file.
+     *
+     * @param file
+     *            the run file
+     * @return the stream
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    private static DataOutputStream createRun(File file) throws IOException {
+        return new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)));
+    }
+
+    /**
+     * Deletes the given run file, if it still exists.
+     *
+     * @param file
+     *            the run file
+     */
+    private static void deleteRunFile(File file) {
+        if (file.exists() && !file.delete()) {
+            //leave it to the JVM to try again
+            file.deleteOnExit();
+        }
+    }
+
+    /**
+     * Creates an array of {@code length} run cursors, all null.
+     *
+     * @param length
+     *            the length of the array
+     * @return the array
+     * @requires length >= 0
+     * @ensures newCursorArray = [array of length nulls]
+     */
+    @SuppressWarnings("unchecked")
+    private Run[] newCursorArray(int length) {
+        /*
+         * With "new Run[...]" it does not compile, since Run is an inner class
+         * of a generic class; as shown, it results in a warning about an
+         * unchecked cast, though it cannot fail.
+         */
+        return (Run[]) new ExternalSortingMachine<?>.Run[length];
+    }
+
+    /**
+     * Sorts the buffer and writes it to a new temporary run file.
+     *
+     * @updates this
+     * @requires this.insertionMode and this.bufferSize > 0
+     * @ensures <pre>
+     * this.bufferSize = 0  and
+     * this.runs = #this.runs * <[run with the entries of #this.buffer, sorted]>
+     * </pre>
+     */
+    private void spill() {
+        assert this.insertionMode : "Violation of: this.insertionMode";
+        assert this.bufferSize > 0 : "Violation of: this.bufferSize > 0";
+
+        Arrays.sort(this.buffer, 0, this.bufferSize, this.machineOrder);
+        Run run = new Run();
+        run.length = this.bufferSize;
+        try {
+            run.file = createRunFile();
+            try (DataOutputStream out = createRun(run.file)) {
+                for (int i = 0; i < this.bufferSize; i++) {
+                    this.codec.write(this.buffer[i], out);
+                }
+            }
+        } catch (IOException e) {
+            run.discard();
+            throw new UncheckedIOException(e);
+        }
+        this.runs.add(run);
+
+        //empty the buffer, dropping references to the spilled entries
+        Arrays.fill(this.buffer, 0, this.bufferSize, null);
+        this.bufferSize = 0;
+    }
+
+    /**
+     * Builds the heap of cursors from the runs in {@code group}, each
+     * positioned on its first entry.
+     *
+     * @param group
+     *            the runs
+     * @updates this.cursors, this.cursorCount
+     * @requires this.cursorCount = 0 and [no run in group has been read]
+     * @ensures <pre>
+     * [this.cursors[0, this.cursorCount) is a heap of the runs in group that
+     *  have entries, ordered by head]
+     * </pre>
+     */
+    private void buildCursorHeap(List<Run> group) {
+        this.cursors = this.newCursorArray(group.size());
+        for (Run run : group) {
+            run.advance();
+            if (run.head != null) {
+                this.cursors[this.cursorCount] = run;
+                this.cursorCount++;
+            }
+        }
+        for (int i = this.cursorCount / 2 - 1; i >= 0; i--) {
+            Heaps.siftDown(this.cursors, i, this.cursorCount - 1, Heaps.BINARY,
+                    this.headOrder);
+        }
+    }
+
+    /**
+     * Removes and returns the smallest head in the heap of cursors, moving
+     * that cursor on to its next entry.
+     *
+     * @return the smallest head
+     * @updates this.cursors, this.cursorCount
+     * @requires this.cursorCount > 0
+     * @ensures <pre>
+     * removeSmallestHead = [the head of #this.cursors[0]]  and
+     * [this.cursors[0, this.cursorCount) is #this.cursors[0, #this.cursorCount)
+     *  with that cursor advanced, and dropped if it has no more entries, and is
+     *  a heap ordered by head]
+     * </pre>
+     */
+    private T removeSmallestHead() {
+        Run top = this.cursors[0];
+        T first = top.head;
+        top.advance();
+        if (top.head == null) {
+            //run exhausted: replace it with the last cursor
+            this.cursorCount--;
+            this.cursors[0] = this.cursors[this.cursorCount];
+            this.cursors[this.cursorCount] = null;
+        }
+        if (this.cursorCount > 0) {
+            Heaps.siftDown(this.cursors, 0, this.cursorCount - 1, Heaps.BINARY,
+                    this.headOrder);
+        }
+        return first;
+    }
+
+    /**
+     * Merges the runs in {@code group} into one new run file, deleting their
+     * files as they are exhausted.
+     *
+     * @param group
+     *            the runs to merge
+     * @return the merged run
+     * @updates this.cursors, this.cursorCount
+     * @requires <pre>
+     * this.cursorCount = 0  and  0 < |group| <= MAX_MERGE_WIDTH  and
+     * [no run in group has been read]
+     * </pre>
+     * @ensures <pre>
+     * RUN_ENTRIES(mergeRuns) = [the entries of the runs in group, sorted]  and
+     * this.cursorCount = 0
+     * </pre>
+     */
+    private Run mergeRuns(List<Run> group) {
+        Run merged = new Run();
+        for (Run run : group) {
+            merged.length += run.length;
+        }
+        boolean done = false;
+        try {
+            merged.file = createRunFile();
+            try (DataOutputStream out = createRun(merged.file)) {
+                this.buildCursorHeap(group);
+                while (this.cursorCount > 0) {
+                    this.codec.write(this.removeSmallestHead(), out);
+                }
+            }
+            done = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (!done) {
+                //release every file of this merge before reporting the failure
+                for (Run run : group) {
+                    run.discard();
+                }
+                Arrays.fill(this.cursors, 0, this.cursorCount, null);
+                this.cursorCount = 0;
+                merged.discard();
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Releases all run files and streams of the current representation.
+     *
+     * @updates this
+     */
+    private void discardRuns() {
+        if (this.runs != null) {
+            for (Run run : this.runs) {
+                run.discard();
+            }
+        }
+        if (this.cursors != null) {
+            for (int i = 0; i < this.cursorCount; i++) {
+                this.cursors[i].discard();
+            }
+        }
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * $this.memoryBudget > 0  and
+     * if $this.insertionMode then
+     *   |$this.buffer| = $this.memoryBudget  and
+     *   0 <= $this.bufferSize < $this.memoryBudget  and
+     *   $this.cursorCount = 0  and
+     *   $this.size = $this.bufferSize + [sum of run.length over $this.runs]
+     * else
+     *   0 <= $this.cursorCount <= |$this.cursors|  and
+     *   SUBTREE_IS_HEAP($this.cursors, 0, $this.cursorCount - 1,
+     *     [relation computed by $this.machineOrder.compare method])  and
+     *   [every cursor in $this.cursors[0, $this.cursorCount) has a head]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert this.memoryBudget > 0 : "Violation of: $this.memoryBudget > 0";
+        if (this.insertionMode) {
+            assert this.buffer.length == this.memoryBudget : ""
+                    + "Violation of: if $this.insertionMode then"
+                    + " |$this.buffer| = $this.memoryBudget";
+            assert 0 <= this.bufferSize
+                    && this.bufferSize < this.memoryBudget : ""
+                            + "Violation of: if $this.insertionMode then"
+                            + " 0 <= $this.bufferSize < $this.memoryBudget";
+            assert this.cursorCount == 0 : ""
+                    + "Violation of: if $this.insertionMode then"
+                    + " $this.cursorCount = 0";
+            if (ConventionChecking.shouldCheck()) {
+                int total = this.bufferSize;
+                for (Run run : this.runs) {
+                    total += run.length;
+                }
+                assert this.size == total : ""
+                        + "Violation of: if $this.insertionMode then"
+                        + " $this.size = $this.bufferSize"
+                        + " + [sum of run.length over $this.runs]";
+            }
+        } else {
+            assert 0 <= this.cursorCount
+                    && this.cursorCount <= this.cursors.length : ""
+                            + "Violation of: if not $this.insertionMode then"
+                            + " 0 <= $this.cursorCount <= |$this.cursors|";
+            if (ConventionChecking.shouldCheck()) {
+                //check the whole heap, or just a random subtree when sampling
+                int top = 0;
+                int end = this.cursorCount;
+                if (ConventionChecking.isSampling() && this.cursorCount > 0) {
+                    top = ConventionChecking.sampleIndex(this.cursorCount);
+                    end = top + 1;
+                }
+                for (int i = top; i < end; i++) {
+                    assert this.cursors[i].head != null : ""
+                            + "Violation of: if not $this.insertionMode then"
+                            + " [every cursor in $this.cursors[0,"
+                            + " $this.cursorCount) has a head]";
+                }
+                assert Heaps.isHeap(this.cursors, top, this.cursorCount - 1,
+                        Heaps.BINARY, this.headOrder) : ""
+                                + "Violation of: if not $this.insertionMode"
+                                + " then SUBTREE_IS_HEAP($this.cursors, 0,"
+                                + " $this.cursorCount - 1, [relation computed"
+                                + " by $this.machineOrder.compare method])";
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param elementCodec
+     *            codec for writing entries to run files
+     * @param budget
+     *            maximum number of entries kept in memory
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method]  and
+     * budget > 0
+     * </pre>
+     * @ensures <pre>
+     * $this.insertionMode = true  and
+     * $this.machineOrder = order  and
+     * $this.codec = elementCodec  and
+     * $this.memoryBudget = budget  and
+     * $this.bufferSize = 0  and
+     * $this.runs = <>  and
+     * $this.headOrder = [order applied to the heads of cursors]  and
+     * $this.cursorCount = 0  and
+     * $this.size = 0
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order, ElementCodec<T> elementCodec,
+            int budget) {
+        this.machineOrder = order;
+
+        this.codec = elementCodec;
+
+        this.memoryBudget = budget;
+
+        this.insertionMode = true;
+
+        /*
+         * With "new T[...]" in place of "new Object[...]" it does not compile;
+         * as shown, it results in a warning about an unchecked cast, though it
+         * cannot fail.
+         */
+        this.buffer = (T[]) new Object[budget];
+
+        this.bufferSize = 0;
+
+        this.runs = new ArrayList<Run>();
+
+        this.headOrder = (r1, r2) -> order.compare(r1.head, r2.head);
+
+        this.cursors = this.newCursorArray(0);
+
+        this.cursorCount = 0;
+
+        this.size = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order, codec, and memory budget.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param codec
+     *            codec for writing entries to run files
+     * @param memoryBudget
+     *            maximum number of entries kept in memory before spilling a
+     *            sorted run to disk
+     * @requires memoryBudget > 0
+     * @ensures this = (true, order, {})
+     */
+    public ExternalSortingMachine(Comparator<T> order, ElementCodec<T> codec,
+            int memoryBudget) {
+        assert codec != null : "Violation of: codec is not null";
+        //throw error for invalid budget if budget <= 0
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException(
+                    "Memory budget must be greater than 0");
+        }
+
+        this.createNewRep(order, codec, memoryBudget);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final SortingMachine<T> newInstance() {
+        try {
+            return this.getClass()
+                    .getConstructor(Comparator.class, ElementCodec.class,
+                            int.class)
+                    .newInstance(this.machineOrder, this.codec,
+                            this.memoryBudget);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.discardRuns();
+        this.createNewRep(this.machineOrder, this.codec, this.memoryBudget);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof ExternalSortingMachine<?> : ""
+                + "Violation of: source is of dynamic type"
+                + " ExternalSortingMachine<?>";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case: source must be of dynamic type
+         * ExternalSortingMachine<?>, and the ? must be T or the call would not
+         * have compiled.
+         */
+        ExternalSortingMachine<T> localSource = (ExternalSortingMachine<T>) source;
+        this.discardRuns();
+        this.machineOrder = localSource.machineOrder;
+        this.codec = localSource.codec;
+        this.memoryBudget = localSource.memoryBudget;
+        this.insertionMode = localSource.insertionMode;
+        this.buffer = localSource.buffer;
+        this.bufferSize = localSource.bufferSize;
+        this.runs = localSource.runs;
+        this.headOrder = localSource.headOrder;
+        this.cursors = localSource.cursors;
+        this.cursorCount = localSource.cursorCount;
+        this.size = localSource.size;
+        localSource.createNewRep(localSource.machineOrder, localSource.codec,
+                localSource.memoryBudget);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(T x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        this.buffer[this.bufferSize] = x;
+        this.bufferSize++;
+        this.size++;
+        if (this.bufferSize == this.memoryBudget) {
+            this.spill();
+        }
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        //switch mode
+        this.insertionMode = false;
+
+        /*
+         * Merge the run files, MAX_MERGE_WIDTH at a time and oldest first, into
+         * longer ones appended at the end, until few enough are left to be
+         * merged at once
+         */
+        while (this.runs.size() > MAX_MERGE_WIDTH) {
+            List<Run> group = this.runs.subList(0, MAX_MERGE_WIDTH);
+            Run merged = this.mergeRuns(group);
+            group.clear();
+            this.runs.add(merged);
+        }
+
+        //what is left in the buffer becomes a final, in-memory run
+        if (this.bufferSize > 0) {
+            Arrays.sort(this.buffer, 0, this.bufferSize, this.machineOrder);
+            Run run = new Run();
+            run.items = this.buffer;
+            run.length = this.bufferSize;
+            this.runs.add(run);
+        }
+        this.buffer = null;
+        this.bufferSize = 0;
+
+        //position a cursor on the first entry of each run & build the heap
+        this.buildCursorHeap(this.runs);
+        this.runs.clear();
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final T removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        //the smallest unread entry is the head of the cursor at the root
+        T first = this.removeSmallestHead();
+        this.size--;
+
+        assert this.conventionHolds();
+
+        return first;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.size;
+    }
+
+    @Override
+    public final Iterator<T> iterator() {
+        return new ExternalSortingMachineIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code ExternalSortingMachine}. Entries still on disk are read back from
+     * the run files, without disturbing the cursors used by
+     * {@code removeFirst}, in chunks of at most {@code memoryBudget} entries;
+     * each file is closed again before {@code next} returns, so an iterator
+     * that is abandoned part-way holds no open file.
+     */
+    private final class ExternalSortingMachineIterator implements Iterator<T> {
+
+        /**
+         * Cursors whose heads are still to be visited (extraction mode only).
+         */
+        private final ArrayList<Run> heads;
+
+        /**
+         * Number of cursor heads already visited.
+         */
+        private int headIndex;
+
+        /**
+         * Runs whose unread entries are still to be visited.
+         */
+        private final ArrayList<Run> pending;
+
+        /**
+         * Run currently being visited, or null.
+         */
+        private Run current;
+
+        /**
+         * Position in the current run of the next entry to visit.
+         */
+        private int position;
+
+        /**
+         * Entries of the current run read from its file, from position
+         * {@code chunkStart} on, or null if none has been read yet.
+         */
+        private T[] chunk;
+
+        /**
+         * Position in the current run of the first entry of the chunk.
+         */
+        private int chunkStart;
+
+        /**
+         * Number of entries of the current run read from its file so far.
+         */
+        private int readCount;
+
+        /**
+         * Offset in the file of the current run just past the entries read so
+         * far.
+         */
+        private long offset;
+
+        /**
+         * Number of buffer entries already visited.
+         */
+        private int bufferIndex;
+
+        /**
+         * Number of buffer entries to visit (insertion mode only).
+         */
+        private final int bufferEnd;
+
+        /**
+         * No-argument constructor.
+         */
+        private ExternalSortingMachineIterator() {
+            if (ExternalSortingMachine.this.insertionMode) {
+                this.heads = new ArrayList<Run>();
+                this.pending = new ArrayList<Run>(
+                        ExternalSortingMachine.this.runs);
+                this.bufferEnd = ExternalSortingMachine.this.bufferSize;
+            } else {
+                List<Run> cursors = Arrays.asList(
+                        ExternalSortingMachine.this.cursors).subList(0,
+                                ExternalSortingMachine.this.cursorCount);
+                this.heads = new ArrayList<Run>(cursors);
+                this.pending = new ArrayList<Run>(cursors);
+                this.bufferEnd = 0;
+            }
+            this.headIndex = 0;
+            this.bufferIndex = 0;
+            assert ExternalSortingMachine.this.conventionHolds();
+        }
+
+        /**
+         * Moves on to the next pending run that still has unvisited entries,
+         * if any.
+         *
+         * @updates this
+         * @ensures <pre>
+         * this.current = null  or
+         * this.position < this.current.length
+         * </pre>
+         */
+        private void nextRun() {
+            this.current = null;
+            while (this.current == null && !this.pending.isEmpty()) {
+                Run run = this.pending.remove(this.pending.size() - 1);
+                //entries before run.consumed were removed or are the head
+                this.position = run.consumed;
+                if (this.position < run.length) {
+                    this.current = run;
+                    this.readCount = 0;
+                    this.offset = 0;
+                }
+            }
+        }
+
+        /**
+         * Reads the next chunk of at most {@code memoryBudget} entries of the
+         * current run from its file, starting at {@code position}, and closes
+         * the file again.
+         *
+         * @updates this
+         * @requires <pre>
+         * this.current.file /= null  and
+         * this.readCount <= this.position < this.current.length
+         * </pre>
+         * @ensures <pre>
+         * this.chunkStart = this.position  and
+         * this.chunk[0, this.readCount - this.position) =
+         *  [the entries of the run from this.position on]
+         * </pre>
+         */
+        @SuppressWarnings("unchecked")
+        private void readChunk() {
+            int budget = ExternalSortingMachine.this.memoryBudget;
+            if (this.chunk == null) {
+                this.chunk = (T[]) new Object[budget];
+            }
+            int chunkLength = Math.min(budget,
+                    this.current.length - this.position);
+            try (FileInputStream file = new FileInputStream(
+                    this.current.file)) {
+                file.getChannel().position(this.offset);
+                CountingInputStream counter = new CountingInputStream(
+                        new BufferedInputStream(file));
+                DataInputStream in = new DataInputStream(counter);
+                //skip over entries already removed or visited as heads
+                while (this.readCount < this.position) {
+                    ExternalSortingMachine.this.codec.read(in);
+                    this.readCount++;
+                }
+                for (int i = 0; i < chunkLength; i++) {
+                    this.chunk[i] = ExternalSortingMachine.this.codec.read(in);
+                }
+                this.readCount += chunkLength;
+                this.offset += counter.count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.chunkStart = this.position;
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = this.headIndex < this.heads.size();
+            if (!hasNext) {
+                if (this.current == null
+                        || this.position >= this.current.length) {
+                    this.nextRun();
+                }
+                hasNext = this.current != null
+                        || this.bufferIndex < this.bufferEnd;
+            }
+            return hasNext;
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            T next;
+            if (this.headIndex < this.heads.size()) {
+                next = this.heads.get(this.headIndex).head;
+                this.headIndex++;
+            } else if (this.current != null) {
+                if (this.current.items != null) {
+                    next = this.current.items[this.position];
+                } else {
+                    if (this.position >= this.readCount) {
+                        this.readChunk();
+                    }
+                    next = this.chunk[this.position - this.chunkStart];
+                }
+                this.position++;
+            } else {
+                next = ExternalSortingMachine.this.buffer[this.bufferIndex];
+                this.bufferIndex++;
+            }
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
@@ -0,0 +1,360 @@
+import java.util.Comparator;
+
+/**
+ * Heap helpers on arrays interpreted as complete d-ary trees, shared by
+ * {@code SortingMachine5a}, {@code BoundedSortingMachine},
+ * {@code IndexedSortingMachine}, and {@code ExternalSortingMachine}.
+ *
+ * <p>
+ * Clients whose entries record their own index in the array (as the handles
+ * of {@code IndexedSortingMachine} do) pass a {@code Placement} that is told
+ * the new index of every entry a helper moves.
+ * </p>
+ *
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * SUBTREE_IS_HEAP (
+ *   a: string of T,
+ *   start: integer,
+ *   stop: integer,
+ *   d: integer,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  [the subtree of a (when a is interpreted as a complete d-ary tree, where
+ *   the children of index i are at indices d * i + 1 through d * i + d) rooted
+ *   at index start and only through entry stop of a satisfies the heap
+ *   ordering property according to the relation r]
+ *
+ * SUBTREE_ARRAY_ENTRIES (
+ *   a: string of T,
+ *   start: integer,
+ *   stop: integer,
+ *   d: integer
+ *  ) : finite multiset of T is
+ *  [the multiset of entries in a that belong to the subtree of a
+ *   (when a is interpreted as a complete d-ary tree) rooted at
+ *   index start and only through entry stop]
+ * </pre>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+final class Heaps {
+
+    /**
+     * Arity of a binary heap.
+     */
+    static final int BINARY = 2;
+
+    /**
+     * Receives the new index of each entry moved by a heap helper.
+     *
+     * @param <T>
+     *            type of array entries
+     */
+    interface Placement<T> {
+
+        /**
+         * Reports that {@code x} is now at index {@code index} of the array.
+         *
+         * @param x
+         *            the entry moved
+         * @param index
+         *            its new index
+         */
+        void placed(T x, int index);
+
+    }
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private Heaps() {
+    }
+
+    /**
+     * Exchanges entries at positions {@code i} and {@code j} of {@code array},
+     * reporting their new positions to {@code placement} (if any).
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the array whose entries are to be exchanged
+     * @param i
+     *            one index
+     * @param j
+     *            the other index
+     * @param placement
+     *            receives the new positions, or null
+     * @updates array
+     * @requires 0 <= i < |array| and 0 <= j < |array|
+     * @ensures array = [#array with entries at positions i and j exchanged]
+     */
+    private static <T> void exchange(T[] array, int i, int j,
+            Placement<? super T> placement) {
+        T temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+        if (placement != null) {
+            placement.placed(array[i], i);
+            placement.placed(array[j], j);
+        }
+    }
+
+    /**
+     * Given an array that represents a complete arity-ary tree and an index
+     * referring to the root of a subtree that would be a heap except for its
+     * root, sifts the root down to turn that whole subtree into a heap.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param last
+     *            the index of the last entry in the heap
+     * @param arity
+     *            the number of children of each interior node
+     * @param order
+     *            total preorder for sorting
+     * @param placement
+     *            receives the new index of each entry moved, or null
+     * @updates array
+     * @requires <pre>
+     * 0 <= top  and  last < |array|  and  arity >= 2  and
+     * [entries of array[top, last] are not null]  and
+     * for all c: integer
+     *     where (1 <= c  and  c <= arity)
+     *   (SUBTREE_IS_HEAP(array, arity * top + c, last, arity,
+     *     [relation computed by order.compare method]))  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * SUBTREE_IS_HEAP(array, top, last, arity,
+     *     [relation computed by order.compare method])  and
+     * perms(array, #array)  and
+     * SUBTREE_ARRAY_ENTRIES(array, top, last, arity) =
+     *  SUBTREE_ARRAY_ENTRIES(#array, top, last, arity)  and
+     * [the other entries in array are the same as in #array]  and
+     * [placement has been told the new index of each entry moved]
+     * </pre>
+     */
+    static <T> void siftDown(T[] array, int top, int last, int arity,
+            Comparator<? super T> order, Placement<? super T> placement) {
+        assert array != null : "Violation of: array is not null";
+        assert order != null : "Violation of: order is not null";
+        assert 0 <= top : "Violation of: 0 <= top";
+        assert last < array.length : "Violation of: last < |array|";
+        assert arity >= 2 : "Violation of: arity >= 2";
+        if (ConventionChecking.isFull()) {
+            for (int c = 1; c <= arity; c++) {
+                assert isHeap(array, arity * top + c, last, arity, order) : ""
+                        + "Violation of: SUBTREE_IS_HEAP(array,"
+                        + " arity * top + c, last, arity, [relation computed"
+                        + " by order.compare method])";
+            }
+        }
+        /*
+         * Impractical to check last requires clause.
+         */
+
+        int first = arity * top + 1;
+
+        if (first <= last) {
+            //if at least one child exists, find the smallest child
+            int smallest = first;
+            int end = Math.min(first + arity - 1, last);
+            for (int child = first + 1; child <= end; child++) {
+                if (order.compare(array[smallest], array[child]) > 0) {
+                    smallest = child;
+                }
+            }
+
+            if (order.compare(array[top], array[smallest]) > 0) {
+                //if parent is larger than child, swap them & keep going
+                exchange(array, top, smallest, placement);
+                siftDown(array, smallest, last, arity, order, placement);
+            }
+        }
+    }
+
+    /**
+     * Same as {@code siftDown(array, top, last, arity, order, null)}.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param last
+     *            the index of the last entry in the heap
+     * @param arity
+     *            the number of children of each interior node
+     * @param order
+     *            total preorder for sorting
+     * @updates array
+     * @requires <pre>
+     * 0 <= top  and  last < |array|  and  arity >= 2  and
+     * [entries of array[top, last] are not null]  and
+     * for all c: integer
+     *     where (1 <= c  and  c <= arity)
+     *   (SUBTREE_IS_HEAP(array, arity * top + c, last, arity,
+     *     [relation computed by order.compare method]))  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * SUBTREE_IS_HEAP(array, top, last, arity,
+     *     [relation computed by order.compare method])  and
+     * perms(array, #array)  and
+     * SUBTREE_ARRAY_ENTRIES(array, top, last, arity) =
+     *  SUBTREE_ARRAY_ENTRIES(#array, top, last, arity)  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    static <T> void siftDown(T[] array, int top, int last, int arity,
+            Comparator<? super T> order) {
+        siftDown(array, top, last, arity, order, null);
+    }
+
+    /**
+     * Given an array that represents a complete arity-ary tree that is a heap
+     * except that the entry at {@code bottom} may be smaller than its
+     * ancestors, sifts that entry up to turn the tree into a heap.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete tree
+     * @param bottom
+     *            the index of the entry to sift up
+     * @param arity
+     *            the number of children of each interior node
+     * @param order
+     *            total preorder for sorting
+     * @param placement
+     *            receives the new index of each entry moved, or null
+     * @updates array
+     * @requires <pre>
+     * 0 <= bottom < |array|  and  arity >= 2  and
+     * [array would be a heap (through some last index >= bottom) if the entry
+     *  at bottom were replaced by its parent's]  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * [array is a heap through the same last index]  and
+     * perms(array, #array)  and
+     * [the other entries in array are the same as in #array]  and
+     * [placement has been told the new index of each entry moved]
+     * </pre>
+     */
+    static <T> void siftUp(T[] array, int bottom, int arity,
+            Comparator<? super T> order, Placement<? super T> placement) {
+        assert array != null : "Violation of: array is not null";
+        assert order != null : "Violation of: order is not null";
+        assert 0 <= bottom : "Violation of: 0 <= bottom";
+        assert bottom < array.length : "Violation of: bottom < |array|";
+        assert arity >= 2 : "Violation of: arity >= 2";
+        /*
+         * Impractical to check the other requires clauses.
+         */
+
+        if (bottom > 0) {
+            int parent = (bottom - 1) / arity;
+            if (order.compare(array[parent], array[bottom]) > 0) {
+                //if parent is larger than child, swap them & keep going
+                exchange(array, parent, bottom, placement);
+                siftUp(array, parent, arity, order, placement);
+            }
+        }
+    }
+
+    /**
+     * Same as {@code siftUp(array, bottom, arity, order, null)}.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete tree
+     * @param bottom
+     *            the index of the entry to sift up
+     * @param arity
+     *            the number of children of each interior node
+     * @param order
+     *            total preorder for sorting
+     * @updates array
+     * @requires <pre>
+     * 0 <= bottom < |array|  and  arity >= 2  and
+     * [array would be a heap (through some last index >= bottom) if the entry
+     *  at bottom were replaced by its parent's]  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * [array is a heap through the same last index]  and
+     * perms(array, #array)  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    static <T> void siftUp(T[] array, int bottom, int arity,
+            Comparator<? super T> order) {
+        siftUp(array, bottom, arity, order, null);
+    }
+
+    /**
+     * Checks if the subtree of the given {@code array} rooted at the given
+     * {@code top} is a heap.
+     *
+     * @param <T>
+     *            type of array entries
+     * @param array
+     *            the complete tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param last
+     *            the index of the last entry in the heap
+     * @param arity
+     *            the number of children of each interior node
+     * @param order
+     *            total preorder for sorting
+     * @return true if the subtree of the given {@code array} rooted at the
+     *         given {@code top} is a heap; false otherwise
+     * @requires <pre>
+     * 0 <= top  and  last < |array|  and  arity >= 2  and
+     * [entries of array[top, last] are not null]
+     * </pre>
+     * @ensures <pre>
+     * isHeap = SUBTREE_IS_HEAP(array, top, last, arity,
+     *     [relation computed by order.compare method])
+     * </pre>
+     */
+    static <T> boolean isHeap(T[] array, int top, int last, int arity,
+            Comparator<? super T> order) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= top : "Violation of: 0 <= top";
+        assert last < array.length : "Violation of: last < |array|";
+        assert arity >= 2 : "Violation of: arity >= 2";
+
+        boolean isHeap = true;
+        if (top <= last) {
+            assert array[top] != null : ""
+                    + "Violation of: entries of array[top, last] are not null";
+            int child = arity * top + 1;
+            int end = Math.min(child + arity - 1, last);
+            while (isHeap && child <= end) {
+                //check each existing child and its subtree
+                isHeap = (order.compare(array[top], array[child]) <= 0)
+                        && isHeap(array, child, last, arity, order);
+                child++;
+            }
+        }
+        return isHeap;
+    }
+
+}
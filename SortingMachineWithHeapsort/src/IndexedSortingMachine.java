@@ -0,0 +1,531 @@
+import java.util.Arrays;
+import java.util.Comparator;
+
+import components.standard.Standard;
+
+/**
+ * Addressable priority queue represented as a binary heap of handles, each of
+ * which records its own position in the heap.
+ *
+ * <p>
+ * Unlike a {@code SortingMachine} it has no insertion and extraction modes:
+ * {@code add} and {@code removeFirst} may be interleaved freely, and both are
+ * O(log n). {@code add} returns a {@code Handle} through which the entry can
+ * later be given a new value ({@code decreaseKey}, {@code increaseKey}) or
+ * removed ({@code remove}), also in O(log n), without rebuilding the heap.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code IndexedSortingMachine} entries
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ *
+ * SUBTREE_IS_HEAP (
+ *   a: string of Handle,
+ *   start: integer,
+ *   stop: integer,
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  [the subtree of a (when a is interpreted as a complete binary tree) rooted
+ *   at index start and only through entry stop of a satisfies the heap
+ *   ordering property according to the relation r applied to the entries of
+ *   the handles]
+ * </pre>
+ * @mathmodel <pre>
+ * type IndexedSortingMachineModel is (
+ *   ordering: binary relation on T,
+ *   contents: finite set of (handle: Handle, entry: T)
+ *  )
+ *  exemplar m
+ *  constraint
+ *   IS_TOTAL_PREORDER(m.ordering)
+ * </pre>
+ * @convention <pre>
+ * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
+ * 0 <= $this.heapSize <= |$this.heap|  and
+ * for all i: integer
+ *     where (0 <= i  and  i < $this.heapSize)
+ *   ($this.heap[i] is not null  and
+ *    $this.heap[i].position = i  and
+ *    $this.heap[i].entry is not null)  and
+ * SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
+ *     [relation computed by $this.machineOrder.compare method])
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.machineOrder,
+ *         {(h, h.entry): h is in entries($this.heap[0, $this.heapSize))})
+ * </pre>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public class IndexedSortingMachine<T>
+        implements Standard<IndexedSortingMachine<T>> {
+
+    /**
+     * Handle on one entry of an {@code IndexedSortingMachine}, returned by
+     * {@code add} and valid until the entry is removed (or the machine is
+     * cleared).
+     *
+     * @param <T>
+     *            type of the entry
+     */
+    public static final class Handle<T> {
+
+        /**
+         * Entry.
+         */
+        private T entry;
+
+        /**
+         * Index of this handle in the heap that holds it.
+         */
+        private int position;
+
+        /**
+         * Constructor from entry and position.
+         *
+         * @param entry
+         *            the entry
+         * @param position
+         *            the index of this handle in the heap
+         */
+        private Handle(T entry, int position) {
+            this.entry = entry;
+            this.position = position;
+        }
+
+        /**
+         * Reports the entry this handle refers to (or referred to, if it has
+         * been removed).
+         *
+         * @return the entry
+         */
+        public T entry() {
+            return this.entry;
+        }
+
+    }
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial capacity of the heap array.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Records in each handle moved by a heap helper its new position.
+     */
+    private static final Heaps.Placement<Handle<?>> RECORD_POSITION = (
+            handle, i) -> handle.position = i;
+
+    /**
+     * Order.
+     */
+    private Comparator<T> machineOrder;
+
+    /**
+     * Order on handles, by their entries.
+     */
+    private Comparator<Handle<T>> handleOrder;
+
+    /**
+     * Heap.
+     */
+    private Handle<T>[] heap;
+
+    /**
+     * Heap size.
+     */
+    private int heapSize;
+
+    /**
+     * Puts {@code handle} at index {@code i} of {@code array} and records that
+     * position in the handle.
+     *
+     * @param <T>
+     *            type of entries
+     * @param array
+     *            the array
+     * @param i
+     *            the index
+     * @param handle
+     *            the handle
+     * @updates array, handle.position
+     * @requires 0 <= i < |array|
+     * @ensures array[i] = handle  and  handle.position = i
+     */
+    private static <T> void place(Handle<T>[] array, int i, Handle<T> handle) {
+        array[i] = handle;
+        handle.position = i;
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 <= $this.heapSize <= |$this.heap|  and
+     * for all i: integer
+     *     where (0 <= i  and  i < $this.heapSize)
+     *   ($this.heap[i] is not null  and
+     *    $this.heap[i].position = i  and
+     *    $this.heap[i].entry is not null)  and
+     * SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
+     *     [relation computed by $this.machineOrder.compare method])
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 0 <= this.heapSize : "Violation of: 0 <= $this.heapSize";
+        assert this.heapSize <= this.heap.length : ""
+                + "Violation of: $this.heapSize <= |$this.heap|";
+        if (ConventionChecking.shouldCheck()) {
+            //check the whole heap, or just a random subtree when sampling
+            int top = 0;
+            int end = this.heapSize;
+            if (ConventionChecking.isSampling() && this.heapSize > 0) {
+                top = ConventionChecking.sampleIndex(this.heapSize);
+                end = top + 1;
+            }
+            for (int i = top; i < end; i++) {
+                assert this.heap[i] != null && this.heap[i].position == i
+                        && this.heap[i].entry != null : ""
+                                + "Violation of: $this.heap[i] is not null and"
+                                + " $this.heap[i].position = i and"
+                                + " $this.heap[i].entry is not null";
+            }
+            assert Heaps.isHeap(this.heap, top, this.heapSize - 1,
+                    Heaps.BINARY, this.handleOrder) : ""
+                            + "Violation of: SUBTREE_IS_HEAP($this.heap, 0,"
+                            + " $this.heapSize - 1, [relation computed by"
+                            + " $this.machineOrder.compare method])";
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method]
+     * @ensures <pre>
+     * $this.machineOrder = order  and
+     * $this.handleOrder = [order applied to the entries of handles]  and
+     * $this.heapSize = 0
+     * </pre>
+     */
+    @SuppressWarnings("unchecked")
+    private void createNewRep(Comparator<T> order) {
+        this.machineOrder = order;
+
+        this.handleOrder = (h1, h2) -> order.compare(h1.entry, h2.entry);
+
+        /*
+         * With "new Handle<T>[...]" in place of "new Handle<?>[...]" it does
+         * not compile; as shown, it results in a warning about an unchecked
+         * cast, though it cannot fail.
+         */
+        this.heap = (Handle<T>[]) new Handle<?>[INITIAL_CAPACITY];
+
+        this.heapSize = 0;
+    }
+
+    /**
+     * Removes the handle at index {@code i} of the heap, restoring the heap
+     * property.
+     *
+     * @param i
+     *            the index of the handle to remove
+     * @return the removed handle
+     * @updates $this.heap, $this.heapSize
+     * @requires 0 <= i < $this.heapSize
+     * @ensures <pre>
+     * removeAt = #$this.heap[i]  and
+     * entries($this.heap[0, $this.heapSize)) =
+     *   entries(#$this.heap[0, #$this.heapSize)) \ {removeAt}  and
+     * removeAt.position = -1
+     * </pre>
+     */
+    private Handle<T> removeAt(int i) {
+        assert 0 <= i : "Violation of: 0 <= i";
+        assert i < this.heapSize : "Violation of: i < $this.heapSize";
+
+        Handle<T> removed = this.heap[i];
+        this.heapSize--;
+        if (i < this.heapSize) {
+            //fill the hole with the last entry, which may belong above or below
+            Handle<T> moved = this.heap[this.heapSize];
+            place(this.heap, i, moved);
+            Heaps.siftUp(this.heap, i, Heaps.BINARY, this.handleOrder,
+                    RECORD_POSITION);
+            Heaps.siftDown(this.heap, moved.position, this.heapSize - 1,
+                    Heaps.BINARY, this.handleOrder, RECORD_POSITION);
+        }
+        this.heap[this.heapSize] = null;
+        removed.position = -1;
+        return removed;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * Constructor from order.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @ensures this = (order, {})
+     */
+    public IndexedSortingMachine(Comparator<T> order) {
+        this.createNewRep(order);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public final IndexedSortingMachine<T> newInstance() {
+        try {
+            return this.getClass().getConstructor(Comparator.class)
+                    .newInstance(this.machineOrder);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.machineOrder);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(IndexedSortingMachine<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        this.machineOrder = source.machineOrder;
+        this.handleOrder = source.handleOrder;
+        this.heap = source.heap;
+        this.heapSize = source.heapSize;
+        source.createNewRep(source.machineOrder);
+        assert this.conventionHolds();
+        assert source.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    /**
+     * Adds {@code x} to the contents of {@code this} and returns the handle on
+     * the new entry.
+     *
+     * @param x
+     *            the element to be added
+     * @return the handle on x
+     * @aliases reference x
+     * @updates this.contents
+     * @ensures <pre>
+     * add is not in #this.contents.handle  and
+     * this.contents = #this.contents union {(add, x)}
+     * </pre>
+     */
+    public final Handle<T> add(T x) {
+        assert x != null : "Violation of: x is not null";
+
+        if (this.heapSize == this.heap.length) {
+            this.heap = Arrays.copyOf(this.heap, 2 * this.heap.length);
+        }
+        Handle<T> handle = new Handle<T>(x, this.heapSize);
+        this.heap[this.heapSize] = handle;
+        this.heapSize++;
+        Heaps.siftUp(this.heap, handle.position, Heaps.BINARY,
+                this.handleOrder, RECORD_POSITION);
+
+        assert this.conventionHolds();
+
+        return handle;
+    }
+
+    /**
+     * Reports the first entry of {@code this}, without removing it.
+     *
+     * @return the first entry
+     * @requires this.contents /= {}
+     * @ensures <pre>
+     * first is in this.contents.entry  and
+     * for all x: T where (x is in this.contents.entry)
+     *   ([relation computed by this.ordering.compare method](first, x))
+     * </pre>
+     */
+    public final T first() {
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        return this.heap[0].entry;
+    }
+
+    /**
+     * Removes and returns some "first" ("smallest") entry from the contents of
+     * {@code this}.
+     *
+     * @return the entry removed
+     * @updates this.contents
+     * @requires this.contents /= {}
+     * @ensures <pre>
+     * (removeFirst is in #this.contents.entry)  and
+     * for all x: T where (x is in #this.contents.entry)
+     *   ([relation computed by #this.ordering.compare method](removeFirst, x))
+     *   and
+     * this.contents = #this.contents \ {(h, removeFirst)} for the handle h of
+     *   the entry removed
+     * </pre>
+     */
+    public final T removeFirst() {
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        T first = this.removeAt(0).entry;
+
+        assert this.conventionHolds();
+
+        return first;
+    }
+
+    /**
+     * Reports whether {@code handle} refers to an entry of {@code this}.
+     *
+     * @param handle
+     *            the handle
+     * @return true iff handle is in this.contents.handle
+     * @ensures contains = (handle is in this.contents.handle)
+     */
+    public final boolean contains(Handle<T> handle) {
+        assert handle != null : "Violation of: handle is not null";
+
+        return 0 <= handle.position && handle.position < this.heapSize
+                && this.heap[handle.position] == handle;
+    }
+
+    /**
+     * Replaces the entry of {@code handle} by {@code x}, which is no larger.
+     *
+     * @param handle
+     *            the handle on the entry to replace
+     * @param x
+     *            the new entry
+     * @aliases reference x
+     * @updates this.contents
+     * @requires <pre>
+     * handle is in this.contents.handle  and
+     * [relation computed by this.ordering.compare method](x, handle.entry)
+     * </pre>
+     * @ensures this.contents = #this.contents with handle.entry replaced by x
+     */
+    public final void decreaseKey(Handle<T> handle, T x) {
+        assert handle != null : "Violation of: handle is not null";
+        assert x != null : "Violation of: x is not null";
+        assert this.contains(handle) : ""
+                + "Violation of: handle is in this.contents.handle";
+        assert this.machineOrder.compare(x, handle.entry) <= 0 : ""
+                + "Violation of: x <= handle.entry";
+
+        handle.entry = x;
+        Heaps.siftUp(this.heap, handle.position, Heaps.BINARY,
+                this.handleOrder, RECORD_POSITION);
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Replaces the entry of {@code handle} by {@code x}, which is no smaller.
+     *
+     * @param handle
+     *            the handle on the entry to replace
+     * @param x
+     *            the new entry
+     * @aliases reference x
+     * @updates this.contents
+     * @requires <pre>
+     * handle is in this.contents.handle  and
+     * [relation computed by this.ordering.compare method](handle.entry, x)
+     * </pre>
+     * @ensures this.contents = #this.contents with handle.entry replaced by x
+     */
+    public final void increaseKey(Handle<T> handle, T x) {
+        assert handle != null : "Violation of: handle is not null";
+        assert x != null : "Violation of: x is not null";
+        assert this.contains(handle) : ""
+                + "Violation of: handle is in this.contents.handle";
+        assert this.machineOrder.compare(handle.entry, x) <= 0 : ""
+                + "Violation of: handle.entry <= x";
+
+        handle.entry = x;
+        Heaps.siftDown(this.heap, handle.position, this.heapSize - 1,
+                Heaps.BINARY, this.handleOrder, RECORD_POSITION);
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Removes the entry of {@code handle} from {@code this} and returns it.
+     *
+     * @param handle
+     *            the handle on the entry to remove
+     * @return the entry removed
+     * @updates this.contents
+     * @requires handle is in this.contents.handle
+     * @ensures <pre>
+     * remove = handle.entry  and
+     * this.contents = #this.contents \ {(handle, handle.entry)}
+     * </pre>
+     */
+    public final T remove(Handle<T> handle) {
+        assert handle != null : "Violation of: handle is not null";
+        assert this.contains(handle) : ""
+                + "Violation of: handle is in this.contents.handle";
+
+        T entry = this.removeAt(handle.position).entry;
+
+        assert this.conventionHolds();
+
+        return entry;
+    }
+
+    /**
+     * Reports {@code Comparator} being used for sorting by {@code this}.
+     *
+     * @return Comparator used for sorting
+     * @ensures order = this.ordering
+     */
+    public final Comparator<T> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    /**
+     * Reports the number of entries in {@code this}.
+     *
+     * @return the (set) size of this.contents
+     * @ensures size = |this.contents|
+     */
+    public final int size() {
+        assert this.conventionHolds();
+        return this.heapSize;
+    }
+
+}
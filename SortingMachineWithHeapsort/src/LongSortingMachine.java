@@ -0,0 +1,315 @@
+import java.util.Arrays;
+
+import components.standard.Standard;
+
+/**
+ * Sorting machine for {@code long} values in ascending order, represented as
+ * a {@code long} array, so that no value is ever boxed and no
+ * {@code Comparator} is called.
+ *
+ * <p>
+ * It has the same insertion/extraction mode semantics as
+ * {@code SortingMachine}: values are added in insertion mode, and removed
+ * smallest first in extraction mode. In extraction mode the array is either a
+ * binary heap (the default) or, for a machine constructed with
+ * {@code radixSort} true, fully sorted by an LSD radix sort in
+ * {@code changeToExtractionMode}, after which {@code removeFirst} is O(1).
+ * </p>
+ *
+ * @mathmodel <pre>
+ * type LongSortingMachineModel is (
+ *   insertion_mode: boolean,
+ *   contents: finite multiset of integer
+ *  )
+ * </pre>
+ * @convention <pre>
+ * 0 <= $this.size <= |$this.entries|  and
+ * if not $this.insertionMode then
+ *   if $this.radixSort then
+ *     0 <= $this.first <= $this.size  and
+ *     [$this.entries[$this.first, $this.size) is sorted in ascending order]
+ *   else
+ *     $this.first = 0  and
+ *     [$this.entries[0, $this.size) is a binary min-heap]
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode,
+ *         multiset_entries($this.entries[$this.first, $this.size)))
+ * </pre>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public class LongSortingMachine implements Standard<LongSortingMachine> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial capacity of the entries array.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Whether extraction mode uses a radix-sorted array instead of a heap.
+     */
+    private boolean radixSort;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries.
+     */
+    private long[] entries;
+
+    /**
+     * Index one past the last entry.
+     */
+    private int size;
+
+    /**
+     * Index of the first entry not yet removed (sorted array only).
+     */
+    private int first;
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 <= $this.size <= |$this.entries|  and
+     * if not $this.insertionMode then
+     *   if $this.radixSort then
+     *     0 <= $this.first <= $this.size  and
+     *     [$this.entries[$this.first, $this.size) is sorted in ascending order]
+     *   else
+     *     $this.first = 0  and
+     *     [$this.entries[0, $this.size) is a binary min-heap]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 0 <= this.size : "Violation of: 0 <= $this.size";
+        assert this.size <= this.entries.length : ""
+                + "Violation of: $this.size <= |$this.entries|";
+        assert 0 <= this.first : "Violation of: 0 <= $this.first";
+        assert this.first <= this.size : ""
+                + "Violation of: $this.first <= $this.size";
+        if (!this.insertionMode && ConventionChecking.shouldCheck()) {
+            //check every entry, or just a random one when sampling
+            int start = this.first;
+            int end = this.size;
+            if (ConventionChecking.isSampling() && end > start) {
+                start += ConventionChecking.sampleIndex(end - start);
+                end = start + 1;
+            }
+            for (int i = start; i < end; i++) {
+                if (this.radixSort) {
+                    assert i + 1 >= this.size
+                            || this.entries[i] <= this.entries[i + 1] : ""
+                                    + "Violation of: [$this.entries["
+                                    + "$this.first, $this.size) is sorted]";
+                } else {
+                    assert i == 0 || this.entries[(i - 1)
+                            / 2] <= this.entries[i] : ""
+                                    + "Violation of: [$this.entries[0,"
+                                    + " $this.size) is a binary min-heap]";
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param useRadixSort
+     *            whether extraction mode uses a radix-sorted array
+     * @ensures <pre>
+     * $this.radixSort = useRadixSort  and
+     * $this.insertionMode = true  and
+     * $this.size = 0  and
+     * $this.first = 0
+     * </pre>
+     */
+    private void createNewRep(boolean useRadixSort) {
+        this.radixSort = useRadixSort;
+
+        this.insertionMode = true;
+
+        this.entries = new long[INITIAL_CAPACITY];
+
+        this.size = 0;
+
+        this.first = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor, using a heap in extraction mode.
+     */
+    public LongSortingMachine() {
+        this.createNewRep(false);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor choosing how extraction mode is organized.
+     *
+     * @param radixSort
+     *            whether {@code changeToExtractionMode} radix sorts the entries
+     *            (instead of building a heap)
+     * @ensures this = (true, {})
+     */
+    public LongSortingMachine(boolean radixSort) {
+        this.createNewRep(radixSort);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final LongSortingMachine newInstance() {
+        try {
+            return this.getClass().getConstructor(boolean.class)
+                    .newInstance(this.radixSort);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.radixSort);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(LongSortingMachine source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        this.radixSort = source.radixSort;
+        this.insertionMode = source.insertionMode;
+        this.entries = source.entries;
+        this.size = source.size;
+        this.first = source.first;
+        source.createNewRep(source.radixSort);
+        assert this.conventionHolds();
+        assert source.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    /**
+     * Adds {@code x} to the contents of {@code this}.
+     *
+     * @param x
+     *            the value to be added
+     * @updates this.contents
+     * @requires this.insertion_mode
+     * @ensures this.contents = #this.contents union {x}
+     */
+    public final void add(long x) {
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        if (this.size == this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries,
+                    2 * this.entries.length);
+        }
+        this.entries[this.size] = x;
+        this.size++;
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Changes the mode of {@code this} from insertion to extraction.
+     *
+     * @updates this.insertion_mode
+     * @requires this.insertion_mode
+     * @ensures not this.insertion_mode
+     */
+    public final void changeToExtractionMode() {
+        assert this.insertionMode : "Violation of: this.insertion_mode";
+
+        this.insertionMode = false;
+        if (this.radixSort) {
+            PrimitiveSorting.radixSort(this.entries, this.size);
+        } else {
+            for (int i = this.size / 2 - 1; i >= 0; i--) {
+                PrimitiveSorting.siftDown(this.entries, i, this.size - 1);
+            }
+        }
+
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Removes and returns the smallest value in the contents of {@code this}.
+     *
+     * @return the smallest value
+     * @updates this.contents
+     * @requires not this.insertion_mode and this.contents /= {}
+     * @ensures <pre>
+     * removeFirst is in #this.contents  and
+     * for all y: integer where (y is in #this.contents) (removeFirst <= y)  and
+     * this.contents = #this.contents \ {removeFirst}
+     * </pre>
+     */
+    public final long removeFirst() {
+        assert !this.insertionMode : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        long result;
+        if (this.radixSort) {
+            result = this.entries[this.first];
+            this.first++;
+        } else {
+            //replace the root with the last entry & sift it down
+            result = this.entries[0];
+            this.size--;
+            this.entries[0] = this.entries[this.size];
+            PrimitiveSorting.siftDown(this.entries, 0, this.size - 1);
+        }
+
+        assert this.conventionHolds();
+
+        return result;
+    }
+
+    /**
+     * Reports whether {@code this} is in insertion mode.
+     *
+     * @return true iff {@code this} is in insertion mode
+     * @ensures isInInsertionMode = this.insertion_mode
+     */
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    /**
+     * Reports the number of values in {@code this}.
+     *
+     * @return the (multiset) size of this.contents
+     * @ensures size = |this.contents|
+     */
+    public final int size() {
+        assert this.conventionHolds();
+        return this.size - this.first;
+    }
+
+}
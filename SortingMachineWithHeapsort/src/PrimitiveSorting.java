@@ -0,0 +1,248 @@
+import java.util.Arrays;
+
+/**
+ * Heap and radix sort helpers for arrays of {@code int} and {@code long}
+ * values, shared by {@code IntSortingMachine}, {@code LongSortingMachine}, and
+ * {@code DoubleSortingMachine} (which radix sorts {@code long} sort keys).
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+final class PrimitiveSorting {
+
+    /**
+     * Number of bits in each radix sort digit.
+     */
+    private static final int DIGIT_BITS = 8;
+
+    /**
+     * Number of distinct radix sort digits.
+     */
+    private static final int DIGIT_VALUES = 1 << DIGIT_BITS;
+
+    /**
+     * Mask selecting one radix sort digit.
+     */
+    private static final int DIGIT_MASK = DIGIT_VALUES - 1;
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private PrimitiveSorting() {
+    }
+
+    /**
+     * Given an array whose entries {@code [0, last]} represent a complete
+     * binary tree and an index referring to the root of a subtree that would
+     * be a min-heap except for its root, sifts the root down to turn that whole
+     * subtree into a min-heap.
+     *
+     * @param array
+     *            the complete binary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param last
+     *            the index of the last entry in the heap
+     * @updates array
+     * @requires <pre>
+     * 0 <= top  and  last < |array|  and
+     * [the subtrees rooted at the children of top are min-heaps]
+     * </pre>
+     * @ensures <pre>
+     * [the subtree rooted at top is a min-heap]  and
+     * perms(array, #array)  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    static void siftDown(int[] array, int top, int last) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= top : "Violation of: 0 <= top";
+        assert last < array.length : "Violation of: last < |array|";
+
+        //move the hole down instead of swapping at every level
+        int value = array[top];
+        int hole = top;
+        int child = 2 * hole + 1;
+        while (child <= last) {
+            if (child < last && array[child + 1] < array[child]) {
+                //if right child exists & is smaller
+                child++;
+            }
+            if (array[child] >= value) {
+                break;
+            }
+            array[hole] = array[child];
+            hole = child;
+            child = 2 * hole + 1;
+        }
+        array[hole] = value;
+    }
+
+    /**
+     * Sorts {@code array[0, length)} in ascending order with an LSD radix sort
+     * on {@code DIGIT_BITS}-bit digits.
+     *
+     * @param array
+     *            the array to sort
+     * @param length
+     *            the number of entries to sort
+     * @updates array
+     * @requires 0 <= length <= |array|
+     * @ensures <pre>
+     * [array[0, length) is sorted in ascending order]  and
+     * perms(array[0, length), #array[0, length))  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    static void radixSort(int[] array, int length) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= length : "Violation of: 0 <= length";
+        assert length <= array.length : "Violation of: length <= |array|";
+
+        if (length < 2) {
+            //nothing to sort
+            return;
+        }
+
+        int[] from = array;
+        int[] to = new int[length];
+        int[] counts = new int[DIGIT_VALUES + 1];
+        for (int shift = 0; shift < Integer.SIZE; shift += DIGIT_BITS) {
+            //flipping the sign bit makes unsigned digit order numeric order
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < length; i++) {
+                int digit = ((from[i] ^ Integer.MIN_VALUE) >>> shift)
+                        & DIGIT_MASK;
+                counts[digit + 1]++;
+            }
+            if (counts[(((from[0] ^ Integer.MIN_VALUE) >>> shift) & DIGIT_MASK)
+                    + 1] == length) {
+                //every entry has the same digit, so this pass changes nothing
+                continue;
+            }
+            for (int d = 0; d < DIGIT_VALUES; d++) {
+                counts[d + 1] += counts[d];
+            }
+            for (int i = 0; i < length; i++) {
+                int digit = ((from[i] ^ Integer.MIN_VALUE) >>> shift)
+                        & DIGIT_MASK;
+                to[counts[digit]] = from[i];
+                counts[digit]++;
+            }
+            int[] temp = from;
+            from = to;
+            to = temp;
+        }
+        if (from != array) {
+            System.arraycopy(from, 0, array, 0, length);
+        }
+    }
+
+    /**
+     * Given an array whose entries {@code [0, last]} represent a complete
+     * binary tree and an index referring to the root of a subtree that would
+     * be a min-heap except for its root, sifts the root down to turn that whole
+     * subtree into a min-heap.
+     *
+     * @param array
+     *            the complete binary tree
+     * @param top
+     *            the index of the root of the "subtree"
+     * @param last
+     *            the index of the last entry in the heap
+     * @updates array
+     * @requires <pre>
+     * 0 <= top  and  last < |array|  and
+     * [the subtrees rooted at the children of top are min-heaps]
+     * </pre>
+     * @ensures <pre>
+     * [the subtree rooted at top is a min-heap]  and
+     * perms(array, #array)  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    static void siftDown(long[] array, int top, int last) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= top : "Violation of: 0 <= top";
+        assert last < array.length : "Violation of: last < |array|";
+
+        //move the hole down instead of swapping at every level
+        long value = array[top];
+        int hole = top;
+        int child = 2 * hole + 1;
+        while (child <= last) {
+            if (child < last && array[child + 1] < array[child]) {
+                //if right child exists & is smaller
+                child++;
+            }
+            if (array[child] >= value) {
+                break;
+            }
+            array[hole] = array[child];
+            hole = child;
+            child = 2 * hole + 1;
+        }
+        array[hole] = value;
+    }
+
+    /**
+     * Sorts {@code array[0, length)} in ascending order with an LSD radix sort
+     * on {@code DIGIT_BITS}-bit digits.
+     *
+     * @param array
+     *            the array to sort
+     * @param length
+     *            the number of entries to sort
+     * @updates array
+     * @requires 0 <= length <= |array|
+     * @ensures <pre>
+     * [array[0, length) is sorted in ascending order]  and
+     * perms(array[0, length), #array[0, length))  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    static void radixSort(long[] array, int length) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= length : "Violation of: 0 <= length";
+        assert length <= array.length : "Violation of: length <= |array|";
+
+        if (length < 2) {
+            //nothing to sort
+            return;
+        }
+
+        long[] from = array;
+        long[] to = new long[length];
+        int[] counts = new int[DIGIT_VALUES + 1];
+        for (int shift = 0; shift < Long.SIZE; shift += DIGIT_BITS) {
+            //flipping the sign bit makes unsigned digit order numeric order
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < length; i++) {
+                int digit = (int) ((from[i] ^ Long.MIN_VALUE) >>> shift)
+                        & DIGIT_MASK;
+                counts[digit + 1]++;
+            }
+            if (counts[((int) ((from[0] ^ Long.MIN_VALUE) >>> shift)
+                    & DIGIT_MASK) + 1] == length) {
+                //every entry has the same digit, so this pass changes nothing
+                continue;
+            }
+            for (int d = 0; d < DIGIT_VALUES; d++) {
+                counts[d + 1] += counts[d];
+            }
+            for (int i = 0; i < length; i++) {
+                int digit = (int) ((from[i] ^ Long.MIN_VALUE) >>> shift)
+                        & DIGIT_MASK;
+                to[counts[digit]] = from[i];
+                counts[digit]++;
+            }
+            long[] temp = from;
+            from = to;
+            to = temp;
+        }
+        if (from != array) {
+            System.arraycopy(from, 0, array, 0, length);
+        }
+    }
+
+}
@@ -1,6 +1,8 @@
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
 
 import components.queue.Queue;
 import components.queue.Queue1L;
@@ -11,6 +13,35 @@ import components.sortingmachine.SortingMachineSecondary;
  * {@code SortingMachine} represented as a {@code Queue} and an array (using an
  * embedding of heap sort), with implementations of primary methods.
  *
+ * <p>
+ * The heap is a complete d-ary tree, where the arity d is chosen at
+ * construction (2 by default). A larger arity makes the heap shallower, so
+ * each {@code removeFirst} visits fewer levels (each one a likely cache miss
+ * for large heaps) at the price of more comparisons per level.
+ * </p>
+ *
+ * <p>
+ * Alternatively, a machine constructed with
+ * {@link ExtractionEngine#PARALLEL_SORT} sorts all entries with a parallel
+ * (fork/join) merge sort in {@code changeToExtractionMode} and then serves
+ * each {@code removeFirst} from the sorted array in constant time. This pays
+ * off for clients that drain the whole machine.
+ * </p>
+ *
+ * <p>
+ * With either engine, {@code changeToExtractionMode} itself is O(1): the heap
+ * (or sorted array) is built from the buffered entries by the first
+ * {@code removeFirst}, so a machine that is switched to extraction mode and
+ * then only iterated over or abandoned never pays for it.
+ * </p>
+ *
+ * <p>
+ * In extraction mode, {@link #sortedIterator()} visits the entries in sorted
+ * order without removing them: with the heap engine it walks the heap with an
+ * auxiliary frontier heap of indices, so the first k entries cost
+ * O(k log k) (times the arity) no matter how many entries there are.
+ * </p>
+ *
  * @param <T>
  *            type of {@code SortingMachine} entries
  * @mathdefinitions <pre>
@@ -25,39 +56,42 @@ import components.sortingmachine.SortingMachineSecondary;
  *   a: string of T,
  *   start: integer,
  *   stop: integer,
+ *   d: integer,
  *   r: binary relation on T
  *  ) : boolean is
- *  [the subtree of a (when a is interpreted as a complete binary tree) rooted
+ *  [the subtree of a (when a is interpreted as a complete d-ary tree, where
+ *   the children of index i are at indices d * i + 1 through d * i + d) rooted
  *   at index start and only through entry stop of a satisfies the heap
  *   ordering property according to the relation r]
- *
- * SUBTREE_ARRAY_ENTRIES (
- *   a: string of T,
- *   start: integer,
- *   stop: integer
- *  ) : finite multiset of T is
- *  [the multiset of entries in a that belong to the subtree of a
- *   (when a is interpreted as a complete binary tree) rooted at
- *   index start and only through entry stop]
  * </pre>
  * @convention <pre>
  * IS_TOTAL_PREORDER([relation computed by $this.machineOrder.compare method]  and
- * if $this.insertionMode then
+ * $this.arity >= 2  and
+ * if $this.insertionMode  or  not $this.arrayReady then
  *   $this.heapSize = 0
  * else
  *   $this.entries = <>  and
  *   for all i: integer
  *       where (0 <= i  and  i < |$this.heap|)
  *     ([entry at position i in $this.heap is not null])  and
- *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
- *     [relation computed by $this.machineOrder.compare method])  and
- *   0 <= $this.heapSize <= |$this.heap|
+ *   0 <= $this.heapSize <= |$this.heap|  and
+ *   if $this.engine = HEAP then
+ *     SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1, $this.arity,
+ *       [relation computed by $this.machineOrder.compare method])
+ *   else
+ *     [$this.heap[|$this.heap| - $this.heapSize, |$this.heap|) is sorted
+ *      according to the relation computed by $this.machineOrder.compare]
  * </pre>
  * @correspondence <pre>
  * if $this.insertionMode then
  *   this = (true, $this.machineOrder, multiset_entries($this.entries))
- * else
+ * else if not $this.arrayReady then
+ *   this = (false, $this.machineOrder, multiset_entries($this.entries))
+ * else if $this.engine = HEAP then
  *   this = (false, $this.machineOrder, multiset_entries($this.heap[0, $this.heapSize)))
+ * else
+ *   this = (false, $this.machineOrder,
+ *     multiset_entries($this.heap[|$this.heap| - $this.heapSize, |$this.heap|)))
  * </pre>
  *
  * @author Selin Kirbas & [Removed for privacy]
@@ -65,10 +99,37 @@ import components.sortingmachine.SortingMachineSecondary;
  */
 public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
 
+    /**
+     * Ways of organizing the entries for extraction.
+     */
+    public enum ExtractionEngine {
+        /**
+         * Build a heap in {@code changeToExtractionMode} and sift down after
+         * each {@code removeFirst}.
+         */
+        HEAP,
+        /**
+         * Sort all entries with a parallel merge sort in
+         * {@code changeToExtractionMode} and remove them in order.
+         */
+        PARALLEL_SORT
+    }
+
     /*
      * Private members --------------------------------------------------------
      */
 
+    /**
+     * Arity of the heap used when none is given to the constructor.
+     */
+    private static final int DEFAULT_ARITY = 2;
+
+    /**
+     * Number of consecutive sorted entries checked when convention checking
+     * is sampled.
+     */
+    private static final int SAMPLE_LENGTH = 64;
+
     /**
      * Order.
      */
@@ -94,6 +155,22 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      */
     private int heapSize;
 
+    /**
+     * Number of children of each interior node of the heap.
+     */
+    private int arity;
+
+    /**
+     * How the entries are organized for extraction.
+     */
+    private ExtractionEngine engine;
+
+    /**
+     * Whether, in extraction mode, the entries have already been moved from
+     * {@code entries} into {@code heap}.
+     */
+    private boolean arrayReady;
+
     /**
      * Exchanges entries at indices {@code i} and {@code j} of {@code array}.
      *
@@ -127,248 +204,211 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     }
 
     /**
-     * Given an array that represents a complete binary tree and an index
-     * referring to the root of a subtree that would be a heap except for its
-     * root, sifts the root down to turn that whole subtree into a heap.
+     * Heapifies the subtree of the given array rooted at the given {@code top}.
      *
      * @param <T>
      *            type of array entries
      * @param array
-     *            the complete binary tree
+     *            the complete tree
      * @param top
-     *            the index of the root of the "subtree"
-     * @param last
-     *            the index of the last entry in the heap
+     *            the index of the root of the "subtree" to heapify
+     * @param arity
+     *            the number of children of each interior node
      * @param order
-     *            total preorder for sorting
+     *            the total preorder for sorting
      * @updates array
      * @requires <pre>
-     * 0 <= top  and  last < |array|  and
+     * 0 <= top  and  arity >= 2  and
      * for all i: integer
      *     where (0 <= i  and  i < |array|)
      *   ([entry at position i in array is not null])  and
-     * [subtree rooted at {@code top} is a complete binary tree]  and
-     * SUBTREE_IS_HEAP(array, 2 * top + 1, last,
-     *     [relation computed by order.compare method])  and
-     * SUBTREE_IS_HEAP(array, 2 * top + 2, last,
-     *     [relation computed by order.compare method])  and
+     * [subtree rooted at {@code top} is a complete arity-ary tree]  and
      * IS_TOTAL_PREORDER([relation computed by order.compare method])
      * </pre>
      * @ensures <pre>
-     * SUBTREE_IS_HEAP(array, top, last,
+     * SUBTREE_IS_HEAP(array, top, |array| - 1, arity,
      *     [relation computed by order.compare method])  and
-     * perms(array, #array)  and
-     * SUBTREE_ARRAY_ENTRIES(array, top, last) =
-     *  SUBTREE_ARRAY_ENTRIES(#array, top, last)  and
-     * [the other entries in array are the same as in #array]
+     * perms(array, #array)
      * </pre>
      */
-    private static <T> void siftDown(T[] array, int top, int last,
+    private static <T> void heapify(T[] array, int top, int arity,
             Comparator<T> order) {
         assert array != null : "Violation of: array is not null";
         assert order != null : "Violation of: order is not null";
         assert 0 <= top : "Violation of: 0 <= top";
-        assert last < array.length : "Violation of: last < |array|";
-        for (int i = 0; i < array.length; i++) {
-            assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
+        assert arity >= 2 : "Violation of: arity >= 2";
+        if (ConventionChecking.isFull()) {
+            for (int i = 0; i < array.length; i++) {
+                assert array[i] != null : ""
+                        + "Violation of: all entries in array are not null";
+            }
         }
-        assert isHeap(array, 2 * top + 1, last, order) : ""
-        + "Violation of: SUBTREE_IS_HEAP(array, 2 * top + 1, last,"
-        + " [relation computed by order.compare method])";
-        assert isHeap(array, 2 * top + 2, last, order) : ""
-        + "Violation of: SUBTREE_IS_HEAP(array, 2 * top + 2, last,"
-        + " [relation computed by order.compare method])";
         /*
          * Impractical to check last requires clause; no need to check the other
          * requires clause, because it must be true when using the array
-         * representation for a complete binary tree.
+         * representation for a complete arity-ary tree.
          */
 
-        int left = 2 * top + 1;
-        int right = 2 * top + 2;
-
-        if (left <= last) {
-            //if left child exists
-            if (right <= last && order.compare(array[left], array[right]) > 0) {
-                //if right child exists & is smaller
-                left = right;
-            }
-
-            if (order.compare(array[top], array[left]) > 0) {
-                //if parent is larger than child
-                //swap parent & child
-                exchangeEntries(array, top, left);
-                siftDown(array, left, last, order);
-            }
+        //heapify every child subtree that exists
+        int first = arity * top + 1;
+        int end = Math.min(first + arity - 1, array.length - 1);
+        for (int child = first; child <= end; child++) {
+            heapify(array, child, arity, order);
         }
+        Heaps.siftDown(array, top, array.length - 1, arity, order);
         // *** you must use the recursive algorithm discussed in class ***
+
     }
 
     /**
-     * Heapifies the subtree of the given array rooted at the given {@code top}.
+     * Moves the entries of the given {@code Queue} into a new array, in order.
      *
      * @param <T>
-     *            type of array entries
-     * @param array
-     *            the complete binary tree
-     * @param top
-     *            the index of the root of the "subtree" to heapify
-     * @param order
-     *            the total preorder for sorting
-     * @updates array
-     * @requires <pre>
-     * 0 <= top  and
-     * for all i: integer
-     *     where (0 <= i  and  i < |array|)
-     *   ([entry at position i in array is not null])  and
-     * [subtree rooted at {@code top} is a complete binary tree]  and
-     * IS_TOTAL_PREORDER([relation computed by order.compare method])
-     * </pre>
-     * @ensures <pre>
-     * SUBTREE_IS_HEAP(array, top, |array| - 1,
-     *     [relation computed by order.compare method])  and
-     * perms(array, #array)
-     * </pre>
+     *            type of {@code Queue} and array entries
+     * @param q
+     *            the {@code Queue} with the entries
+     * @return the array with the entries of {@code q}
+     * @clears q
+     * @ensures toArray = #q
      */
-    private static <T> void heapify(T[] array, int top, Comparator<T> order) {
-        assert array != null : "Violation of: array is not null";
-        assert order != null : "Violation of: order is not null";
-        assert 0 <= top : "Violation of: 0 <= top";
-        for (int i = 0; i < array.length; i++) {
-            assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
-        }
+    @SuppressWarnings("unchecked")
+    private static <T> T[] toArray(Queue<T> q) {
+        assert q != null : "Violation of: q is not null";
         /*
-         * Impractical to check last requires clause; no need to check the other
-         * requires clause, because it must be true when using the array
-         * representation for a complete binary tree.
+         * With "new T[...]" in place of "new Object[...]" it does not compile;
+         * as shown, it results in a warning about an unchecked cast, though it
+         * cannot fail.
          */
+        T[] array = (T[]) new Object[q.length()];
 
-        int left = 2 * top + 1;
-        int right = 2 * top + 2;
-
-        if (right < array.length) {
-            //if both left & right children exist
-            heapify(array, left, order);
-            heapify(array, right, order);
-        } else if (left < array.length) {
-            //if there is only left child
-            heapify(array, left, order);
+        //add elements from q to array
+        int index = 0;
+        while (q.length() > 0) {
+            T element = q.dequeue();
+            array[index++] = element;
         }
-        siftDown(array, top, array.length - 1, order);
-        // *** you must use the recursive algorithm discussed in class ***
 
+        return array;
     }
 
     /**
-     * Constructs and returns an array representing a heap with the entries from
-     * the given {@code Queue}.
+     * Constructs and returns an array with the entries from the given
+     * {@code Queue} sorted according to {@code order}, using a parallel merge
+     * sort on the common fork/join pool.
      *
      * @param <T>
      *            type of {@code Queue} and array entries
      * @param q
-     *            the {@code Queue} with the entries for the heap
+     *            the {@code Queue} with the entries to sort
      * @param order
      *            the total preorder for sorting
-     * @return the array representation of a heap
+     * @return the sorted array
      * @clears q
      * @requires IS_TOTAL_PREORDER([relation computed by order.compare method])
      * @ensures <pre>
-     * SUBTREE_IS_HEAP(buildHeap, 0, |buildHeap| - 1)  and
-     * perms(buildHeap, #q)  and
-     * for all i: integer
-     *     where (0 <= i  and  i < |buildHeap|)
-     *   ([entry at position i in buildHeap is not null])  and
+     * perms(buildSortedArray, #q)  and
+     * [buildSortedArray is sorted according to the relation computed by
+     *  order.compare]
      * </pre>
      */
-    @SuppressWarnings("unchecked")
-    private static <T> T[] buildHeap(Queue<T> q, Comparator<T> order) {
+    private static <T> T[] buildSortedArray(Queue<T> q, Comparator<T> order) {
         assert q != null : "Violation of: q is not null";
         assert order != null : "Violation of: order is not null";
         /*
          * Impractical to check the requires clause.
          */
-        /*
-         * With "new T[...]" in place of "new Object[...]" it does not compile;
-         * as shown, it results in a warning about an unchecked cast, though it
-         * cannot fail.
-         */
 
-        //create array to build heap
-        T[] heap = (T[]) new Object[q.length()];
+        T[] sorted = toArray(q);
 
-        //add elements from q to heap
-        int index = 0;
-        while (q.length() > 0) {
-            T element = q.dequeue();
-            heap[index++] = element;
-        }
+        //Arrays.parallelSort is a fork/join merge sort for object arrays
+        Arrays.parallelSort(sorted, order);
 
-        //build heap
-        for (int i = heap.length / 2 - 1; i >= 0; i--) {
-            siftDown(heap, i, heap.length - 1, order);
-        }
-
-        return heap;
+        return sorted;
     }
 
     /**
-     * Checks if the subtree of the given {@code array} rooted at the given
-     * {@code top} is a heap.
+     * Checks if the entries of the given {@code array} from index {@code first}
+     * up to (but not including) index {@code end} are sorted according to
+     * {@code order}.
      *
      * @param <T>
      *            type of array entries
      * @param array
-     *            the complete binary tree
-     * @param top
-     *            the index of the root of the "subtree"
-     * @param last
-     *            the index of the last entry in the heap
+     *            the array
+     * @param first
+     *            the index of the first entry to check
+     * @param end
+     *            the index one past the last entry to check
      * @param order
      *            total preorder for sorting
-     * @return true if the subtree of the given {@code array} rooted at the
-     *         given {@code top} is a heap; false otherwise
-     * @requires <pre>
-     * 0 <= top  and  last < |array|  and
-     * for all i: integer
-     *     where (0 <= i  and  i < |array|)
-     *   ([entry at position i in array is not null])  and
-     * [subtree rooted at {@code top} is a complete binary tree]
-     * </pre>
+     * @return true if {@code array[first, end)} is sorted; false otherwise
+     * @requires 0 <= first <= end <= |array|
      * @ensures <pre>
-     * isHeap = SUBTREE_IS_HEAP(array, top, last,
-     *     [relation computed by order.compare method])
+     * isSorted = [array[first, end) is sorted according to the relation
+     *             computed by order.compare]
      * </pre>
      */
-    private static <T> boolean isHeap(T[] array, int top, int last,
+    private static <T> boolean isSorted(T[] array, int first, int end,
             Comparator<T> order) {
         assert array != null : "Violation of: array is not null";
-        assert 0 <= top : "Violation of: 0 <= top";
-        assert last < array.length : "Violation of: last < |array|";
-        for (int i = 0; i < array.length; i++) {
-            assert array[i] != null : ""
-                    + "Violation of: all entries in array are not null";
+        assert 0 <= first : "Violation of: 0 <= first";
+        assert first <= end : "Violation of: first <= end";
+        assert end <= array.length : "Violation of: end <= |array|";
+
+        boolean isSorted = true;
+        int i = first + 1;
+        while (isSorted && i < end) {
+            isSorted = order.compare(array[i - 1], array[i]) <= 0;
+            i++;
         }
+        return isSorted;
+    }
+
+    /**
+     * Constructs and returns an array representing a heap with the entries from
+     * the given {@code Queue}.
+     *
+     * @param <T>
+     *            type of {@code Queue} and array entries
+     * @param q
+     *            the {@code Queue} with the entries for the heap
+     * @param arity
+     *            the number of children of each interior node
+     * @param order
+     *            the total preorder for sorting
+     * @return the array representation of a heap
+     * @clears q
+     * @requires <pre>
+     * arity >= 2  and
+     * IS_TOTAL_PREORDER([relation computed by order.compare method])
+     * </pre>
+     * @ensures <pre>
+     * SUBTREE_IS_HEAP(buildHeap, 0, |buildHeap| - 1, arity)  and
+     * perms(buildHeap, #q)  and
+     * for all i: integer
+     *     where (0 <= i  and  i < |buildHeap|)
+     *   ([entry at position i in buildHeap is not null])  and
+     * </pre>
+     */
+    private static <T> T[] buildHeap(Queue<T> q, int arity,
+            Comparator<T> order) {
+        assert q != null : "Violation of: q is not null";
+        assert order != null : "Violation of: order is not null";
+        assert arity >= 2 : "Violation of: arity >= 2";
         /*
-         * No need to check the other requires clause, because it must be true
-         * when using the Array representation for a complete binary tree.
+         * Impractical to check the requires clause.
          */
-        int left = 2 * top + 1;
-        boolean isHeap = true;
-        if (left <= last) {
-            //if left child exists
-            isHeap = (order.compare(array[top], array[left]) <= 0)
-                    && isHeap(array, left, last, order);
-            int right = left + 1;
-
-            if (isHeap && (right <= last)) {
-                //if right child exists
-                isHeap = (order.compare(array[top], array[right]) <= 0)
-                        && isHeap(array, right, last, order);
+
+        T[] heap = toArray(q);
+
+        //build heap, starting from the parent of the last entry
+        if (heap.length > 1) {
+            for (int i = (heap.length - 2) / arity; i >= 0; i--) {
+                Heaps.siftDown(heap, i, heap.length - 1, arity, order);
             }
         }
-        return isHeap;
+
+        return heap;
     }
 
     /**
@@ -378,22 +418,29 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      * @return true if the convention holds (or if assertion checking is off);
      *         otherwise reports a violated assertion
      * @convention <pre>
-     * if $this.insertionMode then
+     * $this.arity >= 2  and
+     * if $this.insertionMode  or  not $this.arrayReady then
      *   $this.heapSize = 0
      * else
      *   $this.entries = <>  and
      *   for all i: integer
      *       where (0 <= i  and  i < |$this.heap|)
      *     ([entry at position i in $this.heap is not null])  and
-     *   SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,
-     *     [relation computed by $this.machineOrder.compare method])  and
-     *   0 <= $this.heapSize <= |$this.heap|
+     *   0 <= $this.heapSize <= |$this.heap|  and
+     *   if $this.engine = HEAP then
+     *     SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1, $this.arity,
+     *       [relation computed by $this.machineOrder.compare method])
+     *   else
+     *     [$this.heap[|$this.heap| - $this.heapSize, |$this.heap|) is sorted
+     *      according to the relation computed by $this.machineOrder.compare]
      * </pre>
      */
     private boolean conventionHolds() {
-        if (this.insertionMode) {
+        assert this.arity >= 2 : "Violation of: $this.arity >= 2";
+        if (this.insertionMode || !this.arrayReady) {
             assert this.heapSize == 0 : ""
-                    + "Violation of: if $this.insertionMode then $this.heapSize = 0";
+                    + "Violation of: if $this.insertionMode or"
+                    + " not $this.arrayReady then $this.heapSize = 0";
         } else {
             assert this.entries.length() == 0 : ""
                     + "Violation of: if not $this.insertionMode then $this.entries = <>";
@@ -402,19 +449,56 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
             assert this.heapSize <= this.heap.length : ""
                     + "Violation of: if not $this.insertionMode then"
                     + " $this.heapSize <= |$this.heap|";
+            if (ConventionChecking.shouldCheck()) {
+                this.checkArrayEntries();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks the expensive part of the convention for the entries of
+     * {@code $this.heap}: all of them, or, when the convention checking level
+     * is {@code SAMPLED}, a random subtree of the heap (or a random stretch of
+     * the sorted array). Reports a violated assertion if it does not hold.
+     *
+     * @requires not $this.insertionMode  and  $this.arrayReady
+     */
+    private void checkArrayEntries() {
+        int start = 0;
+        int end = this.heap.length;
+        if (this.engine == ExtractionEngine.PARALLEL_SORT) {
+            start = this.heap.length - this.heapSize;
+        }
+        if (ConventionChecking.isSampling() && this.heapSize > 0) {
+            if (this.engine == ExtractionEngine.HEAP) {
+                start = ConventionChecking.sampleIndex(this.heapSize);
+            } else {
+                start += ConventionChecking.sampleIndex(this.heapSize);
+                end = Math.min(start + SAMPLE_LENGTH, end);
+            }
+        } else {
             for (int i = 0; i < this.heap.length; i++) {
                 assert this.heap[i] != null : ""
                         + "Violation of: if not $this.insertionMode then"
                         + " all entries in $this.heap are not null";
             }
-            assert isHeap(this.heap, 0, this.heapSize - 1,
-                    this.machineOrder) : ""
-                    + "Violation of: if not $this.insertionMode then"
-                    + " SUBTREE_IS_HEAP($this.heap, 0, $this.heapSize - 1,"
+        }
+        if (this.engine == ExtractionEngine.HEAP) {
+            assert Heaps.isHeap(this.heap, start, this.heapSize - 1,
+                    this.arity, this.machineOrder) : ""
+                    + "Violation of: if not $this.insertionMode and"
+                    + " $this.engine = HEAP then SUBTREE_IS_HEAP("
+                    + "$this.heap, 0, $this.heapSize - 1, $this.arity,"
                     + " [relation computed by $this.machineOrder.compare"
                     + " method])";
+        } else {
+            assert isSorted(this.heap, start, end, this.machineOrder) : ""
+                    + "Violation of: if not $this.insertionMode and"
+                    + " $this.engine = PARALLEL_SORT then"
+                    + " [$this.heap[|$this.heap| - $this.heapSize,"
+                    + " |$this.heap|) is sorted]";
         }
-        return true;
     }
 
     /**
@@ -422,15 +506,26 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      *
      * @param order
      *            total preorder for sorting
-     * @requires IS_TOTAL_PREORDER([relation computed by order.compare method]
+     * @param arity
+     *            number of children of each interior node of the heap
+     * @param engine
+     *            how the entries are organized for extraction
+     * @requires <pre>
+     * IS_TOTAL_PREORDER([relation computed by order.compare method]  and
+     * arity >= 2
+     * </pre>
      * @ensures <pre>
      * $this.insertionMode = true  and
      * $this.machineOrder = order  and
      * $this.entries = <>  and
-     * $this.heapSize = 0
+     * $this.heapSize = 0  and
+     * $this.arity = arity  and
+     * $this.engine = engine  and
+     * $this.arrayReady = false
      * </pre>
      */
-    private void createNewRep(Comparator<T> order) {
+    private void createNewRep(Comparator<T> order, int arity,
+            ExtractionEngine engine) {
         this.entries = new Queue1L<T>();
 
         this.insertionMode = true;
@@ -438,6 +533,12 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         this.machineOrder = order;
 
         this.heapSize = 0;
+
+        this.arity = arity;
+
+        this.engine = engine;
+
+        this.arrayReady = false;
     }
 
     /*
@@ -451,7 +552,54 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
      *            total preorder for sorting
      */
     public SortingMachine5a(Comparator<T> order) {
-        this.createNewRep(order);
+        this.createNewRep(order, DEFAULT_ARITY, ExtractionEngine.HEAP);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from order and heap arity.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param arity
+     *            number of children of each interior node of the heap
+     * @requires arity >= 2
+     * @ensures this = (true, order, {})
+     */
+    public SortingMachine5a(Comparator<T> order, int arity) {
+        //throw error for invalid arity if arity < 2
+        if (arity < 2) {
+            throw new IllegalArgumentException(
+                    "Heap arity must be at least 2");
+        }
+
+        this.createNewRep(order, arity, ExtractionEngine.HEAP);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor from order, heap arity, and extraction engine.
+     *
+     * @param order
+     *            total preorder for sorting
+     * @param arity
+     *            number of children of each interior node of the heap (only
+     *            used by {@link ExtractionEngine#HEAP})
+     * @param engine
+     *            how the entries are organized for extraction
+     * @requires arity >= 2
+     * @ensures this = (true, order, {})
+     */
+    public SortingMachine5a(Comparator<T> order, int arity,
+            ExtractionEngine engine) {
+        assert engine != null : "Violation of: engine is not null";
+        //throw error for invalid arity if arity < 2
+        if (arity < 2) {
+            throw new IllegalArgumentException(
+                    "Heap arity must be at least 2");
+        }
+
+        this.createNewRep(order, arity, engine);
         assert this.conventionHolds();
     }
 
@@ -463,8 +611,10 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     @Override
     public final SortingMachine<T> newInstance() {
         try {
-            return this.getClass().getConstructor(Comparator.class)
-                    .newInstance(this.machineOrder);
+            return this.getClass()
+                    .getConstructor(Comparator.class, int.class,
+                            ExtractionEngine.class)
+                    .newInstance(this.machineOrder, this.arity, this.engine);
         } catch (ReflectiveOperationException e) {
             throw new AssertionError(
                     "Cannot construct object of type " + this.getClass());
@@ -473,7 +623,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
 
     @Override
     public final void clear() {
-        this.createNewRep(this.machineOrder);
+        this.createNewRep(this.machineOrder, this.arity, this.engine);
         assert this.conventionHolds();
     }
 
@@ -495,7 +645,11 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         this.entries = localSource.entries;
         this.heap = localSource.heap;
         this.heapSize = localSource.heapSize;
-        localSource.createNewRep(localSource.machineOrder);
+        this.arity = localSource.arity;
+        this.engine = localSource.engine;
+        this.arrayReady = localSource.arrayReady;
+        localSource.createNewRep(localSource.machineOrder, localSource.arity,
+                localSource.engine);
         assert this.conventionHolds();
         assert localSource.conventionHolds();
     }
@@ -514,35 +668,98 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         assert this.conventionHolds();
     }
 
+    /**
+     * Moves all the entries of {@code source} into {@code this}, without
+     * comparing any of them: the entries buffered by {@code source} are
+     * appended to those buffered by {@code this}.
+     *
+     * @param source
+     *            the machine whose entries are moved
+     * @updates this.contents
+     * @clears source
+     * @requires <pre>
+     * source is not this  and
+     * this.insertion_mode  and  source.insertion_mode  and
+     * this.ordering = source.ordering
+     * </pre>
+     * @ensures this.contents = #this.contents union #source.contents
+     */
+    public final void meld(SortingMachine5a<T> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+        assert source
+                .isInInsertionMode() : "Violation of: source.insertion_mode";
+        assert this.machineOrder.equals(source.machineOrder) : ""
+                + "Violation of: this.ordering = source.ordering";
+
+        this.entries.append(source.entries);
+        source.clear();
+
+        assert this.conventionHolds();
+    }
+
     @Override
     public final void changeToExtractionMode() {
         assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
 
-        //switch mode
+        //switch mode; the heap is built by the first removeFirst
         this.insertionMode = false;
-
-        //rebuild heap
-        this.heap = buildHeap(this.entries, this.machineOrder);
-        this.heapSize = this.heap.length;
+        this.arrayReady = false;
 
         assert this.conventionHolds();
     }
 
+    /**
+     * Moves the entries into {@code this.heap}, organized for extraction
+     * according to {@code this.engine}, unless that has already been done.
+     *
+     * @updates $this
+     * @requires not $this.insertionMode
+     * @ensures $this.arrayReady  and  this = #this
+     */
+    private void prepareArray() {
+        assert !this.insertionMode : "Violation of: not $this.insertionMode";
+
+        if (!this.arrayReady) {
+            if (this.engine == ExtractionEngine.HEAP) {
+                //build heap
+                this.heap = buildHeap(this.entries, this.arity,
+                        this.machineOrder);
+            } else {
+                //sort all entries
+                this.heap = buildSortedArray(this.entries, this.machineOrder);
+            }
+            this.heapSize = this.heap.length;
+            this.arrayReady = true;
+        }
+    }
+
     @Override
     public final T removeFirst() {
         assert !this
         .isInInsertionMode() : "Violation of: not this.insertion_mode";
         assert this.size() > 0 : "Violation of: this.contents /= {}";
 
-        //get first element from heap
-        T first = this.heap[0];
+        this.prepareArray();
 
-        //replace first with last element
-        exchangeEntries(this.heap, 0, this.heapSize - 1);
-        this.heapSize--;
+        T first;
+        if (this.engine == ExtractionEngine.HEAP) {
+            //get first element from heap
+            first = this.heap[0];
 
-        //sift down to rebuild heap
-        siftDown(this.heap, 0, this.heapSize - 1, this.machineOrder);
+            //replace first with last element
+            exchangeEntries(this.heap, 0, this.heapSize - 1);
+            this.heapSize--;
+
+            //sift down to rebuild heap
+            Heaps.siftDown(this.heap, 0, this.heapSize - 1, this.arity,
+                    this.machineOrder);
+        } else {
+            //sorted entries are at the end of the array, smallest first
+            first = this.heap[this.heap.length - this.heapSize];
+            this.heapSize--;
+        }
 
         assert this.conventionHolds();
 
@@ -563,8 +780,8 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
 
     @Override
     public final int size() {
-        if (isInInsertionMode()) {
-            //in insertion mode, return size of array
+        if (isInInsertionMode() || !this.arrayReady) {
+            //entries still in the queue, return its length
             return this.entries.length();
         } else {
             //in extraction mode, return current heap size
@@ -577,6 +794,39 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         return new SortingMachine5aIterator();
     }
 
+    /**
+     * Returns an iterator over the entries of {@code this} in sorted order
+     * (according to {@code this.ordering}), which leaves {@code this}
+     * unchanged. {@code this} must not be changed while the iterator is in
+     * use.
+     *
+     * @return an iterator over the entries of {@code this}, smallest first
+     * @requires not this.insertion_mode
+     * @ensures <pre>
+     * this = #this  and
+     * [sortedIterator visits the entries of this.contents in an order in
+     *  which each entry is related to the next one by this.ordering]
+     * </pre>
+     */
+    public final Iterator<T> sortedIterator() {
+        assert !this
+        .isInInsertionMode() : "Violation of: not this.insertion_mode";
+
+        this.prepareArray();
+
+        Iterator<T> sortedIterator;
+        if (this.engine == ExtractionEngine.HEAP) {
+            sortedIterator = new SortingMachine5aSortedIterator();
+        } else {
+            //the sorted array already is in order
+            sortedIterator = new SortingMachine5aIterator();
+        }
+
+        assert this.conventionHolds();
+
+        return sortedIterator;
+    }
+
     /**
      * Implementation of {@code Iterator} interface for
      * {@code SortingMachine5a}.
@@ -584,7 +834,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
     private final class SortingMachine5aIterator implements Iterator<T> {
 
         /**
-         * Representation iterator when in insertion mode.
+         * Representation iterator when the entries are in the queue, or null.
          */
         private Iterator<T> queueIterator;
 
@@ -593,14 +843,25 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
          */
         private int arrayCurrentIndex;
 
+        /**
+         * Index one past the last array entry to visit in extraction mode.
+         */
+        private int arrayEndIndex;
+
         /**
          * No-argument constructor.
          */
         private SortingMachine5aIterator() {
-            if (SortingMachine5a.this.insertionMode) {
+            if (SortingMachine5a.this.insertionMode
+                    || !SortingMachine5a.this.arrayReady) {
                 this.queueIterator = SortingMachine5a.this.entries.iterator();
-            } else {
+            } else if (SortingMachine5a.this.engine == ExtractionEngine.HEAP) {
                 this.arrayCurrentIndex = 0;
+                this.arrayEndIndex = SortingMachine5a.this.heapSize;
+            } else {
+                this.arrayEndIndex = SortingMachine5a.this.heap.length;
+                this.arrayCurrentIndex = this.arrayEndIndex
+                        - SortingMachine5a.this.heapSize;
             }
             assert SortingMachine5a.this.conventionHolds();
         }
@@ -608,10 +869,10 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
         @Override
         public boolean hasNext() {
             boolean hasNext;
-            if (SortingMachine5a.this.insertionMode) {
+            if (this.queueIterator != null) {
                 hasNext = this.queueIterator.hasNext();
             } else {
-                hasNext = this.arrayCurrentIndex < SortingMachine5a.this.heapSize;
+                hasNext = this.arrayCurrentIndex < this.arrayEndIndex;
             }
             assert SortingMachine5a.this.conventionHolds();
             return hasNext;
@@ -629,7 +890,7 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
                 throw new NoSuchElementException();
             }
             T next;
-            if (SortingMachine5a.this.insertionMode) {
+            if (this.queueIterator != null) {
                 next = this.queueIterator.next();
             } else {
                 next = SortingMachine5a.this.heap[this.arrayCurrentIndex];
@@ -647,4 +908,68 @@ public class SortingMachine5a<T> extends SortingMachineSecondary<T> {
 
     }
 
+    /**
+     * Implementation of {@code Iterator} interface visiting the heap of
+     * {@code SortingMachine5a} in sorted order. The indices of the entries
+     * that may come next are kept in a frontier heap: the next entry is the
+     * smallest in the frontier, and visiting it adds its children.
+     */
+    private final class SortingMachine5aSortedIterator implements Iterator<T> {
+
+        /**
+         * Indices into the heap of the entries not yet visited whose parents
+         * have been visited, ordered by their entries.
+         */
+        private PriorityQueue<Integer> frontier;
+
+        /**
+         * No-argument constructor.
+         */
+        private SortingMachine5aSortedIterator() {
+            final T[] heap = SortingMachine5a.this.heap;
+            final Comparator<T> order = SortingMachine5a.this.machineOrder;
+            this.frontier = new PriorityQueue<Integer>(
+                    (i, j) -> order.compare(heap[i], heap[j]));
+            if (SortingMachine5a.this.heapSize > 0) {
+                this.frontier.add(0);
+            }
+            assert SortingMachine5a.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.frontier.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            int index = this.frontier.remove();
+            //the children of index may now come next
+            int arity = SortingMachine5a.this.arity;
+            int firstChild = arity * index + 1;
+            int endChild = Math.min(firstChild + arity,
+                    SortingMachine5a.this.heapSize);
+            for (int child = firstChild; child < endChild; child++) {
+                this.frontier.add(child);
+            }
+            return SortingMachine5a.this.heap[index];
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
 }
@@ -0,0 +1,166 @@
+import java.util.Comparator;
+import java.util.Random;
+
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+
+/**
+ * Times filling and draining {@code SortingMachine5a} with heaps of different
+ * arities and with the parallel sort extraction engine, to find the input
+ * sizes at which each configuration starts to pay off.
+ *
+ * <p>
+ * Run with assertion checking off ({@code -da}); otherwise the convention
+ * checks dominate the timings.
+ * </p>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public final class SortingMachineBenchmark {
+
+    /**
+     * Input sizes to time.
+     */
+    private static final int[] SIZES = { 10_000, 100_000, 1_000_000,
+        4_000_000 };
+
+    /**
+     * Heap arities to time.
+     */
+    private static final int[] ARITIES = { 2, 4, 8 };
+
+    /**
+     * Number of timed runs per configuration; the fastest one is reported.
+     */
+    private static final int RUNS = 3;
+
+    /**
+     * Seed for the random inputs, so every configuration sorts the same data.
+     */
+    private static final long SEED = 2024L;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Compare {@code Integer}s in ascending order.
+     */
+    private static class IntegerLT implements Comparator<Integer> {
+
+        @Override
+        public int compare(Integer i1, Integer i2) {
+            return i1.compareTo(i2);
+        }
+
+    }
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private SortingMachineBenchmark() {
+    }
+
+    /**
+     * Returns {@code n} pseudo-random {@code Integer}s.
+     *
+     * @param n
+     *            the number of entries
+     * @return the entries
+     * @requires n >= 0
+     * @ensures |randomEntries| = n
+     */
+    private static Integer[] randomEntries(int n) {
+        Random random = new Random(SEED);
+        Integer[] entries = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            entries[i] = random.nextInt();
+        }
+        return entries;
+    }
+
+    /**
+     * Adds all of {@code entries} to a new {@code SortingMachine5a} with the
+     * given heap arity and extraction engine, extracts them all, and returns
+     * the fastest elapsed time of {@code RUNS} runs.
+     *
+     * @param entries
+     *            the entries to sort
+     * @param arity
+     *            the heap arity
+     * @param engine
+     *            the extraction engine
+     * @return the elapsed time in milliseconds
+     * @requires arity >= 2
+     */
+    private static double timeSort(Integer[] entries, int arity,
+            SortingMachine5a.ExtractionEngine engine) {
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            best = Math.min(best, timeSortOnce(entries, arity, engine));
+        }
+        return best;
+    }
+
+    /**
+     * Adds all of {@code entries} to a new {@code SortingMachine5a} with the
+     * given heap arity and extraction engine, extracts them all, and returns
+     * the elapsed time.
+     *
+     * @param entries
+     *            the entries to sort
+     * @param arity
+     *            the heap arity
+     * @param engine
+     *            the extraction engine
+     * @return the elapsed time in milliseconds
+     * @requires arity >= 2
+     */
+    private static double timeSortOnce(Integer[] entries, int arity,
+            SortingMachine5a.ExtractionEngine engine) {
+        long start = System.nanoTime();
+        SortingMachine5a<Integer> sm = new SortingMachine5a<>(new IntegerLT(),
+                arity, engine);
+        for (Integer x : entries) {
+            sm.add(x);
+        }
+        sm.changeToExtractionMode();
+        while (sm.size() > 0) {
+            sm.removeFirst();
+        }
+        return (System.nanoTime() - start) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments
+     */
+    public static void main(String[] args) {
+        SimpleWriter out = new SimpleWriter1L();
+
+        out.println("fill and drain (fastest of " + RUNS + " runs, ms)");
+        out.print("n");
+        for (int arity : ARITIES) {
+            out.print("\t" + arity + "-ary");
+        }
+        out.println("\tparallel");
+
+        for (int n : SIZES) {
+            Integer[] entries = randomEntries(n);
+            out.print(Integer.toString(n));
+            for (int arity : ARITIES) {
+                out.print(String.format("\t%.1f", timeSort(entries, arity,
+                        SortingMachine5a.ExtractionEngine.HEAP)));
+            }
+            out.println(String.format("\t%.1f", timeSort(entries, ARITIES[0],
+                    SortingMachine5a.ExtractionEngine.PARALLEL_SORT)));
+        }
+
+        out.close();
+    }
+
+}
@@ -0,0 +1,139 @@
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * {@code Iterator} over the entries of several {@code SortingMachine5a}s in
+ * extraction mode, merged into one sorted stream, which leaves the machines
+ * unchanged.
+ *
+ * <p>
+ * Each machine is read through its {@code sortedIterator}, and the current
+ * entry of each one is kept in a heap of cursors, so each entry of the merged
+ * stream costs O(log k) comparisons for k machines (plus the cost of reading
+ * it from its machine). This is how machines sorted separately (e.g., one
+ * shard each) are combined without re-adding their entries to one machine.
+ * None of the machines may be changed while the iterator is in use.
+ * </p>
+ *
+ * @param <T>
+ *            type of {@code SortingMachine} entries
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public final class SortingMachineMerge<T> implements Iterator<T> {
+
+    /**
+     * Current entry of one of the merged machines, with the rest of that
+     * machine's entries.
+     *
+     * @param <T>
+     *            type of entries
+     */
+    private static final class Cursor<T> {
+
+        /**
+         * Current entry.
+         */
+        private T head;
+
+        /**
+         * The entries after {@code head}.
+         */
+        private final Iterator<T> rest;
+
+        /**
+         * Constructor from a non-empty sorted iterator.
+         *
+         * @param rest
+         *            the iterator
+         * @requires rest.hasNext()
+         */
+        private Cursor(Iterator<T> rest) {
+            this.head = rest.next();
+            this.rest = rest;
+        }
+
+    }
+
+    /**
+     * Cursors of the machines with entries left, ordered by their heads.
+     */
+    private final PriorityQueue<Cursor<T>> cursors;
+
+    /**
+     * Constructor from the machines to merge.
+     *
+     * @param machines
+     *            the machines to merge
+     * @requires <pre>
+     * [every machine in machines is not in insertion mode]  and
+     * [all machines in machines have the same ordering]
+     * </pre>
+     * @ensures <pre>
+     * [this visits the entries of all the machines in machines in an order in
+     *  which each entry is related to the next one by their ordering]
+     * </pre>
+     */
+    public SortingMachineMerge(List<SortingMachine5a<T>> machines) {
+        assert machines != null : "Violation of: machines is not null";
+
+        Comparator<T> order = null;
+        for (SortingMachine5a<T> m : machines) {
+            assert !m.isInInsertionMode() : ""
+                    + "Violation of: [every machine in machines is not in"
+                    + " insertion mode]";
+            assert order == null || order.equals(m.order()) : ""
+                    + "Violation of: [all machines in machines have the same"
+                    + " ordering]";
+            order = m.order();
+        }
+
+        final Comparator<T> mergeOrder = order;
+        this.cursors = new PriorityQueue<Cursor<T>>(
+                Math.max(1, machines.size()),
+                (c1, c2) -> mergeOrder.compare(c1.head, c2.head));
+        for (SortingMachine5a<T> m : machines) {
+            Iterator<T> sorted = m.sortedIterator();
+            if (sorted.hasNext()) {
+                this.cursors.add(new Cursor<T>(sorted));
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !this.cursors.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+        if (!this.hasNext()) {
+            /*
+             * Exception is supposed to be thrown in this case, but with
+             * assertion-checking enabled it cannot happen because of assert
+             * above.
+             */
+            throw new NoSuchElementException();
+        }
+        Cursor<T> first = this.cursors.remove();
+        T next = first.head;
+        if (first.rest.hasNext()) {
+            //advance the cursor and put it back in its new place
+            first.head = first.rest.next();
+            this.cursors.add(first);
+        }
+        return next;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException(
+                "remove operation not supported");
+    }
+
+}
@@ -0,0 +1,35 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@code ElementCodec} for {@code String}s, written as their length in bytes
+ * followed by their UTF-8 encoding (so, unlike {@code DataOutput.writeUTF},
+ * there is no limit on the length).
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public final class StringCodec implements ElementCodec<String> {
+
+    @Override
+    public void write(String x, DataOutput out) throws IOException {
+        assert x != null : "Violation of: x is not null";
+        assert out != null : "Violation of: out is not null";
+
+        byte[] bytes = x.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Override
+    public String read(DataInput in) throws IOException {
+        assert in != null : "Violation of: in is not null";
+
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
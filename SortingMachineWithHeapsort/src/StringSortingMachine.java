@@ -0,0 +1,564 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachineSecondary;
+
+/**
+ * {@code SortingMachine} for {@code String}s, represented as an array that is
+ * sorted with a multikey quicksort, with implementations of primary methods.
+ *
+ * <p>
+ * A comparison sort compares whole {@code String}s, so entries with long
+ * common prefixes (as in word lists) have those prefixes re-scanned at every
+ * comparison. Multikey (three-way radix) quicksort partitions on one character
+ * position at a time and only moves on to the next position within the
+ * entries that agree so far, so each character is looked at about
+ * O(log n) times. {@code changeToExtractionMode} sorts the entries this way,
+ * and {@code removeFirst} then takes them from the front of the array in
+ * constant time.
+ * </p>
+ * <p>
+ * The order is either the natural order of {@code String}s
+ * ({@code String.compareTo}) or, for a machine constructed with
+ * {@code ignoreCase} true, the case-insensitive order
+ * ({@code String.CASE_INSENSITIVE_ORDER}).
+ * </p>
+ *
+ * @mathdefinitions <pre>
+ * IS_TOTAL_PREORDER (
+ *   r: binary relation on T
+ *  ) : boolean is
+ *  for all x, y, z: T
+ *   ((r(x, y) or r(y, x))  and
+ *    (if (r(x, y) and r(y, z)) then r(x, z)))
+ * </pre>
+ * @convention <pre>
+ * 0 <= $this.first <= $this.size <= |$this.entries|  and
+ * [$this.machineOrder is String.CASE_INSENSITIVE_ORDER if $this.ignoreCase,
+ *  and the natural order of String otherwise]  and
+ * for all i: integer
+ *     where ($this.first <= i  and  i < $this.size)
+ *   ([entry at position i in $this.entries is not null])  and
+ * if $this.insertionMode then
+ *   $this.first = 0
+ * else
+ *   [$this.entries[$this.first, $this.size) is sorted according to the
+ *    relation computed by $this.machineOrder.compare method]
+ * </pre>
+ * @correspondence <pre>
+ * this = ($this.insertionMode, $this.machineOrder,
+ *         multiset_entries($this.entries[$this.first, $this.size)))
+ * </pre>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public class StringSortingMachine extends SortingMachineSecondary<String> {
+
+    /*
+     * Private members --------------------------------------------------------
+     */
+
+    /**
+     * Initial capacity of the entries array.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Subarrays of at most this many entries are insertion sorted.
+     */
+    private static final int INSERTION_SORT_CUTOFF = 12;
+
+    /**
+     * Compare {@code String}s in their natural order.
+     */
+    private static final class StringLT implements Comparator<String> {
+
+        @Override
+        public int compare(String s1, String s2) {
+            return s1.compareTo(s2);
+        }
+
+    }
+
+    /**
+     * Natural order of {@code String}s.
+     */
+    private static final Comparator<String> NATURAL_ORDER = new StringLT();
+
+    /**
+     * Whether the order ignores case.
+     */
+    private boolean ignoreCase;
+
+    /**
+     * Order.
+     */
+    private Comparator<String> machineOrder;
+
+    /**
+     * Insertion mode.
+     */
+    private boolean insertionMode;
+
+    /**
+     * Entries.
+     */
+    private String[] entries;
+
+    /**
+     * Index one past the last entry.
+     */
+    private int size;
+
+    /**
+     * Index of the first entry not yet removed.
+     */
+    private int first;
+
+    /**
+     * Returns the character of {@code s} at position {@code d} (folded to one
+     * case if {@code ignoreCase}), or -1 if {@code s} has no such position, so
+     * that a {@code String} comes before every longer one it is a prefix of.
+     *
+     * @param s
+     *            the {@code String}
+     * @param d
+     *            the position
+     * @param ignoreCase
+     *            whether to fold the character's case
+     * @return the (folded) character at position d of s, or -1
+     * @requires 0 <= d
+     * @ensures <pre>
+     * if d < |s| then
+     *   charAt = [s[d, d + 1), folded as String.CASE_INSENSITIVE_ORDER does if
+     *             ignoreCase]
+     * else
+     *   charAt = -1
+     * </pre>
+     */
+    private static int charAt(String s, int d, boolean ignoreCase) {
+        assert s != null : "Violation of: s is not null";
+        assert 0 <= d : "Violation of: 0 <= d";
+
+        int c = -1;
+        if (d < s.length()) {
+            c = s.charAt(d);
+            if (ignoreCase) {
+                //the same folding as String.CASE_INSENSITIVE_ORDER
+                c = Character.toLowerCase(Character.toUpperCase((char) c));
+            }
+        }
+        return c;
+    }
+
+    /**
+     * Compares {@code s1} and {@code s2} starting at position {@code d}.
+     *
+     * @param s1
+     *            the first {@code String}
+     * @param s2
+     *            the second {@code String}
+     * @param d
+     *            the position to start comparing at
+     * @param ignoreCase
+     *            whether to fold the characters' case
+     * @return a negative integer, zero, or a positive integer as s1[d, |s1|)
+     *         is less than, equal to, or greater than s2[d, |s2|)
+     * @requires 0 <= d
+     */
+    private static int compareFrom(String s1, String s2, int d,
+            boolean ignoreCase) {
+        int c1 = charAt(s1, d, ignoreCase);
+        int c2 = charAt(s2, d, ignoreCase);
+        while (c1 == c2 && c1 >= 0) {
+            d++;
+            c1 = charAt(s1, d, ignoreCase);
+            c2 = charAt(s2, d, ignoreCase);
+        }
+        return c1 - c2;
+    }
+
+    /**
+     * Exchanges entries at indices {@code i} and {@code j} of {@code array}.
+     *
+     * @param array
+     *            the array whose entries are to be exchanged
+     * @param i
+     *            one index
+     * @param j
+     *            the other index
+     * @updates array
+     * @requires 0 <= i < |array| and 0 <= j < |array|
+     * @ensures array = [#array with entries at indices i and j exchanged]
+     */
+    private static void exchangeEntries(String[] array, int i, int j) {
+        String temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+    }
+
+    /**
+     * Sorts {@code array[lo, hi]}, all of whose entries agree on their first
+     * {@code d} (folded) characters, with a multikey quicksort.
+     *
+     * @param array
+     *            the array to sort
+     * @param lo
+     *            the index of the first entry to sort
+     * @param hi
+     *            the index of the last entry to sort
+     * @param d
+     *            the number of leading characters the entries agree on
+     * @param ignoreCase
+     *            whether to fold the characters' case
+     * @updates array
+     * @requires <pre>
+     * 0 <= lo  and  hi < |array|  and  0 <= d  and
+     * [the entries of array[lo, hi] agree on their first d characters]
+     * </pre>
+     * @ensures <pre>
+     * [array[lo, hi] is sorted]  and
+     * perms(array, #array)  and
+     * [the other entries in array are the same as in #array]
+     * </pre>
+     */
+    private static void multikeyQuicksort(String[] array, int lo, int hi,
+            int d, boolean ignoreCase) {
+        assert array != null : "Violation of: array is not null";
+        assert 0 <= lo : "Violation of: 0 <= lo";
+        assert hi < array.length : "Violation of: hi < |array|";
+        assert 0 <= d : "Violation of: 0 <= d";
+
+        /*
+         * Sort the two smaller partitions recursively and keep partitioning
+         * the largest one in this loop, so the recursion is only O(log n) deep
+         * even when the entries share a long common prefix.
+         */
+        int left = lo;
+        int right = hi;
+        int depth = d;
+        while (right - left >= INSERTION_SORT_CUTOFF) {
+            //partition on the character at position depth of the middle entry
+            exchangeEntries(array, left, left + (right - left) / 2);
+            int pivot = charAt(array[left], depth, ignoreCase);
+            int lt = left;
+            int gt = right;
+            int i = left + 1;
+            while (i <= gt) {
+                int c = charAt(array[i], depth, ignoreCase);
+                if (c < pivot) {
+                    exchangeEntries(array, lt, i);
+                    lt++;
+                    i++;
+                } else if (c > pivot) {
+                    exchangeEntries(array, i, gt);
+                    gt--;
+                } else {
+                    i++;
+                }
+            }
+            //now array[left, lt) < pivot = array[lt, gt] < array(gt, right]
+            int lessSize = lt - left;
+            int greaterSize = right - gt;
+            int equalSize = 0;
+            if (pivot >= 0) {
+                //entries that end at position depth are all equal already
+                equalSize = gt - lt + 1;
+            }
+            if (equalSize > 0 && equalSize >= lessSize
+                    && equalSize >= greaterSize) {
+                multikeyQuicksort(array, left, lt - 1, depth, ignoreCase);
+                multikeyQuicksort(array, gt + 1, right, depth, ignoreCase);
+                left = lt;
+                right = gt;
+                depth++;
+            } else {
+                if (equalSize > 0) {
+                    multikeyQuicksort(array, lt, gt, depth + 1, ignoreCase);
+                }
+                if (lessSize >= greaterSize) {
+                    multikeyQuicksort(array, gt + 1, right, depth, ignoreCase);
+                    right = lt - 1;
+                } else {
+                    multikeyQuicksort(array, left, lt - 1, depth, ignoreCase);
+                    left = gt + 1;
+                }
+            }
+        }
+        //few entries: insertion sort, comparing from position depth on
+        for (int i = left + 1; i <= right; i++) {
+            for (int j = i; j > left && compareFrom(array[j - 1], array[j],
+                    depth, ignoreCase) > 0; j--) {
+                exchangeEntries(array, j - 1, j);
+            }
+        }
+    }
+
+    /**
+     * Checks that the part of the convention repeated below holds for the
+     * current representation.
+     *
+     * @return true if the convention holds (or if assertion checking is off);
+     *         otherwise reports a violated assertion
+     * @convention <pre>
+     * 0 <= $this.first <= $this.size <= |$this.entries|  and
+     * for all i: integer
+     *     where ($this.first <= i  and  i < $this.size)
+     *   ([entry at position i in $this.entries is not null])  and
+     * if $this.insertionMode then
+     *   $this.first = 0
+     * else
+     *   [$this.entries[$this.first, $this.size) is sorted according to the
+     *    relation computed by $this.machineOrder.compare method]
+     * </pre>
+     */
+    private boolean conventionHolds() {
+        assert 0 <= this.first : "Violation of: 0 <= $this.first";
+        assert this.first <= this.size : ""
+                + "Violation of: $this.first <= $this.size";
+        assert this.size <= this.entries.length : ""
+                + "Violation of: $this.size <= |$this.entries|";
+        assert !this.insertionMode || this.first == 0 : ""
+                + "Violation of: if $this.insertionMode then $this.first = 0";
+        if (ConventionChecking.shouldCheck()) {
+            //check every entry, or just a random one when sampling
+            int start = this.first;
+            int end = this.size;
+            if (ConventionChecking.isSampling() && end > start) {
+                start += ConventionChecking.sampleIndex(end - start);
+                end = start + 1;
+            }
+            for (int i = start; i < end; i++) {
+                assert this.entries[i] != null : ""
+                        + "Violation of: all entries in"
+                        + " $this.entries[$this.first, $this.size) are not null";
+                assert this.insertionMode || i + 1 >= this.size
+                        || this.machineOrder.compare(this.entries[i],
+                                this.entries[i + 1]) <= 0 : ""
+                                        + "Violation of: if not $this.insertionMode"
+                                        + " then [$this.entries[$this.first,"
+                                        + " $this.size) is sorted]";
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creator of initial representation.
+     *
+     * @param ignoreCase
+     *            whether the order ignores case
+     * @ensures <pre>
+     * $this.ignoreCase = ignoreCase  and
+     * $this.insertionMode = true  and
+     * $this.size = 0  and
+     * $this.first = 0
+     * </pre>
+     */
+    private void createNewRep(boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+
+        if (ignoreCase) {
+            this.machineOrder = String.CASE_INSENSITIVE_ORDER;
+        } else {
+            this.machineOrder = NATURAL_ORDER;
+        }
+
+        this.insertionMode = true;
+
+        this.entries = new String[INITIAL_CAPACITY];
+
+        this.size = 0;
+
+        this.first = 0;
+    }
+
+    /*
+     * Constructors -----------------------------------------------------------
+     */
+
+    /**
+     * No-argument constructor, using the natural order of {@code String}s.
+     */
+    public StringSortingMachine() {
+        this.createNewRep(false);
+        assert this.conventionHolds();
+    }
+
+    /**
+     * Constructor choosing whether the order ignores case.
+     *
+     * @param ignoreCase
+     *            whether to use {@code String.CASE_INSENSITIVE_ORDER} (instead
+     *            of the natural order)
+     * @ensures this = (true, [the chosen order], {})
+     */
+    public StringSortingMachine(boolean ignoreCase) {
+        this.createNewRep(ignoreCase);
+        assert this.conventionHolds();
+    }
+
+    /*
+     * Standard methods -------------------------------------------------------
+     */
+
+    @Override
+    public final SortingMachine<String> newInstance() {
+        try {
+            return this.getClass().getConstructor(boolean.class)
+                    .newInstance(this.ignoreCase);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(
+                    "Cannot construct object of type " + this.getClass());
+        }
+    }
+
+    @Override
+    public final void clear() {
+        this.createNewRep(this.ignoreCase);
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void transferFrom(SortingMachine<String> source) {
+        assert source != null : "Violation of: source is not null";
+        assert source != this : "Violation of: source is not this";
+        assert source instanceof StringSortingMachine : ""
+                + "Violation of: source is of dynamic type StringSortingMachine";
+        /*
+         * This cast cannot fail since the assert above would have stopped
+         * execution in that case.
+         */
+        StringSortingMachine localSource = (StringSortingMachine) source;
+        this.ignoreCase = localSource.ignoreCase;
+        this.machineOrder = localSource.machineOrder;
+        this.insertionMode = localSource.insertionMode;
+        this.entries = localSource.entries;
+        this.size = localSource.size;
+        this.first = localSource.first;
+        localSource.createNewRep(localSource.ignoreCase);
+        assert this.conventionHolds();
+        assert localSource.conventionHolds();
+    }
+
+    /*
+     * Kernel methods ---------------------------------------------------------
+     */
+
+    @Override
+    public final void add(String x) {
+        assert x != null : "Violation of: x is not null";
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        if (this.size == this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries,
+                    2 * this.entries.length);
+        }
+        this.entries[this.size] = x;
+        this.size++;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final void changeToExtractionMode() {
+        assert this.isInInsertionMode() : "Violation of: this.insertion_mode";
+
+        multikeyQuicksort(this.entries, 0, this.size - 1, 0, this.ignoreCase);
+        this.insertionMode = false;
+
+        assert this.conventionHolds();
+    }
+
+    @Override
+    public final String removeFirst() {
+        assert !this
+                .isInInsertionMode() : "Violation of: not this.insertion_mode";
+        assert this.size() > 0 : "Violation of: this.contents /= {}";
+
+        String first = this.entries[this.first];
+        this.entries[this.first] = null;
+        this.first++;
+
+        assert this.conventionHolds();
+
+        return first;
+    }
+
+    @Override
+    public final boolean isInInsertionMode() {
+        assert this.conventionHolds();
+        return this.insertionMode;
+    }
+
+    @Override
+    public final Comparator<String> order() {
+        assert this.conventionHolds();
+        return this.machineOrder;
+    }
+
+    @Override
+    public final int size() {
+        assert this.conventionHolds();
+        return this.size - this.first;
+    }
+
+    @Override
+    public final Iterator<String> iterator() {
+        return new StringSortingMachineIterator();
+    }
+
+    /**
+     * Implementation of {@code Iterator} interface for
+     * {@code StringSortingMachine}.
+     */
+    private final class StringSortingMachineIterator
+            implements Iterator<String> {
+
+        /**
+         * Representation iterator count.
+         */
+        private int arrayCurrentIndex;
+
+        /**
+         * No-argument constructor.
+         */
+        private StringSortingMachineIterator() {
+            this.arrayCurrentIndex = StringSortingMachine.this.first;
+            assert StringSortingMachine.this.conventionHolds();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.arrayCurrentIndex < StringSortingMachine.this.size;
+        }
+
+        @Override
+        public String next() {
+            assert this.hasNext() : "Violation of: ~this.unseen /= <>";
+            if (!this.hasNext()) {
+                /*
+                 * Exception is supposed to be thrown in this case, but with
+                 * assertion-checking enabled it cannot happen because of assert
+                 * above.
+                 */
+                throw new NoSuchElementException();
+            }
+            String next = StringSortingMachine.this.entries[this.arrayCurrentIndex];
+            this.arrayCurrentIndex++;
+            return next;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException(
+                    "remove operation not supported");
+        }
+
+    }
+
+}
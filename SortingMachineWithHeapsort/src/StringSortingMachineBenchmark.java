@@ -0,0 +1,206 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import components.simplereader.SimpleReader;
+import components.simplereader.SimpleReader1L;
+import components.simplewriter.SimpleWriter;
+import components.simplewriter.SimpleWriter1L;
+import components.sortingmachine.SortingMachine;
+
+/**
+ * Times filling and draining {@code StringSortingMachine} and
+ * {@code SortingMachine5a} with the words of a text corpus, in the natural and
+ * in the case-insensitive order.
+ *
+ * <p>
+ * The path of the corpus is the first command line argument, or is asked for
+ * if there is none. Every word occurrence is sorted (so there are many
+ * duplicates, as when sorting the words of a text), and the corpus is repeated
+ * to get larger inputs. Run with assertion checking off ({@code -da});
+ * otherwise the convention checks dominate the timings.
+ * </p>
+ *
+ * @author Selin Kirbas & [Removed for privacy]
+ *
+ */
+public final class StringSortingMachineBenchmark {
+
+    /**
+     * Number of copies of the corpus to time.
+     */
+    private static final int[] COPIES = { 1, 4, 16 };
+
+    /**
+     * Number of timed runs per configuration; the fastest one is reported.
+     */
+    private static final int RUNS = 3;
+
+    /**
+     * Nanoseconds per millisecond.
+     */
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    /**
+     * Compare {@code String}s in their natural order.
+     */
+    private static class StringLT implements Comparator<String> {
+
+        @Override
+        public int compare(String s1, String s2) {
+            return s1.compareTo(s2);
+        }
+
+    }
+
+    /**
+     * Private constructor so this utility class cannot be instantiated.
+     */
+    private StringSortingMachineBenchmark() {
+    }
+
+    /**
+     * Reads all the words (maximal runs of letters and digits) of
+     * {@code input}.
+     *
+     * @param input
+     *            the corpus
+     * @return the words of input, in order
+     * @updates input
+     * @requires input.is_open
+     * @ensures input.is_open and input.content = <>
+     */
+    private static List<String> readWords(SimpleReader input) {
+        List<String> words = new ArrayList<String>();
+        while (!input.atEOS()) {
+            String line = input.nextLine();
+            int i = 0;
+            while (i < line.length()) {
+                //skip separators, then take the word that follows
+                while (i < line.length()
+                        && !Character.isLetterOrDigit(line.charAt(i))) {
+                    i++;
+                }
+                int start = i;
+                while (i < line.length()
+                        && Character.isLetterOrDigit(line.charAt(i))) {
+                    i++;
+                }
+                if (i > start) {
+                    words.add(line.substring(start, i));
+                }
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Returns {@code copies} copies of {@code words}, one after the other.
+     *
+     * @param words
+     *            the words
+     * @param copies
+     *            the number of copies
+     * @return the repeated words
+     * @requires copies > 0
+     * @ensures |repeat| = copies * |words|
+     */
+    private static String[] repeat(List<String> words, int copies) {
+        String[] entries = new String[copies * words.size()];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = words.get(i % words.size());
+        }
+        return entries;
+    }
+
+    /**
+     * Adds all of {@code entries} to {@code sm}, extracts them all, and
+     * returns the elapsed time.
+     *
+     * @param sm
+     *            the (empty) machine to time
+     * @param entries
+     *            the entries to sort
+     * @return the elapsed time in milliseconds
+     * @requires sm = (true, [some order], {})
+     */
+    private static double timeSortOnce(SortingMachine<String> sm,
+            String[] entries) {
+        long start = System.nanoTime();
+        for (String x : entries) {
+            sm.add(x);
+        }
+        sm.changeToExtractionMode();
+        while (sm.size() > 0) {
+            sm.removeFirst();
+        }
+        return (System.nanoTime() - start) / NANOS_PER_MILLI;
+    }
+
+    /**
+     * Returns the fastest of {@code RUNS} runs of {@code timeSortOnce}, each
+     * on a new instance like {@code sm}.
+     *
+     * @param sm
+     *            the machine whose type and order to time
+     * @param entries
+     *            the entries to sort
+     * @return the elapsed time in milliseconds
+     */
+    private static double timeSort(SortingMachine<String> sm,
+            String[] entries) {
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            best = Math.min(best, timeSortOnce(sm.newInstance(), entries));
+        }
+        return best;
+    }
+
+    /**
+     * Main method.
+     *
+     * @param args
+     *            the command line arguments: the path of the corpus
+     */
+    public static void main(String[] args) {
+        SimpleReader in = new SimpleReader1L();
+        SimpleWriter out = new SimpleWriter1L();
+
+        //Ask for the corpus unless it is given
+        String path;
+        if (args.length > 0) {
+            path = args[0];
+        } else {
+            out.println("Write the path of your corpus file.");
+            path = in.nextLine();
+        }
+        SimpleReader input = new SimpleReader1L(path);
+        List<String> words = readWords(input);
+        input.close();
+
+        if (words.isEmpty()) {
+            out.println("The corpus has no words.");
+        } else {
+            out.println("fill and drain " + words.size() + " words of " + path
+                    + " (fastest of " + RUNS + " runs, ms)");
+            out.println("n\t5a\tstring\t5a (ignore case)\tstring (ignore case)");
+            for (int copies : COPIES) {
+                String[] entries = repeat(words, copies);
+                out.print(Integer.toString(entries.length));
+                out.print(String.format("\t%.1f", timeSort(
+                        new SortingMachine5a<String>(new StringLT()), entries)));
+                out.print(String.format("\t%.1f",
+                        timeSort(new StringSortingMachine(false), entries)));
+                out.print(String.format("\t%.1f",
+                        timeSort(new SortingMachine5a<String>(
+                                String.CASE_INSENSITIVE_ORDER), entries)));
+                out.println(String.format("\t%.1f",
+                        timeSort(new StringSortingMachine(true), entries)));
+            }
+        }
+
+        in.close();
+        out.close();
+    }
+
+}
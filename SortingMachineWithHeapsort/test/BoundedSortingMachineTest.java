@@ -0,0 +1,90 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Comparator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code BoundedSortingMachine}, with a bound
+ * large enough that the inherited test cases never reach it, plus test cases
+ * for what happens once the bound is reached.
+ */
+public final class BoundedSortingMachineTest extends SortingMachineTest {
+
+    /**
+     * Bound to be used in the inherited tests.
+     */
+    private static final int TEST_BOUND = 100;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new BoundedSortingMachine<String>(order, TEST_BOUND);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /**
+     * Test for add method past the bound.
+     */
+    @Test
+    public void testAddPastBound() {
+        /*
+         * Set up variables.
+         */
+        SortingMachine<String> m = new BoundedSortingMachine<String>(
+                ORDER, 3);
+        SortingMachine<String> mExpected = new SortingMachine1L<String>(
+                ORDER);
+        mExpected.add("blue");
+        mExpected.add("black");
+        mExpected.add("green");
+        /*
+         * Call method under test
+         */
+        m.add("yellow");
+        m.add("green");
+        m.add("purple");
+        m.add("blue");
+        m.add("white");
+        m.add("black");
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(mExpected, m);
+    }
+
+    /**
+     * Test for removeFirst method after adding past the bound.
+     */
+    @Test
+    public void testRemoveFirstPastBound() {
+        /*
+         * Set up variables.
+         */
+        SortingMachine<String> m = new BoundedSortingMachine<String>(
+                ORDER, 2);
+        m.add("yellow");
+        m.add("green");
+        m.add("purple");
+        m.add("blue");
+        m.changeToExtractionMode();
+        /*
+         * Call method under test
+         */
+        String first = m.removeFirst();
+        String second = m.removeFirst();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals("blue", first);
+        assertEquals("green", second);
+        assertEquals(0, m.size());
+    }
+
+}
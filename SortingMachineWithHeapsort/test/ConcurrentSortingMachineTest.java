@@ -0,0 +1,130 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.lang.ref.WeakReference;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code ConcurrentSortingMachine}, plus a
+ * test case with several threads adding at once.
+ */
+public final class ConcurrentSortingMachineTest extends SortingMachineTest {
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new ConcurrentSortingMachine<String>(order);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /**
+     * Test for add method called by several threads at once.
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting for the adding threads
+     */
+    @Test
+    public void testAddConcurrently() throws InterruptedException {
+        final int threadCount = 4;
+        final int perThread = 2500;
+        /*
+         * Set up variables.
+         */
+        final SortingMachine<Integer> m = new ConcurrentSortingMachine<Integer>(
+                new IntegerLT());
+        Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    m.add(i * threadCount + offset);
+                }
+            });
+        }
+        /*
+         * Call method under test
+         */
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        m.changeToExtractionMode();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(threadCount * perThread, m.size());
+        for (int i = 0; i < threadCount * perThread; i++) {
+            assertEquals(Integer.valueOf(i), m.removeFirst());
+        }
+    }
+
+    /**
+     * Test for changeToExtractionMode dropping the buffers of a thread that
+     * added entries and is still alive while the machine is drained.
+     *
+     * @throws InterruptedException
+     *             if interrupted while waiting for the adding thread
+     */
+    @Test
+    public void testChangeToExtractionModeReleasesBuffers()
+            throws InterruptedException {
+        final int count = 200000;
+        final int gcAttempts = 20;
+        /*
+         * Set up variables.
+         */
+        final SortingMachine<Integer> m = new ConcurrentSortingMachine<Integer>(
+                new IntegerLT());
+        final CountDownLatch added = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                m.add(count - 1 - i);
+            }
+            added.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        try {
+            added.await();
+            WeakReference<Object> localBuffer = new WeakReference<Object>(
+                    ((ConcurrentSortingMachine<Integer>) m).localBuffer());
+            /*
+             * Call method under test
+             */
+            m.changeToExtractionMode();
+            for (int i = 0; i < count; i++) {
+                assertEquals(Integer.valueOf(i), m.removeFirst());
+            }
+            /*
+             * Assert that the buffers can be collected while the producer
+             * is still alive
+             */
+            for (int i = 0; i < gcAttempts && localBuffer.get() != null; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            assertNull(localBuffer.get());
+            assertEquals(0, m.size());
+        } finally {
+            done.countDown();
+            producer.join();
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code ConventionChecking}. Each test case restores
+ * the level and sampling interval it found.
+ */
+public class ConventionCheckingTest {
+
+    /**
+     * Level when the test case started.
+     */
+    private final ConventionChecking.Level savedLevel = ConventionChecking
+            .level();
+
+    /**
+     * Sampling interval when the test case started.
+     */
+    private final int savedInterval = ConventionChecking.samplingInterval();
+
+    /**
+     * Restores the level and sampling interval.
+     */
+    @After
+    public final void restore() {
+        ConventionChecking.setLevel(this.savedLevel);
+        ConventionChecking.setSamplingInterval(this.savedInterval);
+    }
+
+    /**
+     * Counts how many of {@code calls} calls to {@code shouldCheck} say to
+     * check.
+     *
+     * @param calls
+     *            the number of calls
+     * @return the number of calls that returned true
+     */
+    private static int countChecks(int calls) {
+        int count = 0;
+        for (int i = 0; i < calls; i++) {
+            if (ConventionChecking.shouldCheck()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Test for setLevel.
+     */
+    @Test
+    public final void testSetLevel() {
+        for (ConventionChecking.Level l : ConventionChecking.Level.values()) {
+            ConventionChecking.setLevel(l);
+            assertEquals(l, ConventionChecking.level());
+            assertEquals(l == ConventionChecking.Level.FULL,
+                    ConventionChecking.isFull());
+            assertEquals(l == ConventionChecking.Level.SAMPLED,
+                    ConventionChecking.isSampling());
+        }
+    }
+
+    /**
+     * Test for setSamplingInterval.
+     */
+    @Test
+    public final void testSetSamplingInterval() {
+        ConventionChecking.setSamplingInterval(1);
+        assertEquals(1, ConventionChecking.samplingInterval());
+        ConventionChecking.setSamplingInterval(7);
+        assertEquals(7, ConventionChecking.samplingInterval());
+    }
+
+    /**
+     * Test for setSamplingInterval with interval 0.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public final void testSetSamplingIntervalZero() {
+        ConventionChecking.setSamplingInterval(0);
+    }
+
+    /**
+     * Test for setSamplingInterval with a negative interval.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public final void testSetSamplingIntervalNegative() {
+        ConventionChecking.setSamplingInterval(-3);
+    }
+
+    /**
+     * Test for shouldCheck at level FULL.
+     */
+    @Test
+    public final void testShouldCheckFull() {
+        ConventionChecking.setLevel(ConventionChecking.Level.FULL);
+        ConventionChecking.setSamplingInterval(5);
+        assertEquals(20, countChecks(20));
+    }
+
+    /**
+     * Test for shouldCheck at level SAMPLED.
+     */
+    @Test
+    public final void testShouldCheckSampled() {
+        ConventionChecking.setLevel(ConventionChecking.Level.SAMPLED);
+        ConventionChecking.setSamplingInterval(5);
+        assertEquals(4, countChecks(20));
+    }
+
+    /**
+     * Test for shouldCheck at level SAMPLED with interval 1.
+     */
+    @Test
+    public final void testShouldCheckSampledIntervalOne() {
+        ConventionChecking.setLevel(ConventionChecking.Level.SAMPLED);
+        ConventionChecking.setSamplingInterval(1);
+        assertEquals(20, countChecks(20));
+    }
+
+    /**
+     * Test for shouldCheck at level OFF.
+     */
+    @Test
+    public final void testShouldCheckOff() {
+        ConventionChecking.setLevel(ConventionChecking.Level.OFF);
+        ConventionChecking.setSamplingInterval(1);
+        assertEquals(0, countChecks(20));
+    }
+
+    /**
+     * Test for parseLevel with valid values.
+     */
+    @Test
+    public final void testParseLevelValid() {
+        assertEquals(ConventionChecking.Level.FULL,
+                ConventionChecking.parseLevel("full"));
+        assertEquals(ConventionChecking.Level.SAMPLED,
+                ConventionChecking.parseLevel("Sampled"));
+        assertEquals(ConventionChecking.Level.OFF,
+                ConventionChecking.parseLevel(" OFF "));
+    }
+
+    /**
+     * Test for parseLevel with missing and invalid values.
+     */
+    @Test
+    public final void testParseLevelInvalid() {
+        assertEquals(ConventionChecking.Level.FULL,
+                ConventionChecking.parseLevel(null));
+        assertEquals(ConventionChecking.Level.FULL,
+                ConventionChecking.parseLevel("fast"));
+        assertEquals(ConventionChecking.Level.FULL,
+                ConventionChecking.parseLevel(""));
+    }
+
+    /**
+     * Test for parseInterval with valid values.
+     */
+    @Test
+    public final void testParseIntervalValid() {
+        assertEquals(1, ConventionChecking.parseInterval("1"));
+        assertEquals(250, ConventionChecking.parseInterval(" 250 "));
+    }
+
+    /**
+     * Test for parseInterval with missing and invalid values.
+     */
+    @Test
+    public final void testParseIntervalInvalid() {
+        assertEquals(ConventionChecking.DEFAULT_INTERVAL,
+                ConventionChecking.parseInterval(null));
+        assertEquals(ConventionChecking.DEFAULT_INTERVAL,
+                ConventionChecking.parseInterval("0"));
+        assertEquals(ConventionChecking.DEFAULT_INTERVAL,
+                ConventionChecking.parseInterval("-4"));
+        assertEquals(ConventionChecking.DEFAULT_INTERVAL,
+                ConventionChecking.parseInterval("often"));
+    }
+
+}
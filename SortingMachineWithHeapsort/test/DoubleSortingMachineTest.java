@@ -0,0 +1,81 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code DoubleSortingMachine}, in both its heap and its
+ * radix sort configuration.
+ */
+public class DoubleSortingMachineTest {
+
+    /**
+     * Values used by the test cases, in no particular order.
+     */
+    private static final double[] VALUES = { 2.5, -0.0, Double.NaN, -1e300,
+        0.0, Double.POSITIVE_INFINITY, -2.5, Double.MIN_VALUE, 1e-300,
+        Double.NEGATIVE_INFINITY, -Double.MIN_VALUE, 2.5 };
+
+    /**
+     * The same values, in ascending order (by {@code Double.compare}).
+     */
+    private static final double[] SORTED = { Double.NEGATIVE_INFINITY, -1e300,
+        -2.5, -Double.MIN_VALUE, -0.0, 0.0, Double.MIN_VALUE, 1e-300, 2.5, 2.5,
+        Double.POSITIVE_INFINITY, Double.NaN };
+
+    /**
+     * Adds all of {@code VALUES} to a new machine, then removes them all.
+     *
+     * @param radixSort
+     *            whether the machine radix sorts its entries
+     * @return the values in the order they were removed
+     */
+    private static double[] addAndRemoveAll(boolean radixSort) {
+        DoubleSortingMachine m = new DoubleSortingMachine(radixSort);
+        for (double x : VALUES) {
+            m.add(x);
+        }
+        m.changeToExtractionMode();
+        double[] result = new double[m.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = m.removeFirst();
+        }
+        return result;
+    }
+
+    /**
+     * Test for removeFirst method with a heap.
+     */
+    @Test
+    public final void testRemoveFirstHeap() {
+        double[] result = addAndRemoveAll(false);
+        for (int i = 0; i < SORTED.length; i++) {
+            assertEquals(0, Double.compare(SORTED[i], result[i]));
+        }
+    }
+
+    /**
+     * Test for removeFirst method with a radix-sorted array.
+     */
+    @Test
+    public final void testRemoveFirstRadixSort() {
+        double[] result = addAndRemoveAll(true);
+        for (int i = 0; i < SORTED.length; i++) {
+            assertEquals(0, Double.compare(SORTED[i], result[i]));
+        }
+    }
+
+    /**
+     * Test for removeFirst method after removing some values and adding none.
+     */
+    @Test
+    public final void testSizeAfterRemoveFirst() {
+        DoubleSortingMachine m = new DoubleSortingMachine(true);
+        m.add(1.0);
+        m.add(-1.0);
+        m.add(0.5);
+        m.changeToExtractionMode();
+        assertEquals(0, Double.compare(-1.0, m.removeFirst()));
+        assertEquals(2, m.size());
+    }
+
+}
@@ -0,0 +1,326 @@
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code ExternalSortingMachine} with a
+ * memory budget small enough that the test cases spill runs to disk, plus test
+ * cases for merging many runs and for deleting the run files. Every machine
+ * the fixture constructs is cleared after each test case, so the run files it
+ * spilled are deleted.
+ */
+public final class ExternalSortingMachineTest extends SortingMachineTest {
+
+    /**
+     * Memory budget to be used in tests.
+     */
+    private static final int TEST_MEMORY_BUDGET = 2;
+
+    /**
+     * Number of entries that makes the test machines spill more runs than
+     * are merged at once, so they are merged in several passes.
+     */
+    private static final int MANY_ENTRIES = 20
+            * ExternalSortingMachine.MAX_MERGE_WIDTH * TEST_MEMORY_BUDGET;
+
+    /**
+     * Machines constructed by {@code constructorTest} in the current test
+     * case.
+     */
+    private final List<SortingMachine<String>> constructed =
+            new ArrayList<SortingMachine<String>>();
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        SortingMachine<String> m = new ExternalSortingMachine<String>(order,
+                new StringCodec(), TEST_MEMORY_BUDGET);
+        this.constructed.add(m);
+        return m;
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+    /**
+     * Clears the machines constructed in the current test case, deleting
+     * their run files.
+     */
+    @After
+    public final void clearConstructed() {
+        for (SortingMachine<String> m : this.constructed) {
+            m.clear();
+        }
+        this.constructed.clear();
+    }
+
+    /**
+     * Returns the number of run files in the temporary-file directory.
+     *
+     * @return the number of run files
+     */
+    private static int runFileCount() {
+        File[] files = new File(System.getProperty("java.io.tmpdir"))
+                .listFiles((dir, name) -> name
+                        .startsWith(ExternalSortingMachine.RUN_FILE_PREFIX)
+                        && name.endsWith(
+                                ExternalSortingMachine.RUN_FILE_SUFFIX));
+        int count = 0;
+        if (files != null) {
+            count = files.length;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of files open in this JVM, or -1 where the platform
+     * does not report it.
+     *
+     * @return the number of open files, or -1
+     */
+    private static long openFileCount() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        long count = -1;
+        if (os instanceof UnixOperatingSystemMXBean) {
+            count = ((UnixOperatingSystemMXBean) os)
+                    .getOpenFileDescriptorCount();
+        }
+        return count;
+    }
+
+    /**
+     * Starts {@code count} iterators over {@code m}, takes {@code steps}
+     * entries from each, and keeps them all without finishing any.
+     *
+     * @param m
+     *            the machine
+     * @param count
+     *            the number of iterators
+     * @param steps
+     *            the number of entries taken from each iterator
+     * @return the abandoned iterators
+     */
+    private static List<Iterator<String>> abandonIterators(
+            SortingMachine<String> m, int count, int steps) {
+        List<Iterator<String>> abandoned = new ArrayList<Iterator<String>>();
+        for (int i = 0; i < count; i++) {
+            Iterator<String> it = m.iterator();
+            for (int j = 0; j < steps; j++) {
+                it.next();
+            }
+            abandoned.add(it);
+        }
+        return abandoned;
+    }
+
+    /**
+     * Returns the {@code i}-th of a sequence of distinct entries in no
+     * particular order.
+     *
+     * @param i
+     *            the index of the entry
+     * @return the entry
+     */
+    private static String entry(int i) {
+        final int multiplier = 7919;
+        return Integer.toString((i * multiplier) % MANY_ENTRIES + MANY_ENTRIES);
+    }
+
+    /**
+     * Test for removeFirst method with more runs than are merged at once.
+     */
+    @Test
+    public void testRemoveFirstManyRuns() {
+        /*
+         * Set up variables.
+         */
+        int before = runFileCount();
+        SortingMachine<String> m = this.constructorTest(ORDER);
+        SortingMachine<String> mExpected = this.constructorRef(ORDER);
+        for (int i = 0; i < MANY_ENTRIES; i++) {
+            m.add(entry(i));
+            mExpected.add(entry(i));
+        }
+        m.changeToExtractionMode();
+        mExpected.changeToExtractionMode();
+        /*
+         * Call method under test and assert that values of variables match
+         * expectations
+         */
+        for (int i = 0; i < MANY_ENTRIES; i++) {
+            assertEquals(mExpected.removeFirst(), m.removeFirst());
+        }
+        assertEquals(0, m.size());
+        assertEquals(before, runFileCount());
+    }
+
+    /**
+     * Test for clear method deleting the run files.
+     */
+    @Test
+    public void testClearDeletesRunFiles() {
+        /*
+         * Set up variables.
+         */
+        int before = runFileCount();
+        SortingMachine<String> m = this.constructorTest(ORDER);
+        for (int i = 0; i < MANY_ENTRIES; i++) {
+            m.add(entry(i));
+        }
+        m.changeToExtractionMode();
+        m.removeFirst();
+        /*
+         * Call method under test
+         */
+        m.clear();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(before, runFileCount());
+    }
+
+    /**
+     * Test for transferFrom method deleting the run files of the receiver.
+     */
+    @Test
+    public void testTransferFromDeletesRunFiles() {
+        /*
+         * Set up variables.
+         */
+        int before = runFileCount();
+        SortingMachine<String> m = this.constructorTest(ORDER);
+        SortingMachine<String> source = this.constructorTest(ORDER);
+        for (int i = 0; i < 10; i++) {
+            m.add(entry(i));
+        }
+        /*
+         * Call method under test
+         */
+        m.transferFrom(source);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(0, m.size());
+        assertEquals(before, runFileCount());
+    }
+
+    /**
+     * Test for iterator method in insertion mode, with entries read back from
+     * run files.
+     */
+    @Test
+    public void testIteratorInsertionModeRunFiles() {
+        /*
+         * Set up variables.
+         */
+        SortingMachine<String> m = this.constructorTest(ORDER);
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 25; i++) {
+            m.add(entry(i));
+            expected.add(entry(i));
+        }
+        /*
+         * Call method under test
+         */
+        List<String> seen = new ArrayList<String>();
+        for (String x : m) {
+            seen.add(x);
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        Collections.sort(expected);
+        Collections.sort(seen);
+        assertEquals(expected, seen);
+        assertEquals(25, m.size());
+    }
+
+    /**
+     * Test for iterator method in extraction mode, after some entries were
+     * removed, with entries read back from run files.
+     */
+    @Test
+    public void testIteratorExtractionModeRunFiles() {
+        /*
+         * Set up variables.
+         */
+        SortingMachine<String> m = this.constructorTest(ORDER);
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < MANY_ENTRIES; i++) {
+            m.add(entry(i));
+            expected.add(entry(i));
+        }
+        m.changeToExtractionMode();
+        Collections.sort(expected, ORDER);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(expected.remove(0), m.removeFirst());
+        }
+        /*
+         * Call method under test
+         */
+        List<String> seen = new ArrayList<String>();
+        for (String x : m) {
+            seen.add(x);
+        }
+        /*
+         * Assert that values of variables match expectations
+         */
+        Collections.sort(seen, ORDER);
+        assertEquals(expected, seen);
+        assertEquals(expected.get(0), m.removeFirst());
+    }
+
+    /**
+     * Test for iterator method with many iterators over run files abandoned
+     * part-way, in both modes, checking that none of them keeps a file open.
+     */
+    @Test
+    public void testIteratorAbandonedKeepsNoFileOpen() {
+        final int entries = 25;
+        final int iterators = 1000;
+        /*
+         * Set up variables.
+         */
+        SortingMachine<String> m = this.constructorTest(ORDER);
+        for (int i = 0; i < entries; i++) {
+            m.add(entry(i));
+        }
+        long before = openFileCount();
+        /*
+         * Call method under test
+         */
+        List<Iterator<String>> insertion = abandonIterators(m, iterators, 3);
+        long afterInsertion = openFileCount();
+        m.changeToExtractionMode();
+        m.removeFirst();
+        long beforeExtraction = openFileCount();
+        List<Iterator<String>> extraction = abandonIterators(m, iterators,
+                entries / 2 + 3);
+        long afterExtraction = openFileCount();
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(iterators, insertion.size());
+        assertEquals(iterators, extraction.size());
+        assertEquals(before, afterInsertion);
+        assertEquals(beforeExtraction, afterExtraction);
+        assertEquals(entries - 1, m.size());
+    }
+
+}
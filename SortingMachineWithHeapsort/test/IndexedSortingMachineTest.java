@@ -0,0 +1,142 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code IndexedSortingMachine<Integer>}.
+ */
+public class IndexedSortingMachineTest {
+
+    /**
+     * Comparator instance to be used in the test cases.
+     */
+    private static final Comparator<Integer> ORDER = new IntegerLT();
+
+    /**
+     * Test for add and removeFirst methods, interleaved.
+     */
+    @Test
+    public final void testAddRemoveFirstInterleaved() {
+        IndexedSortingMachine<Integer> m = new IndexedSortingMachine<Integer>(
+                ORDER);
+        m.add(5);
+        m.add(3);
+        m.add(8);
+        assertEquals(Integer.valueOf(3), m.removeFirst());
+        m.add(1);
+        m.add(6);
+        assertEquals(Integer.valueOf(1), m.removeFirst());
+        assertEquals(Integer.valueOf(5), m.removeFirst());
+        assertEquals(Integer.valueOf(6), m.first());
+        assertEquals(2, m.size());
+    }
+
+    /**
+     * Test for decreaseKey method.
+     */
+    @Test
+    public final void testDecreaseKey() {
+        IndexedSortingMachine<Integer> m = new IndexedSortingMachine<Integer>(
+                ORDER);
+        m.add(4);
+        m.add(2);
+        IndexedSortingMachine.Handle<Integer> h = m.add(9);
+        m.add(7);
+        m.decreaseKey(h, 1);
+        assertEquals(Integer.valueOf(1), h.entry());
+        assertEquals(Integer.valueOf(1), m.removeFirst());
+        assertEquals(Integer.valueOf(2), m.removeFirst());
+        assertEquals(false, m.contains(h));
+    }
+
+    /**
+     * Test for increaseKey method.
+     */
+    @Test
+    public final void testIncreaseKey() {
+        IndexedSortingMachine<Integer> m = new IndexedSortingMachine<Integer>(
+                ORDER);
+        IndexedSortingMachine.Handle<Integer> h = m.add(1);
+        m.add(4);
+        m.add(2);
+        m.add(7);
+        m.increaseKey(h, 5);
+        assertEquals(Integer.valueOf(2), m.removeFirst());
+        assertEquals(Integer.valueOf(4), m.removeFirst());
+        assertEquals(Integer.valueOf(5), m.removeFirst());
+        assertEquals(Integer.valueOf(7), m.removeFirst());
+    }
+
+    /**
+     * Test for remove method.
+     */
+    @Test
+    public final void testRemove() {
+        IndexedSortingMachine<Integer> m = new IndexedSortingMachine<Integer>(
+                ORDER);
+        m.add(3);
+        IndexedSortingMachine.Handle<Integer> h = m.add(6);
+        m.add(1);
+        m.add(8);
+        assertEquals(true, m.contains(h));
+        assertEquals(Integer.valueOf(6), m.remove(h));
+        assertEquals(false, m.contains(h));
+        assertEquals(3, m.size());
+        assertEquals(Integer.valueOf(1), m.removeFirst());
+        assertEquals(Integer.valueOf(3), m.removeFirst());
+        assertEquals(Integer.valueOf(8), m.removeFirst());
+    }
+
+    /**
+     * Test for many reprioritizations and removals, against the expected
+     * order.
+     */
+    @Test
+    public final void testManyOperations() {
+        final int count = 500;
+        final int step = 7919;
+        IndexedSortingMachine<Integer> m = new IndexedSortingMachine<Integer>(
+                ORDER);
+        List<IndexedSortingMachine.Handle<Integer>> handles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            handles.add(m.add((i * step) % count + count));
+        }
+        for (int i = 0; i < count; i += 2) {
+            //even handles get smaller entries, every third odd one is removed
+            m.decreaseKey(handles.get(i), handles.get(i).entry() - count);
+            if (i % 3 == 0) {
+                m.remove(handles.get(i + 1));
+            } else {
+                m.increaseKey(handles.get(i + 1),
+                        handles.get(i + 1).entry() + count);
+            }
+        }
+        int previous = Integer.MIN_VALUE;
+        int removed = 0;
+        while (m.size() > 0) {
+            int x = m.removeFirst();
+            assertEquals(true, previous <= x);
+            previous = x;
+            removed++;
+        }
+        assertEquals(count - (count / 2 + 2) / 3, removed);
+    }
+
+    /**
+     * Test for clear method, which leaves old handles invalid.
+     */
+    @Test
+    public final void testClear() {
+        IndexedSortingMachine<Integer> m = new IndexedSortingMachine<Integer>(
+                ORDER);
+        IndexedSortingMachine.Handle<Integer> h = m.add(2);
+        m.clear();
+        assertEquals(0, m.size());
+        assertEquals(false, m.contains(h));
+    }
+
+}
@@ -0,0 +1,144 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code IntSortingMachine}, in both its heap and its
+ * radix sort configuration.
+ */
+public class IntSortingMachineTest {
+
+    /**
+     * Values used by the test cases, in no particular order.
+     */
+    private static final int[] VALUES = { 42, -7, 0, Integer.MAX_VALUE, 13,
+        -7, Integer.MIN_VALUE, 256, -256, 1, 65536, -1 };
+
+    /**
+     * The same values, in ascending order.
+     */
+    private static final int[] SORTED = { Integer.MIN_VALUE, -256, -7, -7, -1,
+        0, 1, 13, 42, 256, 65536, Integer.MAX_VALUE };
+
+    /**
+     * Adds all of {@code VALUES} to a new machine, then removes them all.
+     *
+     * @param radixSort
+     *            whether the machine radix sorts its entries
+     * @return the values in the order they were removed
+     */
+    private static int[] addAndRemoveAll(boolean radixSort) {
+        IntSortingMachine m = new IntSortingMachine(radixSort);
+        for (int x : VALUES) {
+            m.add(x);
+        }
+        m.changeToExtractionMode();
+        int[] result = new int[m.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = m.removeFirst();
+        }
+        return result;
+    }
+
+    /**
+     * Test for no-argument constructor.
+     */
+    @Test
+    public final void testConstructor() {
+        IntSortingMachine m = new IntSortingMachine();
+        assertEquals(true, m.isInInsertionMode());
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Test for add method.
+     */
+    @Test
+    public final void testAdd() {
+        IntSortingMachine m = new IntSortingMachine();
+        for (int x : VALUES) {
+            m.add(x);
+        }
+        assertEquals(true, m.isInInsertionMode());
+        assertEquals(VALUES.length, m.size());
+    }
+
+    /**
+     * Test for changeToExtractionMode method on an empty machine.
+     */
+    @Test
+    public final void testChangeToExtractionModeEmpty() {
+        IntSortingMachine m = new IntSortingMachine(true);
+        m.changeToExtractionMode();
+        assertEquals(false, m.isInInsertionMode());
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Test for removeFirst method with a heap.
+     */
+    @Test
+    public final void testRemoveFirstHeap() {
+        int[] result = addAndRemoveAll(false);
+        for (int i = 0; i < SORTED.length; i++) {
+            assertEquals(SORTED[i], result[i]);
+        }
+    }
+
+    /**
+     * Test for removeFirst method with a radix-sorted array.
+     */
+    @Test
+    public final void testRemoveFirstRadixSort() {
+        int[] result = addAndRemoveAll(true);
+        for (int i = 0; i < SORTED.length; i++) {
+            assertEquals(SORTED[i], result[i]);
+        }
+    }
+
+    /**
+     * Test for removeFirst method with many values, some of which are equal.
+     */
+    @Test
+    public final void testRemoveFirstMany() {
+        final int count = 1000;
+        final int step = 7919;
+        IntSortingMachine heap = new IntSortingMachine(false);
+        IntSortingMachine radix = new IntSortingMachine(true);
+        for (int i = 0; i < count; i++) {
+            int x = (i * step) % (count / 2) - count / 4;
+            heap.add(x);
+            radix.add(x);
+        }
+        heap.changeToExtractionMode();
+        radix.changeToExtractionMode();
+        int previous = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            int x = heap.removeFirst();
+            assertEquals(true, previous <= x);
+            assertEquals(x, radix.removeFirst());
+            previous = x;
+        }
+        assertEquals(0, heap.size());
+        assertEquals(0, radix.size());
+    }
+
+    /**
+     * Test for transferFrom method.
+     */
+    @Test
+    public final void testTransferFrom() {
+        IntSortingMachine m = new IntSortingMachine(true);
+        IntSortingMachine source = new IntSortingMachine(true);
+        source.add(3);
+        source.add(1);
+        source.changeToExtractionMode();
+        m.transferFrom(source);
+        assertEquals(true, source.isInInsertionMode());
+        assertEquals(0, source.size());
+        assertEquals(false, m.isInInsertionMode());
+        assertEquals(1, m.removeFirst());
+        assertEquals(3, m.removeFirst());
+    }
+
+}
@@ -0,0 +1,15 @@
+import java.util.Comparator;
+
+/**
+ * Comparator<Integer> implementation to be used in the test cases for
+ * {@code SortingMachine}s of {@code Integer}s. Compare {@code Integer}s in
+ * ascending order.
+ */
+public final class IntegerLT implements Comparator<Integer> {
+
+    @Override
+    public int compare(Integer i1, Integer i2) {
+        return i1.compareTo(i2);
+    }
+
+}
@@ -0,0 +1,153 @@
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code LongSortingMachine}, in both its heap and
+ * its radix sort configuration.
+ */
+public class LongSortingMachineTest {
+
+    /**
+     * Values used by the test cases, in no particular order.
+     */
+    private static final long[] VALUES = { 42, -7, 0, Long.MAX_VALUE, 13,
+        -7, Long.MIN_VALUE, 1L << 40, -(1L << 40), 1, 4294967296L,
+        Integer.MIN_VALUE, -1, Integer.MAX_VALUE, Long.MIN_VALUE + 1 };
+
+    /**
+     * The same values, in ascending order.
+     */
+    private static final long[] SORTED = { Long.MIN_VALUE,
+        Long.MIN_VALUE + 1, -(1L << 40), Integer.MIN_VALUE, -7, -7, -1, 0, 1,
+        13, 42, Integer.MAX_VALUE, 4294967296L, 1L << 40, Long.MAX_VALUE };
+
+    /**
+     * Multiplier spreading small values over the high-order bytes of a
+     * {@code long}.
+     */
+    private static final long SPREAD = (1L << 40) + 1;
+
+    /**
+     * Adds all of {@code VALUES} to a new machine, then removes them all.
+     *
+     * @param radixSort
+     *            whether the machine radix sorts its entries
+     * @return the values in the order they were removed
+     */
+    private static long[] addAndRemoveAll(boolean radixSort) {
+        LongSortingMachine m = new LongSortingMachine(radixSort);
+        for (long x : VALUES) {
+            m.add(x);
+        }
+        m.changeToExtractionMode();
+        long[] result = new long[m.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = m.removeFirst();
+        }
+        return result;
+    }
+
+    /**
+     * Test for no-argument constructor.
+     */
+    @Test
+    public final void testConstructor() {
+        LongSortingMachine m = new LongSortingMachine();
+        assertEquals(true, m.isInInsertionMode());
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Test for add method.
+     */
+    @Test
+    public final void testAdd() {
+        LongSortingMachine m = new LongSortingMachine();
+        for (long x : VALUES) {
+            m.add(x);
+        }
+        assertEquals(true, m.isInInsertionMode());
+        assertEquals(VALUES.length, m.size());
+    }
+
+    /**
+     * Test for changeToExtractionMode method on an empty machine.
+     */
+    @Test
+    public final void testChangeToExtractionModeEmpty() {
+        LongSortingMachine m = new LongSortingMachine(true);
+        m.changeToExtractionMode();
+        assertEquals(false, m.isInInsertionMode());
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Test for removeFirst method with a heap.
+     */
+    @Test
+    public final void testRemoveFirstHeap() {
+        long[] result = addAndRemoveAll(false);
+        for (int i = 0; i < SORTED.length; i++) {
+            assertEquals(SORTED[i], result[i]);
+        }
+    }
+
+    /**
+     * Test for removeFirst method with a radix-sorted array.
+     */
+    @Test
+    public final void testRemoveFirstRadixSort() {
+        long[] result = addAndRemoveAll(true);
+        for (int i = 0; i < SORTED.length; i++) {
+            assertEquals(SORTED[i], result[i]);
+        }
+    }
+
+    /**
+     * Test for removeFirst method with many values, some of which are equal,
+     * that differ in their high-order bytes.
+     */
+    @Test
+    public final void testRemoveFirstMany() {
+        final int count = 1000;
+        final int step = 7919;
+        LongSortingMachine heap = new LongSortingMachine(false);
+        LongSortingMachine radix = new LongSortingMachine(true);
+        for (int i = 0; i < count; i++) {
+            long x = ((i * step) % (count / 2) - count / 4) * SPREAD;
+            heap.add(x);
+            radix.add(x);
+        }
+        heap.changeToExtractionMode();
+        radix.changeToExtractionMode();
+        long previous = Long.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            long x = heap.removeFirst();
+            assertEquals(true, previous <= x);
+            assertEquals(x, radix.removeFirst());
+            previous = x;
+        }
+        assertEquals(0, heap.size());
+        assertEquals(0, radix.size());
+    }
+
+    /**
+     * Test for transferFrom method.
+     */
+    @Test
+    public final void testTransferFrom() {
+        LongSortingMachine m = new LongSortingMachine(true);
+        LongSortingMachine source = new LongSortingMachine(true);
+        source.add(3);
+        source.add(1);
+        source.changeToExtractionMode();
+        m.transferFrom(source);
+        assertEquals(true, source.isInInsertionMode());
+        assertEquals(0, source.size());
+        assertEquals(false, m.isInInsertionMode());
+        assertEquals(1, m.removeFirst());
+        assertEquals(3, m.removeFirst());
+    }
+
+}
@@ -1,12 +1,16 @@
+import static org.junit.Assert.assertEquals;
+
 import java.util.Comparator;
 
+import org.junit.Test;
+
 import components.sortingmachine.SortingMachine;
 import components.sortingmachine.SortingMachine1L;
 
 /**
  * Customized JUnit test fixture for {@code SortingMachine5a}.
  */
-public final class SortingMachine5aTest extends SortingMachineTest {
+public final class SortingMachine5aTest extends SortingMachine5aTestBase {
 
     @Override
     protected SortingMachine<String> constructorTest(Comparator<String> order) {
@@ -18,4 +22,41 @@ public final class SortingMachine5aTest extends SortingMachineTest {
         return new SortingMachine1L<String>(order);
     }
 
+    /**
+     * Test for meld method.
+     */
+    @Test
+    public void testMeld() {
+        /*
+         * Set up variables.
+         */
+        SortingMachine5a<String> m = new SortingMachine5a<String>(
+                ORDER);
+        SortingMachine5a<String> source = new SortingMachine5a<String>(
+                ORDER);
+        SortingMachine<String> mExpected = new SortingMachine1L<String>(
+                ORDER);
+        SortingMachine<String> sourceExpected = new SortingMachine1L<String>(
+                ORDER);
+        m.add("green");
+        m.add("black");
+        source.add("yellow");
+        source.add("blue");
+        source.add("green");
+        mExpected.add("green");
+        mExpected.add("black");
+        mExpected.add("yellow");
+        mExpected.add("blue");
+        mExpected.add("green");
+        /*
+         * Call method under test
+         */
+        m.meld(source);
+        /*
+         * Assert that values of variables match expectations
+         */
+        assertEquals(mExpected, m);
+        assertEquals(sourceExpected, source);
+    }
+
 }
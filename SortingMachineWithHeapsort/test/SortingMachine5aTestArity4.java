@@ -0,0 +1,27 @@
+import java.util.Comparator;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine5a} using the
+ * non-default constructor and a 4-ary heap.
+ */
+public final class SortingMachine5aTestArity4 extends SortingMachine5aTestBase {
+
+    /**
+     * Heap arity to be used in tests.
+     */
+    private static final int TEST_ARITY = 4;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine5a<String>(order, TEST_ARITY);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+}
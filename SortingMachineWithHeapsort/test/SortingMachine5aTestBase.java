@@ -0,0 +1,50 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Iterator;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+
+/**
+ * JUnit test fixture for the methods {@code SortingMachine5a} adds to
+ * {@code SortingMachine}, run by each {@code SortingMachine5a} fixture on
+ * machines built by its {@code constructorTest}.
+ */
+public abstract class SortingMachine5aTestBase extends SortingMachineTest {
+
+    /**
+     * Test for sortedIterator method.
+     */
+    @Test
+    public void testSortedIterator() {
+        /*
+         * Set up variables.
+         */
+        SortingMachine5a<String> m = (SortingMachine5a<String>) this
+                .constructorTest(ORDER);
+        SortingMachine<String> mExpected = this.constructorRef(ORDER);
+        String[] entries = { "yellow", "green", "purple", "blue", "white",
+            "black", "red", "green", "orange", "cyan", "gray" };
+        for (String x : entries) {
+            m.add(x);
+            mExpected.add(x);
+        }
+        m.changeToExtractionMode();
+        mExpected.changeToExtractionMode();
+        /*
+         * Call method under test
+         */
+        Iterator<String> it = m.sortedIterator();
+        /*
+         * Assert that values of variables match expectations
+         */
+        for (int i = 0; i < entries.length; i++) {
+            assertEquals(true, it.hasNext());
+            assertEquals(mExpected.removeFirst(), it.next());
+        }
+        assertEquals(false, it.hasNext());
+        assertEquals(entries.length, m.size());
+    }
+
+}
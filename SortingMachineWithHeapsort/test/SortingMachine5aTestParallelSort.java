@@ -0,0 +1,29 @@
+import java.util.Comparator;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code SortingMachine5a} using the
+ * parallel merge sort extraction engine.
+ */
+public final class SortingMachine5aTestParallelSort
+        extends SortingMachine5aTestBase {
+
+    /**
+     * Heap arity to be used in tests (ignored by the parallel sort engine).
+     */
+    private static final int TEST_ARITY = 2;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new SortingMachine5a<String>(order, TEST_ARITY,
+                SortingMachine5a.ExtractionEngine.PARALLEL_SORT);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(order);
+    }
+
+}
@@ -0,0 +1,76 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * JUnit test fixture for {@code SortingMachineMerge}.
+ */
+public class SortingMachineMergeTest {
+
+    /**
+     * Comparator instance to be used in the test cases.
+     */
+    private static final Comparator<Integer> ORDER = new IntegerLT();
+
+    /**
+     * Returns a machine in extraction mode with the given entries.
+     *
+     * @param engine
+     *            the extraction engine of the machine
+     * @param args
+     *            the entries
+     * @return the machine
+     */
+    private static SortingMachine5a<Integer> createFromArgs(
+            SortingMachine5a.ExtractionEngine engine, Integer... args) {
+        SortingMachine5a<Integer> m = new SortingMachine5a<Integer>(ORDER, 2,
+                engine);
+        for (Integer x : args) {
+            m.add(x);
+        }
+        m.changeToExtractionMode();
+        return m;
+    }
+
+    /**
+     * Test for merging no machines.
+     */
+    @Test
+    public void testMergeNone() {
+        SortingMachineMerge<Integer> merge = new SortingMachineMerge<Integer>(
+                new ArrayList<SortingMachine5a<Integer>>());
+        assertEquals(false, merge.hasNext());
+    }
+
+    /**
+     * Test for merging machines, some empty, with both extraction engines.
+     */
+    @Test
+    public void testMergeSeveral() {
+        List<SortingMachine5a<Integer>> machines = new ArrayList<>();
+        machines.add(createFromArgs(SortingMachine5a.ExtractionEngine.HEAP, 7,
+                1, 4, 10));
+        machines.add(createFromArgs(SortingMachine5a.ExtractionEngine.HEAP));
+        machines.add(createFromArgs(
+                SortingMachine5a.ExtractionEngine.PARALLEL_SORT, 3, 9, 2, 4));
+        machines.add(createFromArgs(SortingMachine5a.ExtractionEngine.HEAP, 5,
+                8, 6));
+        Integer[] expected = { 1, 2, 3, 4, 4, 5, 6, 7, 8, 9, 10 };
+
+        SortingMachineMerge<Integer> merge = new SortingMachineMerge<Integer>(
+                machines);
+
+        for (Integer x : expected) {
+            assertEquals(true, merge.hasNext());
+            assertEquals(x, merge.next());
+        }
+        assertEquals(false, merge.hasNext());
+        assertEquals(4, machines.get(0).size());
+        assertEquals(4, machines.get(2).size());
+    }
+
+}
@@ -103,7 +103,7 @@ public abstract class SortingMachineTest {
      * Comparator<String> implementation to be used in all test cases. Compare
      * {@code String}s in lexicographic order.
      */
-    private static class StringLT implements Comparator<String> {
+    protected static class StringLT implements Comparator<String> {
 
         @Override
         public int compare(String s1, String s2) {
@@ -115,7 +115,7 @@ public abstract class SortingMachineTest {
     /**
      * Comparator instance to be used in all test cases.
      */
-    private static final StringLT ORDER = new StringLT();
+    protected static final StringLT ORDER = new StringLT();
 
     /*
      * Sample test cases.
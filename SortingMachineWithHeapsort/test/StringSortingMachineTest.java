@@ -0,0 +1,162 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Test;
+
+import components.sortingmachine.SortingMachine;
+import components.sortingmachine.SortingMachine1L;
+
+/**
+ * Customized JUnit test fixture for {@code StringSortingMachine}. The
+ * inherited test cases use a case-insensitive order, so the machine under test
+ * ignores case, and the reference machine uses
+ * {@code String.CASE_INSENSITIVE_ORDER}, which is the same order and the one
+ * the machine under test reports; the other test cases check both orders
+ * against {@code Arrays.sort}.
+ */
+public final class StringSortingMachineTest extends SortingMachineTest {
+
+    /**
+     * Seed for the random test entries.
+     */
+    private static final long SEED = 2024L;
+
+    @Override
+    protected SortingMachine<String> constructorTest(Comparator<String> order) {
+        return new StringSortingMachine(true);
+    }
+
+    @Override
+    protected SortingMachine<String> constructorRef(Comparator<String> order) {
+        return new SortingMachine1L<String>(String.CASE_INSENSITIVE_ORDER);
+    }
+
+    /**
+     * Returns {@code n} pseudo-random words over a small alphabet of both
+     * cases, so that many of them share long prefixes.
+     *
+     * @param n
+     *            the number of words
+     * @return the words
+     */
+    private static String[] randomWords(int n) {
+        final String alphabet = "aAbB-";
+        final int maxLength = 12;
+        Random random = new Random(SEED);
+        String[] words = new String[n];
+        for (int i = 0; i < n; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = random.nextInt(maxLength);
+            for (int j = 0; j < length; j++) {
+                word.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+
+    /**
+     * Adds {@code words} to {@code m}, then removes them all and checks that
+     * they come out in the same order as {@code Arrays.sort} puts them in.
+     *
+     * @param m
+     *            the machine
+     * @param words
+     *            the words
+     * @param order
+     *            the order {@code m} should use
+     */
+    private static void checkSorts(SortingMachine<String> m, String[] words,
+            Comparator<String> order) {
+        for (String w : words) {
+            m.add(w);
+        }
+        m.changeToExtractionMode();
+        String[] expected = words.clone();
+        Arrays.sort(expected, order);
+        for (String w : expected) {
+            assertEquals(0, order.compare(w, m.removeFirst()));
+        }
+        assertEquals(0, m.size());
+    }
+
+    /**
+     * Test for removeFirst method with the natural order, including prefixes
+     * and the empty {@code String}.
+     */
+    @Test
+    public void testRemoveFirstNaturalOrder() {
+        SortingMachine<String> m = new StringSortingMachine();
+        m.add("banana");
+        m.add("Band");
+        m.add("");
+        m.add("ban");
+        m.add("bandana");
+        m.add("band");
+        m.changeToExtractionMode();
+        assertEquals("", m.removeFirst());
+        assertEquals("Band", m.removeFirst());
+        assertEquals("ban", m.removeFirst());
+        assertEquals("banana", m.removeFirst());
+        assertEquals("band", m.removeFirst());
+        assertEquals("bandana", m.removeFirst());
+    }
+
+    /**
+     * Test for removeFirst method with many words in the natural order.
+     */
+    @Test
+    public void testRemoveFirstManyNaturalOrder() {
+        final int count = 2000;
+        checkSorts(new StringSortingMachine(false), randomWords(count),
+                Comparator.naturalOrder());
+    }
+
+    /**
+     * Test for removeFirst method with many words, ignoring case.
+     */
+    @Test
+    public void testRemoveFirstManyIgnoreCase() {
+        final int count = 2000;
+        checkSorts(new StringSortingMachine(true), randomWords(count),
+                String.CASE_INSENSITIVE_ORDER);
+    }
+
+    /**
+     * Test for removeFirst method with many words that share a common prefix
+     * much longer than the words are many.
+     */
+    @Test
+    public void testRemoveFirstLongCommonPrefix() {
+        final int count = 50;
+        final int prefixLength = 20000;
+        StringBuilder prefix = new StringBuilder();
+        for (int i = 0; i < prefixLength; i++) {
+            prefix.append((char) ('a' + i % 2));
+        }
+        String[] words = randomWords(count);
+        for (int i = 0; i < count; i++) {
+            words[i] = prefix + words[i];
+        }
+        checkSorts(new StringSortingMachine(false), words,
+                Comparator.naturalOrder());
+        checkSorts(new StringSortingMachine(true), words,
+                String.CASE_INSENSITIVE_ORDER);
+    }
+
+    /**
+     * Test for removeFirst method with many equal words.
+     */
+    @Test
+    public void testRemoveFirstManyEqual() {
+        final int count = 40;
+        String[] words = new String[count];
+        Arrays.fill(words, "same");
+        checkSorts(new StringSortingMachine(false), words,
+                Comparator.naturalOrder());
+    }
+
+}